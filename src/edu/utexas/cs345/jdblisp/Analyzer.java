@@ -0,0 +1,369 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Analyzer
+ * Translates forms read by the parser into trees of executable
+ * {@link edu.utexas.cs345.jdblisp.Node}s. Each form is analyzed once: special
+ * forms destructure their arguments here (through
+ * {@link edu.utexas.cs345.jdblisp.SpecialFormEntry#analyze}) rather than
+ * every time the code runs.
+ *
+ * The analyzer also resolves lexical variables and local functions. Each
+ * function body (and each top-level form) gets a
+ * {@link edu.utexas.cs345.jdblisp.Scope} that assigns the names bound in it
+ * to slots of a {@link edu.utexas.cs345.jdblisp.Frame}; a reference is
+ * compiled to the (depth, slot) address of its binding. Names that are not
+ * lexically bound refer to the global environment.
+ *
+ * Closures are flat: a function body captures only the names it uses from
+ * enclosing scopes (see {@link edu.utexas.cs345.jdblisp.FunctionTemplate}).
+ * A variable that is both captured and assigned is held in a
+ * {@link edu.utexas.cs345.jdblisp.Cell} so that the copies share it.
+ */
+public class Analyzer {
+
+    private final LISPRuntime environment;
+
+    private Scope scope = null;
+
+    public Analyzer(LISPRuntime environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Analyze a top-level form, allocating a frame for any local bindings it
+     * makes.
+     * @param form The form to analyze.
+     * @return The executable node for the form.
+     */
+    public Node analyzeTopLevel(SExp form) throws LispException {
+        Scope enclosing = scope;
+        Scope toplevel = scope = new Scope(null);
+        Node body;
+
+        // restore the enclosing scope even if the analysis fails partway
+        // through a nested scope
+        try { body = analyze(form); }
+        finally { scope = enclosing; }
+
+        // no local bindings, no need for a frame
+        if (toplevel.size() == 0) return body;
+
+        return new FrameNode(toplevel.size(), body);
+    }
+
+    /**
+     * Analyze a single form.
+     * @param form The form to analyze.
+     * @return The executable node for the form.
+     */
+    public Node analyze(SExp form) throws LispException {
+
+        // keywords are self-evaluating, other symbols name variables
+        if (form instanceof Symbol && !(form instanceof Keyword))
+            return variableReference((Symbol) form);
+
+        // lists are special forms, function calls or lambda forms
+        if (form instanceof Cons) return analyzeCompound((Cons) form);
+
+        // anything else evaluates to itself
+        return new ConstantNode(form);
+    }
+
+    /**
+     * Analyze a series of forms to be evaluated in order, as in an implicit
+     * PROGN.
+     * @param forms The forms, may be <b>null</b>.
+     */
+    public Node analyzeBody(Cons forms) throws LispException {
+
+        // no forms, evaluates to NIL
+        if (forms == null) return new ConstantNode(SExp.NIL);
+
+        // only one form, no need for a PROGN
+        if (forms.next() == null) return analyze(forms.car);
+
+        return new PrognNode(analyzeAll(forms));
+    }
+
+    /**
+     * Analyze each form in a sequence.
+     * @param forms The forms, may be <b>null</b>.
+     */
+    public Node[] analyzeAll(Cons forms) throws LispException {
+        ArrayList<Node> nodes = new ArrayList<Node>();
+        for (; forms != null; forms = forms.next()) nodes.add(analyze(forms.car));
+        return nodes.toArray(new Node[nodes.size()]);
+    }
+
+    /**
+     * Read a parameter list, <tt>(symbol*)</tt>.
+     * @param paramList The parameter list.
+     */
+    public Symbol[] parseParameters(SExp paramList) throws LispException {
+        ArrayList<Symbol> parameters = new ArrayList<Symbol>();
+        Cons paramSeq = Cons.list(paramList);
+
+        while (paramSeq != null) {
+            parameters.add(TypeUtil.attemptCast(Symbol.class, paramSeq.car));
+            paramSeq = paramSeq.next();
+        }
+
+        return parameters.toArray(new Symbol[parameters.size()]);
+    }
+
+    // --------------
+    // LEXICAL SCOPES
+    // --------------
+
+    /**
+     * Begin the scope of a new function body. The frame of a function call
+     * is laid out with the parameters first, so the caller should bind the
+     * parameters before anything else.
+     */
+    Scope pushScope() {
+        scope = new Scope(scope);
+        return scope;
+    }
+
+    /** End the scope of a function body. */
+    Scope popScope() {
+        Scope ended = scope;
+        scope = scope.parent;
+        return ended;
+    }
+
+    /**
+     * Analyze a function definition. The body gets its own scope, with the
+     * parameters bound first. Parameters proclaimed special are bound
+     * dynamically for the extent of the body, as LET binds them.
+     * @param name The name of the function.
+     * @param parameters The parameters of the function.
+     * @param source The body of the function.
+     */
+    FunctionTemplate analyzeFunction(Symbol name, Symbol[] parameters,
+    SExp source) throws LispException {
+        Set<Symbol> cells = cellVariables(source);
+        ArrayList<Node> prologue = new ArrayList<Node>();
+        ArrayList<Symbol> specials = new ArrayList<Symbol>();
+        ArrayList<Node> specialValues = new ArrayList<Node>();
+        Node body;
+        Scope function = pushScope();
+
+        try {
+            for (Symbol param : parameters) {
+
+                // the argument of a special parameter gets a slot under a
+                // name the body cannot see, and is bound dynamically from it
+                if (isSpecial(param)) {
+                    Symbol hidden = new Symbol(param.name);
+                    int slot = function.bindVariable(hidden, false);
+                    specials.add(param);
+                    specialValues.add(new LocalVariableNode(hidden, 0, slot));
+                    continue;
+                }
+
+                boolean cell = cells.contains(param);
+                int slot = function.bindVariable(param, cell);
+
+                // move the argument into a cell on entry
+                if (cell) prologue.add(new LocalSetqNode(0, slot,
+                    new MakeCellNode(new LocalVariableNode(param, 0, slot))));
+            }
+
+            body = analyze(source);
+        } finally { popScope(); }
+
+        if (!specials.isEmpty()) {
+            int[] slots = new int[specials.size()];
+            Arrays.fill(slots, -1);
+            body = new LetNode(environment.globalSymbolTable,
+                specials.toArray(new Symbol[specials.size()]), slots,
+                specialValues.toArray(new Node[specialValues.size()]), body,
+                false);
+        }
+
+        if (!prologue.isEmpty()) {
+            prologue.add(body);
+            body = new PrognNode(prologue.toArray(new Node[prologue.size()]));
+        }
+
+        return new FunctionTemplate(name, parameters, source,
+            functionBody(body), function.size(), function.captures());
+    }
+
+    /**
+     * Find the variables that must be held in a {@link Cell} among those
+     * bound by a form: the ones that are assigned and may be captured by a
+     * closure. The forms are scanned conservatively; any symbol mentioned
+     * in a closure is taken to be captured, and shadowing is ignored.
+     * @param forms The forms in the scope of the bindings.
+     * @return The symbols that need cells.
+     */
+    Set<Symbol> cellVariables(SExp forms) {
+        Set<Symbol> assigned = new HashSet<Symbol>();
+        Set<Symbol> captured = new HashSet<Symbol>();
+        scan(forms, false, assigned, captured);
+        assigned.retainAll(captured);
+        return assigned;
+    }
+
+    private static void scan(SExp form, boolean inClosure,
+    Set<Symbol> assigned, Set<Symbol> captured) {
+
+        if (form instanceof Symbol) {
+            if (inClosure) captured.add((Symbol) form);
+            return;
+        }
+
+        if (!(form instanceof Cons)) return;
+        Cons seq = (Cons) form;
+
+        if (seq.car == SpecialFormEntry.SETQ
+            || seq.car == SpecialFormEntry.SETF)
+            for (Cons s = seq.next(); s != null; s = s.next())
+                if (s.car instanceof Symbol) assigned.add((Symbol) s.car);
+
+        // (push item place) and (pop place) assign to a variable place
+        Cons place = null;
+        if (seq.car == SpecialFormEntry.PUSH && seq.next() != null)
+            place = seq.next().next();
+        else if (seq.car == SpecialFormEntry.POP) place = seq.next();
+        if (place != null && place.car instanceof Symbol)
+            assigned.add((Symbol) place.car);
+
+        if (seq.car == SpecialFormEntry.LAMBDA
+            || seq.car == SpecialFormEntry.DEFUN
+            || seq.car == SpecialFormEntry.DEFUN_MEMO
+            || seq.car == SpecialFormEntry.LABELS
+            || seq.car == SpecialFormEntry.LETREC
+            || seq.car == SpecialFormEntry.DELAY
+            || seq.car == SpecialFormEntry.LAZY_CONS)
+            inClosure = true;
+
+        for (Cons s = seq; s != null; s = s.next())
+            scan(s.car, inClosure, assigned, captured);
+    }
+
+    /**
+     * Finish the analysis of a function body: calls in tail position are
+     * made proper tail calls, and the body is compiled if the runtime is set
+     * to compile every function.
+     */
+    Node functionBody(Node body) {
+        body = body.inTailPosition();
+        return environment.autoCompile ? Compiler.compile(body) : body;
+    }
+
+    /** The global environment that unresolved names refer to. */
+    SymbolTable globalSymbolTable() { return environment.globalSymbolTable; }
+
+    /**
+     * Allocate a slot for a variable in the current scope.
+     * @param cell <b>true</b> if the variable is held in a {@link Cell}.
+     */
+    int bindVariable(Symbol s, boolean cell) {
+        return scope.bindVariable(s, cell);
+    }
+
+    /** Allocate a slot for a local function in the current scope. */
+    int bindFunction(Symbol s) { return scope.bindFunction(s); }
+
+    /** Mark the start of a block in the current scope. */
+    int mark() { return scope.mark(); }
+
+    /** End a block, forgetting the names bound since the mark. */
+    void release(int mark) { scope.release(mark); }
+
+    /**
+     * Is the given symbol a variable proclaimed special by DEFVAR or
+     * DEFPARAMETER? Such variables are always bound dynamically.
+     */
+    boolean isSpecial(Symbol s) throws LispException {
+        VariableEntry ve = environment.globalSymbolTable.lookupVariable(s);
+        return ve != null && !ve.isConstant;
+    }
+
+    /** Compile a reference to the value of a variable. */
+    Node variableReference(Symbol s) throws LispException {
+        Scope.Ref ref = scope == null ? null : scope.resolve(s, false);
+        if (ref != null)
+            return ref.cell ? new CellVariableNode(s, ref.depth, ref.slot)
+                : new LocalVariableNode(s, ref.depth, ref.slot);
+
+        // the value of a constant is known now
+        VariableEntry ve = environment.globalSymbolTable.lookupVariable(s);
+        if (ve != null && ve.isConstant) return new ConstantNode(ve.value);
+
+        return new VariableNode(environment.globalSymbolTable, s);
+    }
+
+    /** Compile an assignment to a variable. */
+    Node variableAssignment(Symbol s, Node value) throws LispException {
+        Scope.Ref ref = scope == null ? null : scope.resolve(s, false);
+        if (ref != null) {
+            if (ref.cell) return new CellSetqNode(ref.depth, ref.slot, value);
+
+            // a captured variable is a copy, cellVariables should have
+            // given it a cell
+            if (ref.depth > 0)
+                throw new LispException("Cannot assign captured variable "
+                    + s.name + ".");
+
+            return new LocalSetqNode(ref.depth, ref.slot, value);
+        }
+
+        VariableEntry ve = environment.globalSymbolTable.lookupVariable(s);
+        if (ve != null && ve.isConstant)
+            throw new LispException("Cannot set variable " + s.name
+                + ": the variable is constant.");
+
+        return new SetqNode(environment.globalSymbolTable, s, value);
+    }
+
+    /**
+     * Compile a reference to a local function.
+     * @return The node, or <b>null</b> if there is no local function bound
+     * to the symbol.
+     */
+    Node localFunctionReference(Symbol s) {
+        Scope.Ref ref = scope == null ? null : scope.resolve(s, true);
+        if (ref == null) return null;
+        return new LocalVariableNode(s, ref.depth, ref.slot);
+    }
+
+    private Node analyzeCompound(Cons seq) throws LispException {
+
+        // if the car of the sequence is a symbol,
+        if (seq.car instanceof Symbol) {
+            // then that symbol is the name of an operator. Local functions
+            // shadow everything, special forms are analyzed by the form
+            // itself, anything else is a call to a global function.
+            Symbol name = (Symbol) seq.car;
+
+            Node local = localFunctionReference(name);
+            if (local != null) {
+                LocalVariableNode ref = (LocalVariableNode) local;
+                return new LocalCallNode(name, ref.depth, ref.slot,
+                    analyzeAll(seq.next()));
+            }
+
+            FormEntry fe = environment.globalSymbolTable.lookupFunction(name);
+
+            if (fe instanceof SpecialFormEntry)
+                return ((SpecialFormEntry) fe).analyze(this, seq.next());
+
+            return new CallNode(environment.globalSymbolTable, name,
+                analyzeAll(seq.next()));
+        }
+
+        // if the car is not a symbol, it had better be a lambda
+        return new FuncallNode(environment.globalSymbolTable,
+            analyze(seq.car), analyzeAll(seq.next()));
+    }
+}
@@ -0,0 +1,2875 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * BuiltinFunctionEntry
+ * A function implemented natively. Unlike special forms, builtin functions
+ * receive their arguments already evaluated.
+ */
+public abstract class BuiltinFunctionEntry extends FormEntry {
+
+    protected LISPRuntime environment;
+
+    public BuiltinFunctionEntry(Symbol name, LISPRuntime environment,
+    HelpTopic helpinfo) {
+        super(name, helpinfo);
+
+        this.environment = environment;
+    }
+
+    public abstract SExp call(SExp[] arguments) throws LispException;
+
+    @Override
+    public String display(String offset) {
+        return offset + "Builtin Function Entry: " + symbol.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "<FUNCTION " + symbol.toString() + ">";
+    }
+
+    static final Symbol LTE                 = Symbol.intern("<=");
+    static final Symbol LT                  = Symbol.intern("<");
+    static final Symbol NUMEQ               = Symbol.intern("=");
+    static final Symbol NUMNOTEQ            = Symbol.intern("/=");
+    static final Symbol GT                  = Symbol.intern(">");
+    static final Symbol GTE                 = Symbol.intern(">=");
+    static final Symbol DIV                 = Symbol.intern("/");
+    static final Symbol DIF                 = Symbol.intern("-");
+    static final Symbol MUL                 = Symbol.intern("*");
+    static final Symbol SUM                 = Symbol.intern("+");
+    static final Symbol APPEND              = Symbol.intern("APPEND");
+    static final Symbol AREF                = Symbol.intern("AREF");
+    static final Symbol ASET                = Symbol.intern("ASET");
+    static final Symbol CAR                 = Symbol.intern("CAR");
+    static final Symbol CDR                 = Symbol.intern("CDR");
+    static final Symbol CLRHASH             = Symbol.intern("CLRHASH");
+    static final Symbol COMP                = Symbol.intern("COMP");
+    static final Symbol COMPILE             = Symbol.intern("COMPILE");
+    static final Symbol CONS                = Symbol.intern("CONS");
+    static final Symbol DROP                = Symbol.intern("DROP");
+    static final Symbol ENABLEAUTOCOMPILE   = Symbol.intern("ENABLE-AUTO-COMPILE");
+    static final Symbol ENABLEDEBUGAST      = Symbol.intern("ENABLE-DEBUG-AST");
+    static final Symbol ENABLEDOUBLEFLOATS  = Symbol.intern("ENABLE-DOUBLE-FLOATS");
+    static final Symbol ENABLEHASHCONSING   = Symbol.intern("ENABLE-HASH-CONSING");
+    static final Symbol ENQUEUE             = Symbol.intern("ENQUEUE");
+    static final Symbol EQ                  = Symbol.intern("EQ");
+    static final Symbol EQL                 = Symbol.intern("EQL");
+    static final Symbol EQUAL               = Symbol.intern("EQUAL");
+    static final Symbol EQUALP              = Symbol.intern("EQUALP");
+    static final Symbol FILELINES           = Symbol.intern("FILE-LINES");
+    static final Symbol FILL                = Symbol.intern("FILL");
+    static final Symbol FILLPOINTER         = Symbol.intern("FILL-POINTER");
+    static final Symbol FILTERING           = Symbol.intern("FILTERING");
+    static final Symbol FIND                = Symbol.intern("FIND");
+    static final Symbol FORCE               = Symbol.intern("FORCE");
+    static final Symbol GETF                = Symbol.intern("GETF");
+    static final Symbol GETHASH             = Symbol.intern("GETHASH");
+    static final Symbol HASHTABLECOUNT      = Symbol.intern("HASH-TABLE-COUNT");
+    static final Symbol ITERATE             = Symbol.intern("ITERATE");
+    static final Symbol LAZYCDR             = Symbol.intern("LAZY-CDR");
+    static final Symbol LAZYFILTER          = Symbol.intern("LAZY-FILTER");
+    static final Symbol LAZYMAP             = Symbol.intern("LAZY-MAP");
+    static final Symbol LENGTH              = Symbol.intern("LENGTH");
+    static final Symbol LIST                = Symbol.intern("LIST");
+    static final Symbol MAKEARRAY           = Symbol.intern("MAKE-ARRAY");
+    static final Symbol MAKEHASHTABLE       = Symbol.intern("MAKE-HASH-TABLE");
+    static final Symbol MAKEQUEUE           = Symbol.intern("MAKE-QUEUE");
+    static final Symbol MAPCAR              = Symbol.intern("MAPCAR");
+    static final Symbol MAPHASH             = Symbol.intern("MAPHASH");
+    static final Symbol MAPPING             = Symbol.intern("MAPPING");
+    static final Symbol MEMOIZE             = Symbol.intern("MEMOIZE");
+    static final Symbol MEMOSTATS           = Symbol.intern("MEMO-STATS");
+    static final Symbol MOD                 = Symbol.intern("MOD");
+    static final Symbol NCONC               = Symbol.intern("NCONC");
+    static final Symbol NOT                 = Symbol.intern("NOT");
+    static final Symbol NREVERSE            = Symbol.intern("NREVERSE");
+    static final Symbol NULL                = Symbol.intern("NULL?");
+    static final Symbol POSITION            = Symbol.intern("POSITION");
+    static final Symbol PUTHASH             = Symbol.intern("PUTHASH");
+    static final Symbol QUEUECONTENTS       = Symbol.intern("QUEUE-CONTENTS");
+    static final Symbol REDUCE              = Symbol.intern("REDUCE");
+    static final Symbol REM                 = Symbol.intern("REM");
+    static final Symbol REMHASH             = Symbol.intern("REMHASH");
+    static final Symbol REMOVEIF            = Symbol.intern("REMOVE-IF");
+    static final Symbol REPLACE             = Symbol.intern("REPLACE");
+    static final Symbol REVERSE             = Symbol.intern("REVERSE");
+    static final Symbol RPLACA              = Symbol.intern("RPLACA");
+    static final Symbol RPLACD              = Symbol.intern("RPLACD");
+    static final Symbol SXHASH              = Symbol.intern("SXHASH");
+    static final Symbol TAKE                = Symbol.intern("TAKE");
+    static final Symbol TAKING              = Symbol.intern("TAKING");
+    static final Symbol TRANSDUCE           = Symbol.intern("TRANSDUCE");
+    static final Symbol UNMEMOIZE           = Symbol.intern("UNMEMOIZE");
+    static final Symbol VECTOR              = Symbol.intern("VECTOR");
+    static final Symbol VECTORPUSHEXTEND    = Symbol.intern("VECTOR-PUSH-EXTEND");
+
+    // --------------------------
+    // BUILTIN FUNCTIONS DEFINITION
+    // --------------------------
+
+    // As with the special forms, JDB-Lisp includes on-line help for all of
+    // its builtin functions. See the help strings for documentation of the
+    // individual functions.
+
+    /**
+     * TODO
+     */
+    public static void defineBuiltinFunctions(LISPRuntime environment) {
+
+        // ---
+        // LTE
+        // ---
+
+        final BuiltinFunctionEntry LTE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LTE, environment,
+            new FormHelpTopic("<=", "Less than or equal to",
+                "(<= <number>*) => <result>",
+                "The value of <= is true if the numbers are in monotonically "
+                    + "nondecreasing order; otherwise it is false.",
+                "number", "a real",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                // check that there is at least one argument
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current > next or unordered, return false
+                    if (!current.lessOrEqual(next)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are nondecreasing, return true
+                return SExp.T;
+            }
+        };
+
+        // --
+        // LT
+        // --
+
+        final BuiltinFunctionEntry LT = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LT, environment,
+            new FormHelpTopic("<", "Less than",
+                "(< <number>*) => <result>",
+                "The value of < is true if the numbers are in monotonically "
+                    + "increasing order; otherwise it is false.",
+                "number", "a real",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current >= next or unordered, return false
+                    if (!current.lessThan(next)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are increasing, return true
+                return SExp.T;
+            }
+        };
+
+        // ---------
+        // NUMEQ (=)
+        // ---------
+
+        final BuiltinFunctionEntry NUMEQ = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.NUMEQ, environment,
+            new FormHelpTopic("=", "Equal to",
+                "(= <number>*) => <result>",
+                "The value of = is true if all numbers are the same in value.",
+                "number", "a number",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current != next or unordered, return false
+                    if (!current.numEquals(next)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are equal, return true
+                return SExp.T;
+            }
+        };
+
+        // -------------
+        // NUMNOTEQ (/=)
+        // -------------
+
+        final BuiltinFunctionEntry NUMNOTEQ = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.NUMNOTEQ, environment,
+            new FormHelpTopic("/=", "Not equal to",
+                "(/= <number>*) => <result>",
+                "The value of /= is true if no two numbers are the same in value.",
+                "number", "a number",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current == next, return false
+                    if (current.numEquals(next)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are non-equal, return true
+                return SExp.T;
+            }
+        };
+
+        // --
+        // GT
+        // --
+
+        final BuiltinFunctionEntry GT = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.GT, environment,
+            new FormHelpTopic(">", "Greater than",
+                "(> <number>*) => <result>",
+                "The value of > is true if the numbers are in monotonically "
+                    + "decreasing order; otherwise it is false.",
+                "number", "a number",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current <= next or unordered, return false
+                    if (!next.lessThan(current)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are decreasing, return true
+                return SExp.T;
+            }
+        };
+
+        // ---
+        // GTE
+        // ---
+
+        final BuiltinFunctionEntry GTE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.GTE, environment,
+            new FormHelpTopic(">=", "Greater than or equal to",
+                "(>= <number>*) => <result>",
+                "The value of > is true if the numbers are in monotonically "
+                    + "non-increasing order; otherwise it is false.",
+                "number", "a number",
+                "result", "a boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num current;
+                Num next;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                // get first number
+                current = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                for (int i = 1; i < arguments.length; ++i) {
+                    // get next number
+                    next = TypeUtil.attemptCast(Num.class, arguments[i]);
+
+                    // current < next or unordered, return false
+                    if (!next.lessOrEqual(current)) return SExp.NIL;
+
+                    // next becomes current
+                    current = next;
+                }
+
+                // all are non-increasing, return true
+                return SExp.T;
+            }
+        };
+
+        // ---
+        // DIV
+        // ---
+
+        final BuiltinFunctionEntry DIV = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.DIV, environment,
+            new FormHelpTopic("/", "Divide several expressions.",
+                "(- divisor) | (- dividend <divisor_1> [... <divisor_n>])",
+                "Perform division. If there is only one argument passed "
+                    + "then result = 1/ arg. If multiple arguments are passed"
+                    + " then result = arg_1 / arg_2 / ... / args_n, computed "
+                    + "from left to right. In general, expressions are "
+                    + "evaluated before being bound  to function parameters. "
+                    + "The expressions passed to / must evaluate to numbers.",
+                "dividend", "In the case of multiple arguments to /, this is "
+                    + "the number which is diveded.",
+                "divisor_1 ... divisor_n", "Divisors are the numbers dividing "
+                    + "the dividend and may be any expression that evaluates "
+                    + "to a number."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num dividend;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                dividend = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                try {
+                    // case: only one argument: 1 / arg
+                    if (arguments.length == 1)
+                        return Num.ONE.divideBy(dividend);
+
+                    // case: (/ x y1 ... yn)
+                    for (int i = 1; i < arguments.length; ++i)
+                        dividend = dividend.divideBy(TypeUtil.attemptCast(
+                            Num.class, arguments[i]));
+                } catch (ArithmeticException ae) {
+                    throw new LispException(ae.getMessage());
+                }
+
+                return dividend;
+            }
+        };
+
+        // ---
+        // DIF
+        // ---
+
+        final BuiltinFunctionEntry DIF = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.DIF, environment,
+            new FormHelpTopic("-", "Subtract several expressions.",
+                "(- subtrahend) | (- <minuend> <subtrahend_1> [... <subtrahend_n>])",
+                "Perform a subtraction. If there is only one argument passed "
+                    + "then result = 0 - arg. If multiple arguments are passed"
+                    + " then result = arg_1 - arg_2 - ... - args_n. In "
+                    + "general, expressions are evaluated before being bound "
+                    + " to function parameters. The expressions passed to - "
+                    + "must evaluate to numbers.",
+                "minuend", "In the case of multiple arguments to -, this is "
+                    + "the number from which the others are subtracted.",
+                "subtrahend_1 ... subtrahend_n", "Subtrahends are numbers "
+                    + "subtracted from the minuend and may be any expression "
+                    + "that evaluates to a number."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num difference;
+
+                if (arguments.length == 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "at least one argument is required.");
+
+                difference = TypeUtil.attemptCast(Num.class, arguments[0]);
+
+                // case: only one argument: 0 - arg
+                if (arguments.length == 1) return difference.negate();
+
+                // case: (- x y1 ... yn)
+                for (int i = 1; i < arguments.length; ++i)
+                    difference = difference.subtract(TypeUtil.attemptCast(
+                        Num.class, arguments[i]));
+
+                return difference;
+            }
+        };
+
+        // ---
+        // MUL
+        // ---
+
+        final BuiltinFunctionEntry MUL = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MUL, environment,
+            new FormHelpTopic("*", "Multiply several expressions.",
+                "(+ [<multiplicand_1> ... <multiplicand_n>])",
+                "Compute the product of the zero or more expressions passed"
+                    + "as arguments. In general, expressions are evaluated "
+                    + "before being bound to function parameters. The"
+                    + " expressions passed to multiply must evaluate to numbers.",
+                "multiplicand_1 ... multiplicand_n", "Multiplicands may be "
+                    + "any expression that evaluates to a number."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num product;
+
+                // variable number of arguments [0..inf)
+                if (arguments.length == 0) return Num.ONE;
+
+                product = TypeUtil.attemptCast(Num.class, arguments[0]);
+                for (int i = 1; i < arguments.length; ++i)
+                    product = product.multiply(TypeUtil.attemptCast(
+                        Num.class, arguments[i]));
+
+                return product;
+            }
+        };
+
+        // ---
+        // SUM
+        // ---
+
+        final BuiltinFunctionEntry SUM = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.SUM, environment,
+            new FormHelpTopic("+", "Sum several expressions.",
+                "(+ [<addend_1> ... <addend_n>])",
+                "Compute the summation of the zero or more expressions passed"
+                    + "as arguments. In general, expressions are evaluated "
+                    + "before being bound to function parameters. The"
+                    + " expressions passed to sum must evaluate to numbers.",
+                "addend_1 ... addend_n", "Addends may be any expression that "
+                    + "evaluates to a number."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num sum;
+
+                // variable number of arguments [0..inf)
+                if (arguments.length == 0) return Num.ZERO;
+
+                sum = TypeUtil.attemptCast(Num.class, arguments[0]);
+                for (int i = 1; i < arguments.length; ++i)
+                    sum = sum.add(TypeUtil.attemptCast(Num.class, arguments[i]));
+
+                return sum;
+            }
+        };
+
+        // ------
+        // APPEND
+        // ------
+
+        final BuiltinFunctionEntry APPEND = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.APPEND, environment,
+            new FormHelpTopic("APPEND", "concatenate lists",
+                "(append <list>*) => <result>",
+                "append returns a new list that is the concatenation of "
+                    + "lists. The lists are copied, except for the last, "
+                    + "which becomes the tail of the result and may be any "
+                    + "object.",
+                "list", "each but the last must be a proper list; the last "
+                    + "may be any object",
+                "result", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length == 0) return SExp.NIL;
+
+                Sequences.ListBuilder result = new Sequences.ListBuilder();
+                for (int i = 0; i < arguments.length - 1; ++i)
+                    for (Cons c = Cons.list(arguments[i]); c != null;
+                        c = c.next())
+                        result.add(c.car);
+
+                return result.list(arguments[arguments.length - 1]);
+            }
+        };
+
+        // ----
+        // AREF
+        // ----
+
+        final BuiltinFunctionEntry AREF = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.AREF, environment,
+            new FormHelpTopic("AREF", "access an element of a vector",
+                "(aref <vector> <index>) => <element>",
+                "aref returns the element of vector at index, counting from "
+                    + "0. Elements past the fill pointer of the vector may be "
+                    + "accessed too. The element may be changed with setf.",
+                "vector", "a vector",
+                "index", "a non-negative integer less than the size of the "
+                    + "vector",
+                "element", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return TypeUtil.attemptCast(Vector.class, arguments[0])
+                    .get(index(arguments[1]));
+            }
+        };
+
+        // ----
+        // ASET
+        // ----
+
+        final BuiltinFunctionEntry ASET = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ASET, environment,
+            new FormHelpTopic("ASET", "change an element of a vector",
+                "(aset <vector> <index> <element>) => <element>",
+                "aset stores element in vector at index. (setf (aref vector "
+                    + "index) element) is the same as (aset vector index "
+                    + "element).",
+                "vector", "a vector",
+                "index", "a non-negative integer less than the size of the "
+                    + "vector",
+                "element", "an object of the element type of the vector"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 3)
+                    throw new InvalidArgumentQuantityException(toString(), 3,
+                        arguments.length);
+
+                TypeUtil.attemptCast(Vector.class, arguments[0])
+                    .set(index(arguments[1]), arguments[2]);
+                return arguments[2];
+            }
+        };
+
+        // ---
+        // CAR
+        // ---
+
+        final BuiltinFunctionEntry CAR = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.CAR, environment,
+            new FormHelpTopic("CAR", "get first element of a list",
+                "(car <List>) => <SExp>",
+                "Return the first element of a List or Cons",
+                "List", "a list",
+                "car", "an sexp"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                SExp evaluatedArg = arguments[0];
+
+                // check for NIL case
+                if (SExp.NIL.equals(evaluatedArg)) return SExp.NIL;
+
+                return Cons.list(evaluatedArg).car;
+            }
+        };
+
+        // ---
+        // CDR
+        // ---
+
+        final BuiltinFunctionEntry CDR = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.CDR, environment,
+            new FormHelpTopic("CDR", "get the cdr of a list or cons",
+                "(cdr <List>) => <SExp>",
+                "Returns the cdr of a List or Cons",
+                "List", "a list",
+                "cdr", "an sexp"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                SExp evaluatedArg = arguments[0];
+
+                // check for NIL case
+                if (SExp.NIL.equals(evaluatedArg)) return SExp.NIL;
+
+                return Cons.list(evaluatedArg).cdr;
+            }
+        };
+
+        // -------
+        // CLRHASH
+        // -------
+
+        final BuiltinFunctionEntry CLRHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.CLRHASH, environment,
+            new FormHelpTopic("CLRHASH", "remove all entries of a hash table",
+                "(clrhash <hash-table>) => <hash-table>",
+                "Removes all entries from hash-table and returns it.",
+                "hash-table", "a hash table"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                HashTable table = TypeUtil.attemptCast(HashTable.class,
+                    arguments[0]);
+                table.clear();
+                return table;
+            }
+        };
+
+        // ----
+        // COMP
+        // ----
+
+        final BuiltinFunctionEntry COMP = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.COMP, environment,
+            new FormHelpTopic("COMP", "compose transducers",
+                "(comp <transducer>*) => <transducer>",
+                "comp returns a transducer that applies the given "
+                    + "transducers in order: the elements pass through the "
+                    + "first transducer, then the second, and so on, before "
+                    + "they are combined. (comp) passes the elements on "
+                    + "unchanged.",
+                "transducer", "a transducer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Transducer[] stages = new Transducer[arguments.length];
+                for (int i = 0; i < arguments.length; ++i)
+                    stages[i] = TypeUtil.attemptCast(Transducer.class,
+                        arguments[i]);
+
+                return new Transducer.Composite(stages);
+            }
+        };
+
+        // -------
+        // COMPILE
+        // -------
+
+        final BuiltinFunctionEntry COMPILE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.COMPILE, environment,
+            new FormHelpTopic("COMPILE", "Compile a function to JVM bytecode.",
+                "(compile <name> [<definition>]) => <result>",
+                "Compiles the body of a function into a JVM class. If "
+                    + "definition is given it is compiled and, if name is "
+                    + "not NIL, bound to name as a global function. "
+                    + "Otherwise the global function named by name is "
+                    + "compiled. Parts of the function the compiler does not "
+                    + "support are still interpreted.",
+                "name", "a function name, or NIL",
+                "definition", "a function",
+                "result", "name if it is not NIL, otherwise the compiled "
+                    + "function"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                FormEntry fe;
+
+                if (arguments.length < 1 || arguments.length > 2)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "one or two arguments are required.");
+
+                if (arguments.length == 2) {
+                    if (!(arguments[1] instanceof FormEntry))
+                        throw new TypeException(arguments[1], "FUNCTION");
+                    fe = (FormEntry) arguments[1];
+
+                    if (arguments[0] != SExp.NIL)
+                        environment.globalSymbolTable.bind(TypeUtil.attemptCast(
+                            Symbol.class, arguments[0]), fe);
+                } else {
+                    Symbol name = TypeUtil.attemptCast(Symbol.class,
+                        arguments[0]);
+                    fe = environment.globalSymbolTable.lookupFunction(name);
+                    if (fe == null) throw new UndefinedFunctionException(name);
+                }
+
+                // a memoized function compiles the function it caches
+                FormEntry target = fe instanceof MemoizedFunctionEntry
+                    ? ((MemoizedFunctionEntry) fe).function : fe;
+
+                // builtin functions and special forms are already native
+                if (target instanceof FunctionEntry)
+                    ((FunctionEntry) target).compile();
+
+                return arguments[0] != SExp.NIL ? arguments[0] : fe;
+            }
+        };
+
+        // ----
+        // CONS
+        // ----
+
+        final BuiltinFunctionEntry CONS = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.CONS, environment,
+            new FormHelpTopic("CONS", "create a cons",
+                "(cons <object-1> <object-2>) => <cons>",
+                "Creates a fresh cons, the car of which is object-1 and the "
+                    + "cdr of which is object-2.",
+                "object-1", "an object",
+                "object-2", "an object",
+                "cons", "a cons"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return new Cons(arguments[0], arguments[1]);
+            }
+        };
+
+        // ----
+        // DROP
+        // ----
+
+        final BuiltinFunctionEntry DROP = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.DROP, environment,
+            new FormHelpTopic("DROP", "skip the first elements of a sequence",
+                "(drop <n> <sequence>) => <rest>",
+                "drop returns what follows the first n elements of a list or "
+                    + "lazy sequence, realizing the elements skipped but no "
+                    + "more. The rest of a lazy sequence stays lazy.",
+                "n", "a non-negative integer",
+                "sequence", "a list or a lazy sequence",
+                "rest", "a list or a lazy sequence"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return LazySeq.drop(index(arguments[0]), arguments[1]);
+            }
+        };
+
+        // -------------------
+        // ENABLE-AUTO-COMPILE
+        // -------------------
+
+        final BuiltinFunctionEntry ENABLEAUTOCOMPILE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ENABLEAUTOCOMPILE, environment,
+            new FormHelpTopic("ENABLE-AUTO-COMPILE",
+                "Compile every function as it is defined.",
+                "(enable-auto-compile [<enable>])",
+                "When AUTO-COMPILE is enabled, the body of every DEFUN, "
+                    + "LAMBDA and LABELS function read afterwards is compiled "
+                    + "to JVM bytecode, as if by COMPILE. It can also be "
+                    + "enabled with the --compile command-line option.",
+                "enable", "NIL = disabled, anything else = enabled. No "
+                    + "argument = enabled."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length == 0) {
+                    environment.autoCompile = true;
+                    return SExp.NIL;
+                }
+
+                SExp retVal = arguments[0];
+
+                environment.autoCompile = retVal != null && retVal != SExp.NIL;
+
+                return retVal;
+            }
+        };
+
+        // ----------------
+        // ENABLE-DEBUG-AST
+        // ----------------
+
+        final BuiltinFunctionEntry ENABLEDEBUGAST = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ENABLEDEBUGAST, environment,
+            new FormHelpTopic("ENABLE-DEBUG-AST",
+                "Enable debug information: abstract syntax tree.",
+                "(enable-debug-ast [<enable>])",
+                "When DEBUG-AST is enabled, the runtime environment prints a "
+                    + "representation of the abstract syntax tree generated "
+                    + "by the parser for each sexpression it parses.",
+                "enable", "NIL = disabled, anything else = enabled. No "
+                    + "argument = enabled."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length == 0) {
+                    environment.dumpAST = true;
+                    return SExp.NIL;
+                }
+
+                SExp retVal = arguments[0];
+
+                if (retVal != null && retVal != SExp.NIL) environment.dumpAST = true;
+                else environment.dumpAST = false;
+
+                return retVal;
+            }
+        };
+
+        // --------------------
+        // ENABLE-DOUBLE-FLOATS
+        // --------------------
+
+        final BuiltinFunctionEntry ENABLEDOUBLEFLOATS = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ENABLEDOUBLEFLOATS, environment,
+            new FormHelpTopic("ENABLE-DOUBLE-FLOATS",
+                "Read decimal numbers as double-floats.",
+                "(enable-double-floats [<enable>])",
+                "When DOUBLE-FLOATS is enabled, numbers read afterwards with "
+                    + "a decimal point and no exponent, such as 1.5, are "
+                    + "double-floats instead of exact decimals. Numbers with "
+                    + "an exponent, such as 1.5e0 or 1.5d0, are always "
+                    + "double-floats. It can also be enabled with the "
+                    + "--double-floats command-line option.",
+                "enable", "NIL = disabled, anything else = enabled. No "
+                    + "argument = enabled."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length == 0) {
+                    LiteralPool.READER.setDecimalsAsDouble(true);
+                    return SExp.NIL;
+                }
+
+                SExp retVal = arguments[0];
+
+                LiteralPool.READER.setDecimalsAsDouble(
+                    retVal != null && retVal != SExp.NIL);
+
+                return retVal;
+            }
+        };
+
+        // -------------------
+        // ENABLE-HASH-CONSING
+        // -------------------
+
+        final BuiltinFunctionEntry ENABLEHASHCONSING = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ENABLEHASHCONSING, environment,
+            new FormHelpTopic("ENABLE-HASH-CONSING",
+                "Share EQUAL lists that are read or quoted.",
+                "(enable-hash-consing [<enable>])",
+                "When HASH-CONSING is enabled, lists read afterwards and "
+                    + "quoted lists share their cells with EQUAL lists made "
+                    + "the same way, so repeated data is stored once and "
+                    + "EQUAL lists are EQ. Such lists are literal data and "
+                    + "must not be destructively modified; lists made by "
+                    + "LIST are always fresh. It can also be enabled with "
+                    + "the --hash-consing command-line option.",
+                "enable", "NIL = disabled, anything else = enabled. No "
+                    + "argument = enabled."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length == 0) {
+                    ConsPool.SHARED.setEnabled(true);
+                    return SExp.NIL;
+                }
+
+                SExp retVal = arguments[0];
+
+                ConsPool.SHARED.setEnabled(
+                    retVal != null && retVal != SExp.NIL);
+
+                return retVal;
+            }
+        };
+
+        // -------
+        // ENQUEUE
+        // -------
+
+        final BuiltinFunctionEntry ENQUEUE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ENQUEUE, environment,
+            new FormHelpTopic("ENQUEUE", "add an object to the end of a queue",
+                "(enqueue <queue> <object>) => <queue>",
+                "enqueue adds object at the end of the list held by queue, "
+                    + "in constant time. A queue is a cons whose car is the "
+                    + "list and whose cdr is the last cell of the list, as "
+                    + "made by make-queue.",
+                "queue", "a queue",
+                "object", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                Cons queue = mutable(arguments[0]);
+                Cons cell = new Cons(arguments[1], SExp.NIL);
+
+                if (queue.cdr == SExp.NIL) queue.setCar(cell);
+                else mutable(queue.cdr).setCdr(cell);
+                queue.setCdr(cell);
+
+                return queue;
+            }
+        };
+
+        // --
+        // EQ
+        // --
+
+        final BuiltinFunctionEntry EQ = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.EQ, environment,
+            new FormHelpTopic("EQ", "identity",
+                "(eq <x> <y>) => <generalized-boolean>",
+                "Returns true if its arguments are the same, identical "
+                    + "object; otherwise, returns false. Small integers and "
+                    + "symbols are unique, other numbers and strings may be "
+                    + "copies of each other and then are not eq.",
+                "x", "an object",
+                "y", "an object",
+                "generalized-boolean", "a generalized boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return Equality.eq(arguments[0], arguments[1])
+                    ? SExp.T : SExp.NIL;
+            }
+        };
+
+        // ---
+        // EQL
+        // ---
+
+        final BuiltinFunctionEntry EQL = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.EQL, environment,
+            new FormHelpTopic("EQL", "identity or equal numbers",
+                "(eql <x> <y>) => <generalized-boolean>",
+                "The value of eql is true if x and y are eq, or if they are "
+                    + "both numbers of the same type with the same value. "
+                    + "1 and 1.0 are not eql.",
+                "x", "an object",
+                "y", "an object",
+                "generalized-boolean", "a generalized boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return Equality.eql(arguments[0], arguments[1])
+                    ? SExp.T : SExp.NIL;
+            }
+        };
+
+        // -----
+        // EQUAL
+        // -----
+
+        final BuiltinFunctionEntry EQUAL = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.EQUAL, environment,
+            new FormHelpTopic("EQUAL", "structural equality",
+                "(equal <x> <y>) => <generalized-boolean>",
+                "Returns true if x and y are structurally similar "
+                    + "(isomorphic) objects: numbers are compared as by eql, "
+                    + "strings are equal if they have the same characters and "
+                    + "lists are equal if their elements are equal. Other "
+                    + "objects are compared as by eq.",
+                "x", "an object",
+                "y", "an object",
+                "generalized-boolean", "a generalized boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return Equality.equal(arguments[0], arguments[1])
+                    ? SExp.T : SExp.NIL;
+            }
+        };
+
+        // ------
+        // EQUALP
+        // ------
+
+        final BuiltinFunctionEntry EQUALP = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.EQUALP, environment,
+            new FormHelpTopic("EQUALP", "equality ignoring case and type",
+                "(equalp <x> <y>) => <generalized-boolean>",
+                "Returns true if x and y are equal, or if they are numbers "
+                    + "with the same value (as by =), strings with the same "
+                    + "characters ignoring case, or lists whose elements are "
+                    + "equalp.",
+                "x", "an object",
+                "y", "an object",
+                "generalized-boolean", "a generalized boolean"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return Equality.equalp(arguments[0], arguments[1])
+                    ? SExp.T : SExp.NIL;
+            }
+        };
+
+        // ----------
+        // FILE-LINES
+        // ----------
+
+        final BuiltinFunctionEntry FILELINES = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FILELINES, environment,
+            new FormHelpTopic("FILE-LINES", "the lines of a file as a source",
+                "(file-lines <path>) => <source>",
+                "file-lines returns a source of the lines of a text file, "
+                    + "as strings without their line terminators, for "
+                    + "transduce. The file is read one line at a time each "
+                    + "time the source is reduced, and is closed at its end "
+                    + "or when the reduction ends early.",
+                "path", "a string naming a file",
+                "source", "a line source"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                // strip the quotes of the string
+                String path = TypeUtil.attemptCast(Str.class,
+                    arguments[0]).value;
+                if (path.length() >= 2 && path.startsWith("\"")
+                    && path.endsWith("\""))
+                    path = path.substring(1, path.length() - 1);
+
+                return new LineSource(path);
+            }
+        };
+
+        // ----
+        // FILL
+        // ----
+
+        final BuiltinFunctionEntry FILL = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FILL, environment,
+            new FormHelpTopic("FILL", "store an item in a range of a vector",
+                "(fill <vector> <item> [:start <start>] [:end <end>]) "
+                    + "=> <vector>",
+                "fill stores item in each element of vector from start up "
+                    + "to end and returns the vector.",
+                "vector", "a vector",
+                "item", "an object of the element type of the vector",
+                "start", "an index. The default is 0.",
+                "end", "an index. The default is the length of the vector."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2 || arguments.length % 2 != 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "a vector, an item and option, value pairs are "
+                        + "required.");
+
+                Vector vector = TypeUtil.attemptCast(Vector.class,
+                    arguments[0]);
+                int start = 0, end = vector.length();
+
+                // options
+                for (int i = 2; i < arguments.length; i += 2) {
+                    Keyword option = TypeUtil.attemptCast(Keyword.class,
+                        arguments[i]);
+
+                    if (option.name.equals("START"))
+                        start = index(arguments[i + 1]);
+                    else if (option.name.equals("END"))
+                        end = index(arguments[i + 1]);
+                    else throw new LispException("Unknown option to FILL: "
+                        + option);
+                }
+
+                vector.fill(arguments[1], start, end);
+                return vector;
+            }
+        };
+
+        // ------------
+        // FILL-POINTER
+        // ------------
+
+        final BuiltinFunctionEntry FILLPOINTER = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FILLPOINTER, environment,
+            new FormHelpTopic("FILL-POINTER", "the fill pointer of a vector",
+                "(fill-pointer <vector> [<new-fill-pointer>]) "
+                    + "=> <fill-pointer>",
+                "Returns the fill pointer of vector, first setting it to "
+                    + "new-fill-pointer if that is given. (setf (fill-pointer "
+                    + "vector) n) is the same as (fill-pointer vector n).",
+                "vector", "a vector with a fill pointer",
+                "new-fill-pointer", "an index no greater than the size of "
+                    + "the vector",
+                "fill-pointer", "an index"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 1 || arguments.length > 2)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "one or two arguments are required.");
+
+                Vector vector = TypeUtil.attemptCast(Vector.class,
+                    arguments[0]);
+
+                if (arguments.length > 1)
+                    vector.setFillPointer(index(arguments[1]));
+                else if (!vector.hasFillPointer())
+                    throw new LispException("The vector " + vector
+                        + " has no fill pointer.");
+
+                return Num.valueOf(vector.fillPointer());
+            }
+        };
+
+        // ---------
+        // FILTERING
+        // ---------
+
+        final BuiltinFunctionEntry FILTERING = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FILTERING, environment,
+            new FormHelpTopic("FILTERING", "a transducer that filters",
+                "(filtering <predicate>) => <transducer>",
+                "filtering returns a transducer that passes on the elements "
+                    + "that satisfy predicate and drops the others.",
+                "predicate", "a function designator of one argument",
+                "transducer", "a transducer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return new Transducer.Filtering(
+                    function(environment, arguments[0]));
+            }
+        };
+
+        // ----
+        // FIND
+        // ----
+
+        final BuiltinFunctionEntry FIND = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FIND, environment,
+            new FormHelpTopic("FIND", "find an element of a sequence",
+                "(find <item> <sequence> [:key <key>] [:test <test>]) "
+                    + "=> <element>",
+                "find returns the first element of sequence that satisfies "
+                    + "the test with item, or NIL if there is none. An "
+                    + "element satisfies the test when (funcall test item "
+                    + "(funcall key element)) is true.",
+                "item", "an object",
+                "sequence", "a proper list or a vector",
+                "key", "a function designator of one argument, or NIL for "
+                    + "the element itself. The default is NIL.",
+                "test", "a function designator of two arguments. The "
+                    + "default is eql.",
+                "element", "an element of sequence, or NIL"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                SExp[] options = keywordArguments(toString(), arguments, 2,
+                    "KEY", "TEST");
+                FormEntry key = optionalFunction(environment, options[0]);
+                FormEntry test = optionalFunction(environment, options[1]);
+
+                for (Iterator<SExp> it = Sequences.iterator(arguments[1]);
+                    it.hasNext();) {
+                    SExp element = it.next();
+                    if (test(test, arguments[0], key(key, element)))
+                        return element;
+                }
+
+                return SExp.NIL;
+            }
+        };
+
+        // -----
+        // FORCE
+        // -----
+
+        final BuiltinFunctionEntry FORCE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.FORCE, environment,
+            new FormHelpTopic("FORCE", "get the value of a promise",
+                "(force <object>) => <value>",
+                "If object is a promise made by delay, force returns its "
+                    + "value, evaluating the delayed form the first time the "
+                    + "promise is forced. Any other object is returned as it "
+                    + "is.",
+                "object", "an object",
+                "value", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                if (arguments[0] instanceof Promise)
+                    return ((Promise) arguments[0]).force();
+                return arguments[0];
+            }
+        };
+
+        // ----
+        // GETF
+        // ----
+
+        final BuiltinFunctionEntry GETF = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.GETF, environment,
+            new FormHelpTopic("GETF", "",
+                "(getf <plist> <indicator> [<default>]) => <value>",
+                "getf finds a property on the plist whose property indicator "
+                    + "is identical to indicator, and returns its "
+                    + "corresponding property value. If there are multiple "
+                    + "properties with that property indicator, getf uses the "
+                    + "first such property. If there is no property with that "
+                    + "property indicator, default is returned.",
+                "plist", "a property list.",
+                "indicator", "an object",
+                "default", "an object. The default is NIL",
+                "value", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Cons plistSeq;
+                SExp indicator;
+                SExp retVal = SExp.NIL;
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(
+                        toString(), 2, arguments.length);
+
+                // first argument: property list
+                plistSeq = Cons.list(arguments[0]);
+
+                // second argument: indicator
+                indicator = arguments[1];
+
+                // third argument: default value
+                if (arguments.length > 2) retVal = arguments[2];
+
+                while(plistSeq != null) {
+
+                    // check this value for identity
+                    if (plistSeq.car == indicator)
+                        if (plistSeq.next() != null)
+                            return plistSeq.next().car;
+
+                    // advance to the next pair (or terminate)
+                    plistSeq = (plistSeq.next() == null ? null
+                        : plistSeq.next().next());
+                }
+
+                return retVal;
+            }
+        };
+
+        // -------
+        // GETHASH
+        // -------
+
+        final BuiltinFunctionEntry GETHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.GETHASH, environment,
+            new FormHelpTopic("GETHASH", "look up a key in a hash table",
+                "(gethash <key> <hash-table> [<default>]) => <value>",
+                "gethash returns the value of the entry in hash-table whose "
+                    + "key is the same as key under the test of the table, "
+                    + "or default if there is no such entry. Unlike Common "
+                    + "Lisp, gethash does not return a second value; use a "
+                    + "default that cannot be stored to tell a missing entry "
+                    + "from one whose value is NIL.",
+                "key", "an object",
+                "hash-table", "a hash table",
+                "default", "an object. The default is NIL",
+                "value", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2 || arguments.length > 3)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "two or three arguments are required.");
+
+                SExp value = TypeUtil.attemptCast(HashTable.class,
+                    arguments[1]).get(arguments[0]);
+
+                if (value != null) return value;
+                return arguments.length > 2 ? arguments[2] : SExp.NIL;
+            }
+        };
+
+        // ----------------
+        // HASH-TABLE-COUNT
+        // ----------------
+
+        final BuiltinFunctionEntry HASHTABLECOUNT = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.HASHTABLECOUNT, environment,
+            new FormHelpTopic("HASH-TABLE-COUNT",
+                "the number of entries in a hash table",
+                "(hash-table-count <hash-table>) => <count>",
+                "Returns the number of entries in hash-table.",
+                "hash-table", "a hash table",
+                "count", "a non-negative integer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return Num.valueOf(TypeUtil.attemptCast(HashTable.class,
+                    arguments[0]).count());
+            }
+        };
+
+        // -------
+        // ITERATE
+        // -------
+
+        final BuiltinFunctionEntry ITERATE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.ITERATE, environment,
+            new FormHelpTopic("ITERATE", "an infinite lazy sequence",
+                "(iterate <function> <x>) => <lazy-sequence>",
+                "iterate returns the infinite lazy sequence of x, (funcall "
+                    + "function x), (funcall function (funcall function x)) "
+                    + "and so on. Each element is computed when the "
+                    + "sequence is first realized that far.",
+                "function", "a function designator of one argument",
+                "x", "an object",
+                "lazy-sequence", "a lazy sequence"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return LazySeq.iterate(function(environment, arguments[0]),
+                    arguments[1]);
+            }
+        };
+
+        // --------
+        // LAZY-CDR
+        // --------
+
+        final BuiltinFunctionEntry LAZYCDR = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LAZYCDR, environment,
+            new FormHelpTopic("LAZY-CDR", "the rest of a lazy sequence",
+                "(lazy-cdr <sequence>) => <rest>",
+                "lazy-cdr returns the cdr of a list or lazy sequence, "
+                    + "forcing it if it is a promise and keeping the value "
+                    + "in place of the promise. The car of a lazy sequence is "
+                    + "read with car.",
+                "sequence", "a list or a lazy sequence",
+                "rest", "a list or a lazy sequence"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                Cons cell = Cons.list(arguments[0]);
+                return cell == null ? SExp.NIL : LazySeq.rest(cell);
+            }
+        };
+
+        // -----------
+        // LAZY-FILTER
+        // -----------
+
+        final BuiltinFunctionEntry LAZYFILTER = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LAZYFILTER, environment,
+            new FormHelpTopic("LAZY-FILTER", "lazily filter a sequence",
+                "(lazy-filter <predicate> <sequence>) => <lazy-sequence>",
+                "lazy-filter returns a lazy sequence of the elements of "
+                    + "sequence that satisfy predicate. Only the elements up "
+                    + "to the first that satisfies it are tested at once; "
+                    + "the rest are tested as the result is realized.",
+                "predicate", "a function designator of one argument",
+                "sequence", "a list or a lazy sequence",
+                "lazy-sequence", "a lazy sequence"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return LazySeq.filter(function(environment, arguments[0]),
+                    arguments[1]);
+            }
+        };
+
+        // --------
+        // LAZY-MAP
+        // --------
+
+        final BuiltinFunctionEntry LAZYMAP = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LAZYMAP, environment,
+            new FormHelpTopic("LAZY-MAP", "lazily map a sequence",
+                "(lazy-map <function> <sequence>) => <lazy-sequence>",
+                "lazy-map returns a lazy sequence of the values of function "
+                    + "for the elements of sequence. The function is called "
+                    + "for the first element at once and for the others as "
+                    + "the result is realized.",
+                "function", "a function designator of one argument",
+                "sequence", "a list or a lazy sequence",
+                "lazy-sequence", "a lazy sequence"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return LazySeq.map(function(environment, arguments[0]),
+                    arguments[1]);
+            }
+        };
+
+        // ------
+        // LENGTH
+        // ------
+
+        final BuiltinFunctionEntry LENGTH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LENGTH, environment,
+            new FormHelpTopic("LENGTH", "the number of elements of a sequence",
+                "(length <sequence>) => <n>",
+                "Returns the number of elements in sequence: the elements "
+                    + "of a list, or the active elements of a vector with a "
+                    + "fill pointer.",
+                "sequence", "a proper list or a vector",
+                "n", "a non-negative integer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                if (arguments[0] instanceof Vector)
+                    return Num.valueOf(((Vector) arguments[0]).length());
+                if (SExp.NIL.equals(arguments[0])) return Num.ZERO;
+
+                return Num.valueOf(Cons.length(Cons.list(arguments[0])));
+            }
+        };
+
+        // ----
+        // LIST
+        // ----
+
+        final BuiltinFunctionEntry LIST = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.LIST, environment,
+            new FormHelpTopic("LIST", "create a list",
+                "(list <object>*) => list",
+                "list returns a list containing the supplied objects.",
+                "object", "an object.",
+                "list", "a list."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                return Cons.list(arguments);
+            }
+        };
+
+        // ----------
+        // MAKE-ARRAY
+        // ----------
+
+        final BuiltinFunctionEntry MAKEARRAY = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAKEARRAY, environment,
+            new FormHelpTopic("MAKE-ARRAY", "create a vector",
+                "(make-array <size> [:element-type <type>] "
+                    + "[:initial-element <object>] "
+                    + "[:initial-contents <sequence>] "
+                    + "[:fill-pointer <fill-pointer>] "
+                    + "[:adjustable <boolean>]) => <vector>",
+                "Creates a vector of size elements. Only one-dimensional "
+                    + "arrays are supported. A vector of element type "
+                    + "fixnum, double-float or (unsigned-byte 8) keeps its "
+                    + "elements unboxed; other element types are upgraded to "
+                    + "t. Numbers stored in a double-float vector are "
+                    + "converted to double-floats. The elements are initially "
+                    + "initial-element, or the elements of initial-contents, "
+                    + "or else NIL for a vector of element type t and 0 for "
+                    + "the others. A vector with a fill pointer grows as "
+                    + "elements are pushed onto it with vector-push-extend, "
+                    + "so every such vector is adjustable.",
+                "size", "a non-negative integer, or a list of one",
+                "type", "a type specifier. The default is t.",
+                "object", "an object of the element type",
+                "sequence", "a list or vector of size elements",
+                "fill-pointer", "T for a fill pointer of size, an index, or "
+                    + "NIL (the default) for no fill pointer",
+                "boolean", "ignored"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                SExp elementType = SExp.T;
+                SExp initialElement = null;
+                SExp initialContents = null;
+                int fillPointer = -1;
+
+                if (arguments.length < 1 || arguments.length % 2 != 1)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "a size and option, value pairs are required.");
+
+                // size, possibly as a list of dimensions
+                SExp dimensions = arguments[0];
+                if (dimensions instanceof Cons || dimensions == SExp.NIL) {
+                    Cons seq = Cons.list(dimensions);
+                    if (seq == null || seq.cdr != SExp.NIL)
+                        throw new LispException("Only one-dimensional arrays "
+                            + "are supported: " + dimensions);
+                    dimensions = seq.car;
+                }
+                int size = index(dimensions);
+
+                // options
+                for (int i = 1; i < arguments.length; i += 2) {
+                    Keyword option = TypeUtil.attemptCast(Keyword.class,
+                        arguments[i]);
+                    SExp value = arguments[i + 1];
+
+                    if (option.name.equals("ELEMENT-TYPE"))
+                        elementType = value;
+                    else if (option.name.equals("INITIAL-ELEMENT"))
+                        initialElement = value;
+                    else if (option.name.equals("INITIAL-CONTENTS"))
+                        initialContents = value;
+                    else if (option.name.equals("FILL-POINTER")) {
+                        if (SExp.NIL.equals(value)) fillPointer = -1;
+                        else if (value == SExp.T) fillPointer = size;
+                        else fillPointer = index(value);
+                    }
+                    else if (!option.name.equals("ADJUSTABLE"))
+                        throw new LispException("Unknown option to "
+                            + "MAKE-ARRAY: " + option);
+                }
+
+                if (fillPointer > size)
+                    throw new LispException("The fill pointer " + fillPointer
+                        + " is greater than the size " + size + ".");
+
+                Vector vector = Vector.make(elementType, size, fillPointer);
+
+                if (initialElement != null)
+                    vector.fill(initialElement, 0, size);
+
+                if (initialContents instanceof Vector) {
+                    Vector contents = (Vector) initialContents;
+                    if (contents.length() != size)
+                        throw new LispException("The initial contents "
+                            + contents + " do not have " + size
+                            + " elements.");
+                    vector.replace(0, contents, 0, size);
+                }
+                else if (initialContents != null) {
+                    Cons seq = Cons.list(initialContents);
+                    int i = 0;
+                    for (; seq != null && i < size; seq = seq.next())
+                        vector.set(i++, seq.car);
+                    if (seq != null || i != size)
+                        throw new LispException("The initial contents "
+                            + initialContents + " do not have " + size
+                            + " elements.");
+                }
+
+                return vector;
+            }
+        };
+
+        // ---------------
+        // MAKE-HASH-TABLE
+        // ---------------
+
+        final BuiltinFunctionEntry MAKEHASHTABLE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAKEHASHTABLE, environment,
+            new FormHelpTopic("MAKE-HASH-TABLE", "create a hash table",
+                "(make-hash-table [:test <test>] [:size <n>] "
+                    + "[:synchronized <boolean>]) => <hash-table>",
+                "Creates a new, empty hash table whose keys are compared by "
+                    + "test. Lookups take constant time on average. Symbols "
+                    + "and fixnums are hashed and compared directly under "
+                    + "every test. A synchronized hash table may be shared "
+                    + "between threads.",
+                "test", "eq, eql or equal, as a symbol or a function. The "
+                    + "default is eql.",
+                "n", "a non-negative integer, the number of entries "
+                    + "expected. The table grows as needed.",
+                "boolean", "a generalized boolean. The default is NIL.",
+                "hash-table", "a hash table"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                int test = HashTable.EQL;
+                int size = 0;
+                boolean threadSafe = false;
+
+                if (arguments.length % 2 != 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "option, value pairs are required.");
+
+                // options
+                for (int i = 0; i < arguments.length; i += 2) {
+                    Keyword option = TypeUtil.attemptCast(Keyword.class,
+                        arguments[i]);
+                    SExp value = arguments[i + 1];
+
+                    if (option.name.equals("TEST")) test = test(value);
+                    else if (option.name.equals("SIZE")) {
+                        Num n = TypeUtil.attemptCast(Num.class, value);
+                        if (!n.isFixnum() || n.signum() < 0)
+                            throw new LispException("The value of " + option
+                                + " must be a non-negative integer: " + value);
+                        size = (int) Math.min(1 << 28, n.longValue());
+                    }
+                    else if (option.name.equals("SYNCHRONIZED"))
+                        threadSafe = !SExp.NIL.equals(value);
+                    else throw new LispException("Unknown option to "
+                        + "MAKE-HASH-TABLE: " + option);
+                }
+
+                return new HashTable(test, size, threadSafe);
+            }
+
+            private int test(SExp value) throws LispException {
+                Symbol name = value instanceof FormEntry
+                    ? ((FormEntry) value).symbol : null;
+                if (value instanceof Symbol) name = (Symbol) value;
+
+                if (name == BuiltinFunctionEntry.EQ) return HashTable.EQ;
+                if (name == BuiltinFunctionEntry.EQL) return HashTable.EQL;
+                if (name == BuiltinFunctionEntry.EQUAL) return HashTable.EQUAL;
+                throw new LispException("Unsupported hash table test: "
+                    + value + " (expected EQ, EQL or EQUAL).");
+            }
+        };
+
+        // ----------
+        // MAKE-QUEUE
+        // ----------
+
+        final BuiltinFunctionEntry MAKEQUEUE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAKEQUEUE, environment,
+            new FormHelpTopic("MAKE-QUEUE", "create an empty queue",
+                "(make-queue) => <queue>",
+                "make-queue returns a new, empty queue. Objects are added to "
+                    + "its end with enqueue, and queue-contents returns the "
+                    + "list of the objects added so far.",
+                "queue", "a queue"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 0)
+                    throw new InvalidArgumentQuantityException(toString(), 0,
+                        arguments.length);
+
+                return new Cons(SExp.NIL, SExp.NIL);
+            }
+        };
+
+        // ------
+        // MAPCAR
+        // ------
+
+        final BuiltinFunctionEntry MAPCAR = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAPCAR, environment,
+            new FormHelpTopic("MAPCAR", "apply a function to list elements",
+                "(mapcar <function> <list>+) => <result-list>",
+                "mapcar calls function with the first element of each list, "
+                    + "then with the second element of each list, and so "
+                    + "on, stopping at the end of the shortest list. It "
+                    + "returns a list of the values returned, in order.",
+                "function", "a function designator that takes as many "
+                    + "arguments as there are lists",
+                "list", "a proper list",
+                "result-list", "a list"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "a function and at least one list are required.");
+
+                FormEntry fe = function(environment, arguments[0]);
+                Sequences.ListBuilder result = new Sequences.ListBuilder();
+
+                if (arguments.length == 2) {
+                    for (Cons c = Cons.list(arguments[1]); c != null;
+                        c = c.next())
+                        result.add(fe.call1(c.car));
+                    return result.list();
+                }
+
+                Cons[] lists = new Cons[arguments.length - 1];
+                for (int i = 0; i < lists.length; ++i)
+                    lists[i] = Cons.list(arguments[i + 1]);
+
+                while (true) {
+                    SExp[] elements = new SExp[lists.length];
+                    for (int i = 0; i < lists.length; ++i) {
+                        if (lists[i] == null) return result.list();
+                        elements[i] = lists[i].car;
+                        lists[i] = lists[i].next();
+                    }
+                    result.add(fe.call(elements));
+                }
+            }
+        };
+
+        // -------
+        // MAPHASH
+        // -------
+
+        final BuiltinFunctionEntry MAPHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAPHASH, environment,
+            new FormHelpTopic("MAPHASH", "call a function on each entry",
+                "(maphash <function> <hash-table>) => NIL",
+                "maphash calls function with the key and value of each entry "
+                    + "in hash-table, in no particular order. The function "
+                    + "sees the entries as they were when maphash was "
+                    + "called; it may change or remove entries of the table.",
+                "function", "a function designator of two arguments",
+                "hash-table", "a hash table"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                FormEntry fe = function(environment, arguments[0]);
+                SExp[] entries = TypeUtil.attemptCast(HashTable.class,
+                    arguments[1]).entries();
+
+                for (int i = 0; i < entries.length; i += 2)
+                    fe.call2(entries[i], entries[i + 1]);
+
+                return SExp.NIL;
+            }
+        };
+
+        // -------
+        // MAPPING
+        // -------
+
+        final BuiltinFunctionEntry MAPPING = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MAPPING, environment,
+            new FormHelpTopic("MAPPING", "a transducer that maps",
+                "(mapping <function>) => <transducer>",
+                "mapping returns a transducer that passes on the value of "
+                    + "function for each element.",
+                "function", "a function designator of one argument",
+                "transducer", "a transducer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return new Transducer.Mapping(
+                    function(environment, arguments[0]));
+            }
+        };
+
+        // -------
+        // MEMOIZE
+        // -------
+
+        final BuiltinFunctionEntry MEMOIZE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MEMOIZE, environment,
+            new FormHelpTopic("MEMOIZE", "cache the results of a function",
+                "(memoize <name> [:max-entries <n>] [:policy <policy>] "
+                    + "[:ttl <milliseconds>] [:synchronized <boolean>]) "
+                    + "=> <name>",
+                "memoize replaces the global function named by name with one "
+                    + "that caches its results. A call with arguments equal "
+                    + "(as by EQUAL) to those of an earlier call returns the "
+                    + "cached result without calling the function. The "
+                    + "function should be free of side effects. Recursive "
+                    + "calls the function makes through its name use the "
+                    + "cache too. When the cache holds max-entries results "
+                    + "the least recently used (:lru) or least frequently "
+                    + "used (:lfu) result is evicted. If ttl is given results "
+                    + "expire that many milliseconds after they are computed. "
+                    + "A synchronized cache may be shared between threads. "
+                    + "Memoizing a function again replaces its cache.",
+                "name", "a symbol naming a global function",
+                "n", "a non-negative integer, 0 for no limit. The default is "
+                    + MemoCache.DEFAULT_MAX_ENTRIES + ".",
+                "policy", ":lru or :lfu. The default is :lru.",
+                "milliseconds", "a non-negative integer, 0 (the default) "
+                    + "for no expiry",
+                "boolean", "a generalized boolean. The default is NIL."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                int policy = MemoCache.LRU;
+                int maxEntries = MemoCache.DEFAULT_MAX_ENTRIES;
+                long ttl = 0;
+                boolean threadSafe = false;
+
+                if (arguments.length < 1 || arguments.length % 2 != 1)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "a function name and option, value pairs are "
+                        + "required.");
+
+                Symbol name = TypeUtil.attemptCast(Symbol.class, arguments[0]);
+
+                // options
+                for (int i = 1; i < arguments.length; i += 2) {
+                    Keyword option = TypeUtil.attemptCast(Keyword.class,
+                        arguments[i]);
+                    SExp value = arguments[i + 1];
+
+                    if (option.name.equals("MAX-ENTRIES"))
+                        maxEntries = (int) Math.min(Integer.MAX_VALUE,
+                            nonNegative(option, value));
+                    else if (option.name.equals("TTL"))
+                        ttl = nonNegative(option, value);
+                    else if (option.name.equals("SYNCHRONIZED"))
+                        threadSafe = !SExp.NIL.equals(value);
+                    else if (option.name.equals("POLICY")) {
+                        if (value == Keyword.intern("LRU"))
+                            policy = MemoCache.LRU;
+                        else if (value == Keyword.intern("LFU"))
+                            policy = MemoCache.LFU;
+                        else throw new LispException("Unknown memoization "
+                            + "policy: " + value + " (expected :LRU or :LFU).");
+                    }
+                    else throw new LispException("Unknown option to MEMOIZE: "
+                        + option);
+                }
+
+                MemoizedFunctionEntry.memoize(environment.globalSymbolTable,
+                    name, new MemoCache(policy, maxEntries, ttl, threadSafe));
+
+                return name;
+            }
+
+            private long nonNegative(Keyword option, SExp value)
+            throws LispException {
+                Num n = TypeUtil.attemptCast(Num.class, value);
+                if (!n.isFixnum() || n.signum() < 0)
+                    throw new LispException("The value of " + option
+                        + " must be a non-negative integer: " + value);
+                return n.longValue();
+            }
+        };
+
+        // ----------
+        // MEMO-STATS
+        // ----------
+
+        final BuiltinFunctionEntry MEMOSTATS = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MEMOSTATS, environment,
+            new FormHelpTopic("MEMO-STATS",
+                "statistics of a memoized function",
+                "(memo-stats <name>) => <plist>",
+                "Returns a property list describing the result cache of a "
+                    + "function memoized with memoize or defun-memo: the "
+                    + "number of calls answered from the cache (:hits), the "
+                    + "number of calls that ran the function (:misses), the "
+                    + "number of results evicted to make room (:evictions) or "
+                    + "dropped because they expired (:expirations) and the "
+                    + "number of results currently cached (:size).",
+                "name", "a symbol naming a memoized function",
+                "plist", "a property list"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return memoized(environment, arguments[0]).cache.statistics();
+            }
+        };
+
+        // ---
+        // MOD
+        // ---
+
+        final BuiltinFunctionEntry MOD = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.MOD, environment,
+            new FormHelpTopic("MOD", "modulus",
+                "(mod <number> <divisor>) => <result>",
+                "mod performs the operation floor on number and divisor and "
+                    + "returns the remainder of the floor operation. mod is "
+                    + "the modulus function when number and divisor are "
+                    + "integers. ",
+                "number", "a real.",
+                "divisor", "a real.",
+                "result", "a real."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num dividend, divisor;
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                dividend = TypeUtil.attemptCast(Num.class, arguments[0]);
+                divisor = TypeUtil.attemptCast(Num.class, arguments[1]);
+
+                try { return dividend.modulo(divisor); }
+                catch (ArithmeticException ae) {
+                    throw new LispException(ae.getMessage());
+                }
+            }
+        };
+
+        // ---
+        // REM
+        // ---
+
+        final BuiltinFunctionEntry REM = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REM, environment,
+            new FormHelpTopic("REM", "remainder",
+                "(rem <number> <divisor>) => <result>",
+                "rem performs the operation truncate on number and divisor "
+                    + "and returns the remainder of the truncate operation. "
+                    + "The result has the sign of number, where the result of "
+                    + "mod has the sign of divisor.",
+                "number", "a real.",
+                "divisor", "a real.",
+                "result", "a real."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                Num dividend, divisor;
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                dividend = TypeUtil.attemptCast(Num.class, arguments[0]);
+                divisor = TypeUtil.attemptCast(Num.class, arguments[1]);
+
+                try { return dividend.remainder(divisor); }
+                catch (ArithmeticException ae) {
+                    throw new LispException(ae.getMessage());
+                }
+            }
+        };
+
+        // -----
+        // NCONC
+        // -----
+
+        final BuiltinFunctionEntry NCONC = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.NCONC, environment,
+            new FormHelpTopic("NCONC", "destructively concatenate lists",
+                "(nconc <list>*) => <result>",
+                "nconc returns a list that is the concatenation of lists. "
+                    + "The lists are joined by changing the cdr of the last "
+                    + "cell of each non-empty list except the last to the "
+                    + "next non-empty list; they are not copied. The last "
+                    + "argument may be any object.",
+                "list", "each but the last must be a list; the last may be "
+                    + "any object",
+                "result", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                SExp result = SExp.NIL;
+                Cons last = null;
+
+                for (int i = 0; i < arguments.length; ++i) {
+                    SExp list = arguments[i];
+
+                    // the last argument is linked in as it is
+                    if (i < arguments.length - 1) {
+                        if (list == SExp.NIL) continue;
+                        TypeUtil.attemptCast(Cons.class, list);
+                    }
+
+                    if (last == null) result = list;
+                    else mutable(last).setCdr(list);
+
+                    if (list instanceof Cons) last = ((Cons) list).last();
+                }
+
+                return result;
+            }
+        };
+
+        // ---
+        // NOT (also mapped to NULL?)
+        // ---
+
+        final BuiltinFunctionEntry NOT = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.NOT, environment,
+            new FormHelpTopic("NOT", "Returns t if x is false; otherwise, "
+                + "returns nil.",
+                "(not <object>) => <object>",
+                "The not operator returns T iff the object passed as a "
+                + " parameter is equal to NIL and NIL otherwise.",
+                "object", "a generalized boolean (any object)"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                if (SExp.NIL.equals(arguments[0])) return SExp.T;
+                else return SExp.NIL;
+            }
+        };
+
+        // --------
+        // NREVERSE
+        // --------
+
+        final BuiltinFunctionEntry NREVERSE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.NREVERSE, environment,
+            new FormHelpTopic("NREVERSE", "reverse a sequence in place",
+                "(nreverse <sequence>) => <reversed-sequence>",
+                "nreverse returns a sequence of the same elements as "
+                    + "sequence in the reverse order. The cells of a list "
+                    + "are relinked and the elements of a vector are "
+                    + "swapped, so nothing is copied and the argument is "
+                    + "modified.",
+                "sequence", "a proper list or a vector",
+                "reversed-sequence", "a list or a vector"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                if (arguments[0] instanceof Vector) {
+                    Vector v = (Vector) arguments[0];
+                    for (int i = 0, j = v.length() - 1; i < j; ++i, --j) {
+                        SExp x = v.get(i);
+                        v.set(i, v.get(j));
+                        v.set(j, x);
+                    }
+                    return v;
+                }
+
+                SExp reversed = SExp.NIL;
+                Cons cell = Cons.list(arguments[0]);
+                while (cell != null) {
+                    Cons next = cell.next();
+                    mutable(cell).setCdr(reversed);
+                    reversed = cell;
+                    cell = next;
+                }
+
+                return reversed;
+            }
+        };
+
+        // --------
+        // POSITION
+        // --------
+
+        final BuiltinFunctionEntry POSITION = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.POSITION, environment,
+            new FormHelpTopic("POSITION", "find the index of an element",
+                "(position <item> <sequence> [:key <key>] [:test <test>]) "
+                    + "=> <position>",
+                "position returns the index of the first element of "
+                    + "sequence that satisfies the test with item, or NIL if "
+                    + "there is none. An element satisfies the test when "
+                    + "(funcall test item (funcall key element)) is true.",
+                "item", "an object",
+                "sequence", "a proper list or a vector",
+                "key", "a function designator of one argument, or NIL for "
+                    + "the element itself. The default is NIL.",
+                "test", "a function designator of two arguments. The "
+                    + "default is eql.",
+                "position", "a non-negative integer, or NIL"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                SExp[] options = keywordArguments(toString(), arguments, 2,
+                    "KEY", "TEST");
+                FormEntry key = optionalFunction(environment, options[0]);
+                FormEntry test = optionalFunction(environment, options[1]);
+
+                int i = 0;
+                for (Iterator<SExp> it = Sequences.iterator(arguments[1]);
+                    it.hasNext(); ++i)
+                    if (test(test, arguments[0], key(key, it.next())))
+                        return Num.valueOf(i);
+
+                return SExp.NIL;
+            }
+        };
+
+        // -------
+        // PUTHASH
+        // -------
+
+        final BuiltinFunctionEntry PUTHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.PUTHASH, environment,
+            new FormHelpTopic("PUTHASH", "store a value in a hash table",
+                "(puthash <key> <value> <hash-table>) => <value>",
+                "puthash makes value the value of key in hash-table, "
+                    + "replacing the value of an existing entry for key.",
+                "key", "an object",
+                "value", "an object",
+                "hash-table", "a hash table"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 3)
+                    throw new InvalidArgumentQuantityException(toString(), 3,
+                        arguments.length);
+
+                TypeUtil.attemptCast(HashTable.class, arguments[2])
+                    .put(arguments[0], arguments[1]);
+                return arguments[1];
+            }
+        };
+
+        // --------------
+        // QUEUE-CONTENTS
+        // --------------
+
+        final BuiltinFunctionEntry QUEUECONTENTS = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.QUEUECONTENTS, environment,
+            new FormHelpTopic("QUEUE-CONTENTS", "the list held by a queue",
+                "(queue-contents <queue>) => <list>",
+                "queue-contents returns the list of the objects added to "
+                    + "queue, first to last. The list is not copied, so "
+                    + "objects enqueued later also appear at its end.",
+                "queue", "a queue",
+                "list", "a list"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return TypeUtil.attemptCast(Cons.class, arguments[0]).car;
+            }
+        };
+
+        // ------
+        // REDUCE
+        // ------
+
+        final BuiltinFunctionEntry REDUCE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REDUCE, environment,
+            new FormHelpTopic("REDUCE", "combine the elements of a sequence",
+                "(reduce <function> <sequence> [:key <key>] "
+                    + "[:from-end <boolean>] [:initial-value <value>]) "
+                    + "=> <result>",
+                "reduce combines the elements of sequence with function, "
+                    + "which is called with the result so far and the next "
+                    + "element: (reduce #'+ '(1 2 3)) is (+ (+ 1 2) 3). If "
+                    + "from-end is true the elements are combined from the "
+                    + "right instead: (f 1 (f 2 3)). The initial value, if "
+                    + "given, is combined before the first element. An empty "
+                    + "sequence without an initial value gives the result of "
+                    + "calling function with no arguments.",
+                "function", "a function designator of two arguments",
+                "sequence", "a proper list or a vector",
+                "key", "a function designator of one argument applied to "
+                    + "each element, or NIL. The default is NIL.",
+                "boolean", "a generalized boolean. The default is NIL.",
+                "value", "an object",
+                "result", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                SExp[] options = keywordArguments(toString(), arguments, 2,
+                    "KEY", "FROM-END", "INITIAL-VALUE");
+                FormEntry fe = function(environment, arguments[0]);
+                FormEntry key = optionalFunction(environment, options[0]);
+                boolean fromEnd = options[1] != null
+                    && options[1] != SExp.NIL;
+                SExp result = options[2];
+
+                if (fromEnd) {
+                    SExp[] elements = Sequences.toArray(arguments[1]);
+                    int i = elements.length;
+                    if (result == null) {
+                        if (i == 0) return fe.call0();
+                        result = key(key, elements[--i]);
+                    }
+                    while (i > 0) result = fe.call2(key(key, elements[--i]),
+                        result);
+                    return result;
+                }
+
+                Iterator<SExp> it = Sequences.iterator(arguments[1]);
+                if (result == null) {
+                    if (!it.hasNext()) return fe.call0();
+                    result = key(key, it.next());
+                }
+                while (it.hasNext()) result = fe.call2(result,
+                    key(key, it.next()));
+                return result;
+            }
+        };
+
+        // -------
+        // REMHASH
+        // -------
+
+        final BuiltinFunctionEntry REMHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REMHASH, environment,
+            new FormHelpTopic("REMHASH", "remove an entry from a hash table",
+                "(remhash <key> <hash-table>) => <boolean>",
+                "Removes the entry for key in hash-table, if any. Returns T "
+                    + "if there was such an entry and NIL otherwise.",
+                "key", "an object",
+                "hash-table", "a hash table"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return TypeUtil.attemptCast(HashTable.class, arguments[1])
+                    .remove(arguments[0]) ? SExp.T : SExp.NIL;
+            }
+        };
+
+        // ---------
+        // REMOVE-IF
+        // ---------
+
+        final BuiltinFunctionEntry REMOVEIF = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REMOVEIF, environment,
+            new FormHelpTopic("REMOVE-IF", "remove the elements that match",
+                "(remove-if <predicate> <sequence> [:key <key>]) "
+                    + "=> <result-sequence>",
+                "remove-if returns a sequence of the elements of sequence "
+                    + "that do not satisfy predicate, in order. The result is "
+                    + "a new list or a new vector of the same element type; "
+                    + "sequence is not modified.",
+                "predicate", "a function designator of one argument",
+                "sequence", "a proper list or a vector",
+                "key", "a function designator of one argument applied to "
+                    + "each element before the predicate, or NIL. The "
+                    + "default is NIL.",
+                "result-sequence", "a list or a vector"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                SExp[] options = keywordArguments(toString(), arguments, 2,
+                    "KEY");
+                FormEntry predicate = function(environment, arguments[0]);
+                FormEntry key = optionalFunction(environment, options[0]);
+
+                if (arguments[1] instanceof Vector) {
+                    Vector v = (Vector) arguments[1];
+                    ArrayList<SExp> kept = new ArrayList<SExp>();
+                    for (int i = 0; i < v.length(); ++i) {
+                        SExp element = v.get(i);
+                        if (predicate.call1(key(key, element)) == SExp.NIL)
+                            kept.add(element);
+                    }
+
+                    Vector result = Vector.make(v.elementType(), kept.size(),
+                        -1);
+                    for (int i = 0; i < kept.size(); ++i)
+                        result.set(i, kept.get(i));
+                    return result;
+                }
+
+                Sequences.ListBuilder result = new Sequences.ListBuilder();
+                for (Cons c = Cons.list(arguments[1]); c != null; c = c.next())
+                    if (predicate.call1(key(key, c.car)) == SExp.NIL)
+                        result.add(c.car);
+                return result.list();
+            }
+        };
+
+        // -------
+        // REPLACE
+        // -------
+
+        final BuiltinFunctionEntry REPLACE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REPLACE, environment,
+            new FormHelpTopic("REPLACE", "copy elements between vectors",
+                "(replace <vector-1> <vector-2> [:start1 <start1>] "
+                    + "[:end1 <end1>] [:start2 <start2>] [:end2 <end2>]) "
+                    + "=> <vector-1>",
+                "replace copies the elements of vector-2 from start2 up to "
+                    + "end2 into vector-1 starting at start1, stopping at "
+                    + "end1 or when the elements to copy run out. Vectors "
+                    + "of the same element type are copied in bulk. The "
+                    + "vectors may be the same vector.",
+                "vector-1", "a vector",
+                "vector-2", "a vector",
+                "start1", "an index. The default is 0.",
+                "end1", "an index. The default is the length of vector-1.",
+                "start2", "an index. The default is 0.",
+                "end2", "an index. The default is the length of vector-2."))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2 || arguments.length % 2 != 0)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "two vectors and option, value pairs are required.");
+
+                Vector target = TypeUtil.attemptCast(Vector.class,
+                    arguments[0]);
+                Vector source = TypeUtil.attemptCast(Vector.class,
+                    arguments[1]);
+                int start1 = 0, end1 = target.length();
+                int start2 = 0, end2 = source.length();
+
+                // options
+                for (int i = 2; i < arguments.length; i += 2) {
+                    Keyword option = TypeUtil.attemptCast(Keyword.class,
+                        arguments[i]);
+                    int value = index(arguments[i + 1]);
+
+                    if (option.name.equals("START1")) start1 = value;
+                    else if (option.name.equals("END1")) end1 = value;
+                    else if (option.name.equals("START2")) start2 = value;
+                    else if (option.name.equals("END2")) end2 = value;
+                    else throw new LispException("Unknown option to REPLACE: "
+                        + option);
+                }
+
+                if (end1 < start1 || end2 < start2)
+                    throw new LispException("The end of a range is before "
+                        + "its start.");
+
+                target.replace(start1, source, start2,
+                    Math.min(end1 - start1, end2 - start2));
+                return target;
+            }
+        };
+
+        // -------
+        // REVERSE
+        // -------
+
+        final BuiltinFunctionEntry REVERSE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.REVERSE, environment,
+            new FormHelpTopic("REVERSE", "reverse a sequence",
+                "(reverse <sequence>) => <reversed-sequence>",
+                "reverse returns a new sequence of the same elements as "
+                    + "sequence in the reverse order. sequence is not "
+                    + "modified; see nreverse.",
+                "sequence", "a proper list or a vector",
+                "reversed-sequence", "a new list or vector"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                if (arguments[0] instanceof Vector) {
+                    Vector v = (Vector) arguments[0];
+                    int n = v.length();
+                    Vector result = Vector.make(v.elementType(), n, -1);
+                    for (int i = 0; i < n; ++i)
+                        result.set(i, v.get(n - 1 - i));
+                    return result;
+                }
+
+                SExp result = SExp.NIL;
+                for (Cons c = Cons.list(arguments[0]); c != null; c = c.next())
+                    result = new Cons(c.car, result);
+                return result;
+            }
+        };
+
+        // ------
+        // RPLACA
+        // ------
+
+        final BuiltinFunctionEntry RPLACA = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.RPLACA, environment,
+            new FormHelpTopic("RPLACA", "replace the car of a cons",
+                "(rplaca <cons> <object>) => <cons>",
+                "rplaca replaces the car of the cons with object.",
+                "cons", "a cons",
+                "object", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                Cons cons = mutable(arguments[0]);
+                cons.setCar(arguments[1]);
+                return cons;
+            }
+        };
+
+        // ------
+        // RPLACD
+        // ------
+
+        final BuiltinFunctionEntry RPLACD = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.RPLACD, environment,
+            new FormHelpTopic("RPLACD", "replace the cdr of a cons",
+                "(rplacd <cons> <object>) => <cons>",
+                "rplacd replaces the cdr of the cons with object.",
+                "cons", "a cons",
+                "object", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                Cons cons = mutable(arguments[0]);
+                cons.setCdr(arguments[1]);
+                return cons;
+            }
+        };
+
+        // ------
+        // SXHASH
+        // ------
+
+        final BuiltinFunctionEntry SXHASH = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.SXHASH, environment,
+            new FormHelpTopic("SXHASH", "structural hash code",
+                "(sxhash <object>) => <hash-code>",
+                "sxhash returns a hash code for object: objects that are "
+                    + "equal have the same hash code. The hash code of a "
+                    + "list is computed once and remembered.",
+                "object", "an object",
+                "hash-code", "a non-negative fixnum"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                return Num.valueOf(Equality.sxhash(arguments[0]));
+            }
+        };
+
+        // ----
+        // TAKE
+        // ----
+
+        final BuiltinFunctionEntry TAKE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.TAKE, environment,
+            new FormHelpTopic("TAKE", "the first elements of a sequence",
+                "(take <n> <sequence>) => <list>",
+                "take returns a new list of the first n elements of a list or "
+                    + "lazy sequence, or of all of them if there are fewer. "
+                    + "A lazy sequence is realized as far as its nth element "
+                    + "and no further.",
+                "n", "a non-negative integer",
+                "sequence", "a list or a lazy sequence",
+                "list", "a list"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        arguments.length);
+
+                return LazySeq.take(index(arguments[0]), arguments[1]);
+            }
+        };
+
+        // ------
+        // TAKING
+        // ------
+
+        final BuiltinFunctionEntry TAKING = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.TAKING, environment,
+            new FormHelpTopic("TAKING", "a transducer that stops early",
+                "(taking <n>) => <transducer>",
+                "taking returns a transducer that passes on the first n "
+                    + "elements and then ends the reduction, so the rest of "
+                    + "the source is not read.",
+                "n", "a non-negative integer",
+                "transducer", "a transducer"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                Num n = TypeUtil.attemptCast(Num.class, arguments[0]);
+                if (!n.isFixnum() || n.signum() < 0)
+                    throw new LispException("TYPE-ERROR: The value "
+                        + arguments[0] + " is not a non-negative integer.");
+
+                return new Transducer.Taking(n.longValue());
+            }
+        };
+
+        // ---------
+        // TRANSDUCE
+        // ---------
+
+        final BuiltinFunctionEntry TRANSDUCE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.TRANSDUCE, environment,
+            new FormHelpTopic("TRANSDUCE", "reduce through transducers",
+                "(transduce <transducer> <function> <initial-value> "
+                    + "<source>) => <result>",
+                "transduce passes each element of source through "
+                    + "transducer and combines what comes out with function, "
+                    + "starting from initial-value, as reduce does. The "
+                    + "stages run together in a single pass over source, so "
+                    + "no intermediate lists are made: (transduce (comp "
+                    + "(filtering 'p) (mapping 'f)) '+ 0 xs) sums (f x) for "
+                    + "the x in xs that satisfy p.",
+                "transducer", "a transducer made by mapping, filtering, "
+                    + "taking or comp",
+                "function", "a function designator of two arguments, the "
+                    + "result so far and an element",
+                "initial-value", "an object",
+                "source", "a proper list, a vector or a line source made by "
+                    + "file-lines",
+                "result", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 4)
+                    throw new InvalidArgumentQuantityException(toString(), 4,
+                        arguments.length);
+
+                return Transducer.transduce(
+                    TypeUtil.attemptCast(Transducer.class, arguments[0]),
+                    function(environment, arguments[1]), arguments[2],
+                    arguments[3]);
+            }
+        };
+
+        // ---------
+        // UNMEMOIZE
+        // ---------
+
+        final BuiltinFunctionEntry UNMEMOIZE = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.UNMEMOIZE, environment,
+            new FormHelpTopic("UNMEMOIZE", "stop caching a function",
+                "(unmemoize <name>) => <name>",
+                "Restores the original function of a function memoized with "
+                    + "memoize or defun-memo, discarding its cached results.",
+                "name", "a symbol naming a memoized function"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        arguments.length);
+
+                MemoizedFunctionEntry fe = memoized(environment, arguments[0]);
+                environment.globalSymbolTable.bind(fe.symbol, fe.function);
+                return fe.symbol;
+            }
+        };
+
+        // ------
+        // VECTOR
+        // ------
+
+        final BuiltinFunctionEntry VECTOR = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.VECTOR, environment,
+            new FormHelpTopic("VECTOR", "create a vector",
+                "(vector <object>*) => <vector>",
+                "vector returns a vector of element type t containing the "
+                    + "supplied objects.",
+                "object", "an object"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+                return new GeneralVector(arguments.clone());
+            }
+        };
+
+        // ------------------
+        // VECTOR-PUSH-EXTEND
+        // ------------------
+
+        final BuiltinFunctionEntry VECTORPUSHEXTEND = new BuiltinFunctionEntry(
+            BuiltinFunctionEntry.VECTORPUSHEXTEND, environment,
+            new FormHelpTopic("VECTOR-PUSH-EXTEND",
+                "add an element to the end of a vector",
+                "(vector-push-extend <element> <vector> [<extension>]) "
+                    + "=> <index>",
+                "Stores element at the fill pointer of vector and increments "
+                    + "the fill pointer. If the vector is full it first "
+                    + "grows by at least extension elements; it at least "
+                    + "doubles in size, so pushing n elements takes O(n) "
+                    + "time.",
+                "element", "an object of the element type of the vector",
+                "vector", "a vector with a fill pointer",
+                "extension", "a positive integer",
+                "index", "the index of the new element"))
+        {
+            public SExp call(SExp[] arguments) throws LispException {
+
+                if (arguments.length < 2 || arguments.length > 3)
+                    throw new InvalidArgumentQuantityException(toString(),
+                        "two or three arguments are required.");
+
+                int extension = arguments.length > 2 ? index(arguments[2]) : 0;
+
+                return Num.valueOf(TypeUtil.attemptCast(Vector.class,
+                    arguments[1]).push(arguments[0], extension));
+            }
+        };
+
+        environment.globalSymbolTable.bind(LTE.symbol, LTE);
+        environment.globalSymbolTable.bind(LT.symbol, LT);
+        environment.globalSymbolTable.bind(NUMEQ.symbol, NUMEQ);
+        environment.globalSymbolTable.bind(NUMNOTEQ.symbol, NUMNOTEQ);
+        environment.globalSymbolTable.bind(GT.symbol, GT);
+        environment.globalSymbolTable.bind(GTE.symbol, GTE);
+        environment.globalSymbolTable.bind(DIF.symbol, DIF);
+        environment.globalSymbolTable.bind(DIV.symbol, DIV);
+        environment.globalSymbolTable.bind(MUL.symbol, MUL);
+        environment.globalSymbolTable.bind(SUM.symbol, SUM);
+        environment.globalSymbolTable.bind(APPEND.symbol, APPEND);
+        environment.globalSymbolTable.bind(AREF.symbol, AREF);
+        environment.globalSymbolTable.bind(ASET.symbol, ASET);
+        environment.globalSymbolTable.bind(CAR.symbol, CAR);
+        environment.globalSymbolTable.bind(CDR.symbol, CDR);
+        environment.globalSymbolTable.bind(CLRHASH.symbol, CLRHASH);
+        environment.globalSymbolTable.bind(COMP.symbol, COMP);
+        environment.globalSymbolTable.bind(COMPILE.symbol, COMPILE);
+        environment.globalSymbolTable.bind(CONS.symbol, CONS);
+        environment.globalSymbolTable.bind(DROP.symbol, DROP);
+        environment.globalSymbolTable.bind(ENABLEAUTOCOMPILE.symbol, ENABLEAUTOCOMPILE);
+        environment.globalSymbolTable.bind(ENABLEDEBUGAST.symbol, ENABLEDEBUGAST);
+        environment.globalSymbolTable.bind(ENABLEDOUBLEFLOATS.symbol, ENABLEDOUBLEFLOATS);
+        environment.globalSymbolTable.bind(ENABLEHASHCONSING.symbol, ENABLEHASHCONSING);
+        environment.globalSymbolTable.bind(ENQUEUE.symbol, ENQUEUE);
+        environment.globalSymbolTable.bind(EQ.symbol, EQ);
+        environment.globalSymbolTable.bind(EQL.symbol, EQL);
+        environment.globalSymbolTable.bind(EQUAL.symbol, EQUAL);
+        environment.globalSymbolTable.bind(EQUALP.symbol, EQUALP);
+        environment.globalSymbolTable.bind(FILELINES.symbol, FILELINES);
+        environment.globalSymbolTable.bind(FILL.symbol, FILL);
+        environment.globalSymbolTable.bind(FILLPOINTER.symbol, FILLPOINTER);
+        environment.globalSymbolTable.bind(FILTERING.symbol, FILTERING);
+        environment.globalSymbolTable.bind(FIND.symbol, FIND);
+        environment.globalSymbolTable.bind(FORCE.symbol, FORCE);
+        environment.globalSymbolTable.bind(GETF.symbol, GETF);
+        environment.globalSymbolTable.bind(GETHASH.symbol, GETHASH);
+        environment.globalSymbolTable.bind(HASHTABLECOUNT.symbol, HASHTABLECOUNT);
+        environment.globalSymbolTable.bind(ITERATE.symbol, ITERATE);
+        environment.globalSymbolTable.bind(LAZYCDR.symbol, LAZYCDR);
+        environment.globalSymbolTable.bind(LAZYFILTER.symbol, LAZYFILTER);
+        environment.globalSymbolTable.bind(LAZYMAP.symbol, LAZYMAP);
+        environment.globalSymbolTable.bind(LENGTH.symbol, LENGTH);
+        environment.globalSymbolTable.bind(LIST.symbol, LIST);
+        environment.globalSymbolTable.bind(MAKEARRAY.symbol, MAKEARRAY);
+        environment.globalSymbolTable.bind(MAKEHASHTABLE.symbol, MAKEHASHTABLE);
+        environment.globalSymbolTable.bind(MAKEQUEUE.symbol, MAKEQUEUE);
+        environment.globalSymbolTable.bind(MAPCAR.symbol, MAPCAR);
+        environment.globalSymbolTable.bind(MAPHASH.symbol, MAPHASH);
+        environment.globalSymbolTable.bind(MAPPING.symbol, MAPPING);
+        environment.globalSymbolTable.bind(MEMOIZE.symbol, MEMOIZE);
+        environment.globalSymbolTable.bind(MEMOSTATS.symbol, MEMOSTATS);
+        environment.globalSymbolTable.bind(MOD.symbol, MOD);
+        environment.globalSymbolTable.bind(NCONC.symbol, NCONC);
+        environment.globalSymbolTable.bind(NOT.symbol, NOT);
+        environment.globalSymbolTable.bind(NREVERSE.symbol, NREVERSE);
+        environment.globalSymbolTable.bind(POSITION.symbol, POSITION);
+        environment.globalSymbolTable.bind(PUTHASH.symbol, PUTHASH);
+        environment.globalSymbolTable.bind(QUEUECONTENTS.symbol, QUEUECONTENTS);
+        environment.globalSymbolTable.bind(REDUCE.symbol, REDUCE);
+        environment.globalSymbolTable.bind(REM.symbol, REM);
+        environment.globalSymbolTable.bind(REMHASH.symbol, REMHASH);
+        environment.globalSymbolTable.bind(REMOVEIF.symbol, REMOVEIF);
+        environment.globalSymbolTable.bind(REPLACE.symbol, REPLACE);
+        environment.globalSymbolTable.bind(REVERSE.symbol, REVERSE);
+        environment.globalSymbolTable.bind(RPLACA.symbol, RPLACA);
+        environment.globalSymbolTable.bind(RPLACD.symbol, RPLACD);
+        environment.globalSymbolTable.bind(SXHASH.symbol, SXHASH);
+        environment.globalSymbolTable.bind(TAKE.symbol, TAKE);
+        environment.globalSymbolTable.bind(TAKING.symbol, TAKING);
+        environment.globalSymbolTable.bind(TRANSDUCE.symbol, TRANSDUCE);
+        environment.globalSymbolTable.bind(UNMEMOIZE.symbol, UNMEMOIZE);
+        environment.globalSymbolTable.bind(VECTOR.symbol, VECTOR);
+        environment.globalSymbolTable.bind(VECTORPUSHEXTEND.symbol, VECTORPUSHEXTEND);
+        environment.globalSymbolTable.bind(BuiltinFunctionEntry.NULL, NOT);
+    }
+
+    /** The memoized global function named by a symbol. */
+    private static MemoizedFunctionEntry memoized(LISPRuntime environment,
+    SExp name) throws LispException {
+        Symbol symbol = TypeUtil.attemptCast(Symbol.class, name);
+        FormEntry fe = environment.globalSymbolTable.lookupFunction(symbol);
+
+        if (fe == null) throw new UndefinedFunctionException(symbol);
+        if (!(fe instanceof MemoizedFunctionEntry))
+            throw new LispException(symbol.name + " is not memoized.");
+
+        return (MemoizedFunctionEntry) fe;
+    }
+
+    /** A function argument, resolved as FUNCALL resolves it. */
+    private static FormEntry function(LISPRuntime environment, SExp designator)
+    throws LispException {
+        return FuncallNode.resolve(environment.globalSymbolTable, designator);
+    }
+
+    /**
+     * A cons that may be destructively modified: any cons except one shared
+     * by hash-consing.
+     */
+    private static Cons mutable(SExp value) throws LispException {
+        Cons cons = TypeUtil.attemptCast(Cons.class, value);
+        if (ConsPool.SHARED.contains(cons))
+            throw new LispException("The list " + cons + " is shared by "
+                + "hash-consing and cannot be modified.");
+        return cons;
+    }
+
+    /**
+     * A function designator given for an optional argument, such as :key
+     * or :test; null if it was not given or is NIL.
+     */
+    private static FormEntry optionalFunction(LISPRuntime environment,
+    SExp designator) throws LispException {
+        if (designator == null || designator == SExp.NIL) return null;
+        return function(environment, designator);
+    }
+
+    /** Apply a :key function, or return the element if there is none. */
+    private static SExp key(FormEntry key, SExp element)
+    throws LispException {
+        return key == null ? element : key.call1(element);
+    }
+
+    /** Apply a :test function, EQL if there is none. */
+    private static boolean test(FormEntry test, SExp item, SExp element)
+    throws LispException {
+        if (test == null) return Equality.eql(item, element);
+        return test.call2(item, element) != SExp.NIL;
+    }
+
+    /**
+     * Parse keyword arguments.
+     * @param start The index of the first keyword in the arguments.
+     * @param names The names of the keywords accepted.
+     * @return The value of each keyword in the order of the names, null for
+     * those not given. If a keyword is given twice the first value is used.
+     */
+    private static SExp[] keywordArguments(String function, SExp[] arguments,
+    int start, String... names) throws LispException {
+        SExp[] values = new SExp[names.length];
+
+        if ((arguments.length - start) % 2 != 0)
+            throw new InvalidArgumentQuantityException(function,
+                "keyword, value pairs are required.");
+
+        next: for (int i = start; i < arguments.length; i += 2) {
+            Keyword keyword = TypeUtil.attemptCast(Keyword.class,
+                arguments[i]);
+            for (int j = 0; j < names.length; ++j) {
+                if (!keyword.name.equals(names[j])) continue;
+                if (values[j] == null) values[j] = arguments[i + 1];
+                continue next;
+            }
+            throw new LispException("Unknown keyword argument to "
+                + function + ": " + keyword);
+        }
+
+        return values;
+    }
+
+    /** An index into a vector: a fixnum from 0 to the largest int. */
+    private static int index(SExp value) throws LispException {
+        Num n = TypeUtil.attemptCast(Num.class, value);
+        if (!n.isFixnum() || n.longValue() < 0
+            || n.longValue() > Integer.MAX_VALUE)
+            throw new LispException("TYPE-ERROR: The value " + value
+                + " is not a valid index.");
+        return (int) n.longValue();
+    }
+}
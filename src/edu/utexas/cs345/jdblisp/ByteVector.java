@@ -0,0 +1,57 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.Arrays;
+
+/**
+ * ByteVector
+ * A vector of integers from 0 to 255, kept in a <tt>byte[]</tt>.
+ */
+public class ByteVector extends Vector {
+
+    static final SExp ELEMENT_TYPE = Cons.list(
+        Symbol.intern("UNSIGNED-BYTE"), Num.valueOf(8));
+
+    private byte[] elements;
+
+    public ByteVector(int size, int fillPointer) {
+        super(fillPointer);
+        elements = new byte[size];
+    }
+
+    public SExp elementType() { return ELEMENT_TYPE; }
+
+    public int capacity() { return elements.length; }
+
+    protected SExp element(int index) {
+        return Num.valueOf(elements[index] & 0xff);
+    }
+
+    protected void setElement(int index, SExp value) throws LispException {
+        elements[index] = octet(value);
+    }
+
+    protected void resize(int capacity) {
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    protected void fillElements(SExp value, int start, int end)
+    throws LispException {
+        Arrays.fill(elements, start, end, octet(value));
+    }
+
+    protected void copyElements(int start, Vector source, int sourceStart,
+    int count) throws LispException {
+        if (source instanceof ByteVector)
+            System.arraycopy(((ByteVector) source).elements, sourceStart,
+                elements, start, count);
+        else super.copyElements(start, source, sourceStart, count);
+    }
+
+    private static byte octet(SExp value) throws LispException {
+        Num n = TypeUtil.attemptCast(Num.class, value);
+        if (!n.isFixnum() || n.longValue() < 0 || n.longValue() > 255)
+            throw new LispException("TYPE-ERROR: The value " + value
+                + " is not of type (UNSIGNED-BYTE 8)");
+        return (byte) n.longValue();
+    }
+}
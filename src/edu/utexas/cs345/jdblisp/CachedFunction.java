@@ -0,0 +1,22 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * CachedFunction
+ * The inline cache of a call site: a function, the name it was looked up
+ * by, and the definitions version it was found under. The fields are final
+ * and a call site keeps the whole cache in one field, so a thread that
+ * reads the field sees a function together with its own version even when
+ * another thread is replacing it.
+ */
+final class CachedFunction {
+
+    final Symbol name;
+    final FormEntry function;
+    final int version;
+
+    CachedFunction(Symbol name, FormEntry function, int version) {
+        this.name = name;
+        this.function = function;
+        this.version = version;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * CallNode
+ * A call to a global function named by a symbol, <tt>(name arg*)</tt>.
+ */
+public class CallNode extends Node {
+
+    private final SymbolTable globals;
+    public final Symbol name;
+    public final Node[] arguments;
+    public final boolean tail;
+
+    // inline cache: the function found by the last lookup
+    private CachedFunction cache = null;
+
+    public CallNode(SymbolTable globals, Symbol name, Node[] arguments) {
+        this(globals, name, arguments, false);
+    }
+
+    public CallNode(SymbolTable globals, Symbol name, Node[] arguments,
+    boolean tail) {
+        this.globals = globals;
+        this.name = name;
+        this.arguments = arguments;
+        this.tail = tail;
+    }
+
+    public Node inTailPosition() {
+        return new CallNode(globals, name, arguments, true);
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        return call(function(), arguments, frame, tail);
+    }
+
+    /**
+     * The function named by this call.
+     * @throws UndefinedFunctionException if there is no such function.
+     */
+    FormEntry function() throws LispException {
+
+        CachedFunction cached = cache;
+        int version = SymbolTable.definitionsVersion();
+
+        // no function has been defined since the last lookup, use the cache
+        if (cached != null && cached.version == version)
+            return cached.function;
+
+        // look up in the symbol table
+        FormEntry fe = globals.lookupFunction(name);
+
+        // throw an eror if it is not defined
+        if (fe == null) throw new UndefinedFunctionException(name);
+
+        cache = new CachedFunction(name, fe, version);
+        return fe;
+    }
+}
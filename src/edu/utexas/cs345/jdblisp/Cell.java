@@ -0,0 +1,21 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * Cell
+ * A box holding the value of a lexical variable that is both captured by a
+ * closure and assigned. The frame slot of such a variable holds the cell
+ * instead of the value, and closures share the cell, so an assignment made
+ * by one is seen by all of them.
+ */
+public class Cell implements SExp {
+
+    public SExp value;
+
+    public Cell(SExp value) { this.value = value; }
+
+    public String display(String offset) {
+        return offset + "Cell: " + value + "\n";
+    }
+
+    public String toString() { return "<CELL " + value + ">"; }
+}
@@ -0,0 +1,24 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * CellSetqNode
+ * Assignment to a lexical variable held in a {@link Cell}.
+ */
+public class CellSetqNode extends Node {
+
+    public final int depth;
+    public final int slot;
+    public final Node value;
+
+    public CellSetqNode(int depth, int slot, Node value) {
+        this.depth = depth;
+        this.slot = slot;
+        this.value = value;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        SExp variableValue = value.eval(frame);
+        ((Cell) frame.up(depth).slots[slot]).value = variableValue;
+        return variableValue;
+    }
+}
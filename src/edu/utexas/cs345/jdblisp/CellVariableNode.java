@@ -0,0 +1,22 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * CellVariableNode
+ * A reference to a lexical variable held in a {@link Cell}.
+ */
+public class CellVariableNode extends Node {
+
+    public final Symbol symbol;
+    public final int depth;
+    public final int slot;
+
+    public CellVariableNode(Symbol symbol, int depth, int slot) {
+        this.symbol = symbol;
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public SExp eval(Frame frame) {
+        return ((Cell) frame.up(depth).slots[slot]).value;
+    }
+}
@@ -0,0 +1,237 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * ClassFileWriter
+ * A minimal writer for JVM class files, just enough for the
+ * {@link edu.utexas.cs345.jdblisp.Compiler}. Classes are written in the
+ * version 49.0 format, which the JVM verifies by type inference, so no stack
+ * map frames need to be computed.
+ */
+class ClassFileWriter {
+
+    static final int ACC_PUBLIC         = 0x0001;
+    static final int ACC_FINAL          = 0x0010;
+    static final int ACC_SUPER          = 0x0020;
+
+    static final int ICONST_0           = 0x03;
+    static final int BIPUSH             = 0x10;
+    static final int SIPUSH             = 0x11;
+    static final int ALOAD              = 0x19;
+    static final int AALOAD             = 0x32;
+    static final int ASTORE             = 0x3a;
+    static final int AASTORE            = 0x53;
+    static final int POP                = 0x57;
+    static final int DUP                = 0x59;
+    static final int DUP_X1             = 0x5a;
+    static final int DUP_X2             = 0x5b;
+    static final int IF_ACMPEQ          = 0xa5;
+    static final int GOTO               = 0xa7;
+    static final int ARETURN            = 0xb0;
+    static final int RETURN             = 0xb1;
+    static final int GETSTATIC          = 0xb2;
+    static final int GETFIELD           = 0xb4;
+    static final int PUTFIELD           = 0xb5;
+    static final int INVOKEVIRTUAL      = 0xb6;
+    static final int INVOKESPECIAL      = 0xb7;
+    static final int INVOKESTATIC       = 0xb8;
+    static final int NEW                = 0xbb;
+    static final int ANEWARRAY          = 0xbd;
+    static final int CHECKCAST          = 0xc0;
+    static final int IFNULL             = 0xc6;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final HashMap<String, Integer> poolIndex =
+        new HashMap<String, Integer>();
+    private int poolCount = 1;
+
+    private final ArrayList<byte[]> methods = new ArrayList<byte[]>();
+
+    // -------------
+    // CONSTANT POOL
+    // -------------
+
+    int utf8(String value) {
+        Integer index = poolIndex.get("U" + value);
+        if (index != null) return index;
+        try { pool.writeByte(1); pool.writeUTF(value); }
+        catch (IOException ioe) { throw new IllegalStateException(ioe); }
+        return newEntry("U" + value);
+    }
+
+    int classRef(String internalName) {
+        return ref("C", 7, utf8(internalName), -1);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return ref("F", 9, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return ref("M", 10, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        return ref("N", 12, utf8(name), utf8(descriptor));
+    }
+
+    private int ref(String kind, int tag, int first, int second) {
+        String key = kind + first + ":" + second;
+        Integer index = poolIndex.get(key);
+        if (index != null) return index;
+        try {
+            pool.writeByte(tag);
+            pool.writeShort(first);
+            if (second >= 0) pool.writeShort(second);
+        } catch (IOException ioe) { throw new IllegalStateException(ioe); }
+        return newEntry(key);
+    }
+
+    private int newEntry(String key) {
+        if (poolCount > 0xffff)
+            throw new IllegalStateException("Constant pool overflow.");
+        poolIndex.put(key, poolCount);
+        return poolCount++;
+    }
+
+    // -------
+    // METHODS
+    // -------
+
+    /**
+     * The bytecode of one method. Tracks the operand stack depth as
+     * instructions are emitted so that the maximum can be recorded.
+     */
+    class Code {
+
+        private final Bytes bytes = new Bytes();
+        private int stack = 0;
+        private int maxStack = 0;
+        private final int maxLocals;
+
+        Code(int maxLocals) { this.maxLocals = maxLocals; }
+
+        /** Emit an instruction without operands. */
+        void op(int opcode, int stackChange) {
+            bytes.write(opcode);
+            adjust(stackChange);
+        }
+
+        /** Emit an instruction with a one byte operand. */
+        void op1(int opcode, int operand, int stackChange) {
+            bytes.write(opcode);
+            bytes.write(operand);
+            adjust(stackChange);
+        }
+
+        /** Emit an instruction with a two byte operand. */
+        void op2(int opcode, int operand, int stackChange) {
+            bytes.write(opcode);
+            bytes.write(operand >> 8);
+            bytes.write(operand);
+            adjust(stackChange);
+        }
+
+        /** Push an int constant. */
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) op(ICONST_0 + value, 1);
+            else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+                op1(BIPUSH, value, 1);
+            else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+                op2(SIPUSH, value, 1);
+            else throw new IllegalStateException("Constant too large.");
+        }
+
+        /**
+         * Emit a branch whose target is not known yet.
+         * @return The position of the branch, for {@link #land}.
+         */
+        int jump(int opcode, int stackChange) {
+            int position = bytes.size();
+            op2(opcode, 0, stackChange);
+            return position;
+        }
+
+        /** Make a branch emitted by {@link #jump} target the current position. */
+        void land(int jump) {
+            int offset = bytes.size() - jump;
+            if (offset > Short.MAX_VALUE)
+                throw new IllegalStateException("Branch too long.");
+            bytes.patch(jump + 1, offset);
+        }
+
+        int stack() { return stack; }
+
+        /** Reset the stack depth at a point reached only by a branch. */
+        void stack(int depth) { stack = depth; }
+
+        private void adjust(int stackChange) {
+            stack += stackChange;
+            if (stack > maxStack) maxStack = stack;
+        }
+    }
+
+    /** A byte buffer that allows branch offsets to be patched in place. */
+    private static class Bytes extends ByteArrayOutputStream {
+        void patch(int position, int value) {
+            buf[position] = (byte) (value >> 8);
+            buf[position + 1] = (byte) value;
+        }
+    }
+
+    /** Add a method with the given code to the class. */
+    void method(int access, String name, String descriptor, Code code) {
+        byte[] body = code.bytes.toByteArray();
+        if (body.length > 0xffff)
+            throw new IllegalStateException("Method too large.");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);                  // attributes: Code
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + body.length);
+            out.writeShort(code.maxStack);
+            out.writeShort(code.maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0);                  // exception table
+            out.writeShort(0);                  // code attributes
+        } catch (IOException ioe) { throw new IllegalStateException(ioe); }
+        methods.add(bytes.toByteArray());
+    }
+
+    /** Write the class file. */
+    byte[] toByteArray(int access, String thisClass, String superClass) {
+        int thisIndex = classRef(thisClass);
+        int superIndex = classRef(superClass);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xcafebabe);
+            out.writeShort(0);                  // minor version
+            out.writeShort(49);                 // major version
+            out.writeShort(poolCount);
+            out.write(poolBytes.toByteArray());
+            out.writeShort(access);
+            out.writeShort(thisIndex);
+            out.writeShort(superIndex);
+            out.writeShort(0);                  // interfaces
+            out.writeShort(0);                  // fields
+            out.writeShort(methods.size());
+            for (byte[] method : methods) out.write(method);
+            out.writeShort(0);                  // attributes
+        } catch (IOException ioe) { throw new IllegalStateException(ioe); }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,22 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * CompiledNode
+ * The superclass of the classes generated by the
+ * {@link edu.utexas.cs345.jdblisp.Compiler}. A compiled node evaluates the
+ * same tree as its source node, but as a single JVM method.
+ */
+public abstract class CompiledNode extends Node {
+
+    /** Objects referenced by the generated code: constants and the nodes
+     *  the compiler left to the interpreter. */
+    protected final Object[] constants;
+
+    /** The interpreted node this was compiled from. */
+    public final Node source;
+
+    protected CompiledNode(Object[] constants, Node source) {
+        this.constants = constants;
+        this.source = source;
+    }
+}
@@ -0,0 +1,334 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+
+/**
+ * Compiler
+ * Translates the node tree of a function body into a JVM class, so that the
+ * whole body runs as one method that HotSpot can inline and optimize like
+ * ordinary Java code. The generated class is defined as a hidden class in
+ * this package and extends {@link edu.utexas.cs345.jdblisp.CompiledNode}.
+ *
+ * The compiler handles constants, local variables (including variables held
+ * in cells), SETQ of local variables, IF, PROGN, lexical LET and LET* and
+ * function calls. Any other node is left
+ * to the interpreter: the generated code calls its <tt>eval</tt> method with
+ * the current frame. Local variables stay in the frame, so compiled and
+ * interpreted code can be mixed freely.
+ */
+public class Compiler {
+
+    private static final String PACKAGE     = "edu/utexas/cs345/jdblisp/";
+    private static final String COMPILED    = PACKAGE + "Compiled";
+    private static final String COMPILED_NODE = PACKAGE + "CompiledNode";
+    private static final String NODE        = PACKAGE + "Node";
+    private static final String FRAME       = PACKAGE + "Frame";
+    private static final String SEXP        = PACKAGE + "SExp";
+    private static final String CALL_NODE   = PACKAGE + "CallNode";
+    private static final String FORM_ENTRY  = PACKAGE + "FormEntry";
+    private static final String CELL        = PACKAGE + "Cell";
+    private static final String TAIL_CALL   = PACKAGE + "TailCall";
+
+    private static final String D_SEXP      = "L" + SEXP + ";";
+    private static final String D_SEXPS     = "[" + D_SEXP;
+    private static final String D_FRAME     = "L" + FRAME + ";";
+    private static final String D_OBJECTS   = "[Ljava/lang/Object;";
+    private static final String D_FORM_ENTRY = "L" + FORM_ENTRY + ";";
+
+    // calls with up to this many arguments use the fixed-arity entry points
+    private static final int MAX_FIXED_ARITY = 4;
+
+    // local variables of the generated eval method
+    private static final int THIS           = 0;
+    private static final int FRAME_ARG      = 1;
+    private static final int TEST           = 2;
+
+    private final ClassFileWriter cw = new ClassFileWriter();
+    private final ClassFileWriter.Code code = cw.new Code(3);
+    private final ArrayList<Object> constants = new ArrayList<Object>();
+
+    private Compiler() {}
+
+    /**
+     * Compile a node.
+     * @param node The node to compile.
+     * @return A compiled node equivalent to <tt>node</tt>, or <tt>node</tt>
+     * itself if it cannot be compiled.
+     */
+    public static Node compile(Node node) {
+
+        // already compiled, or nothing the compiler would improve on
+        if (node instanceof CompiledNode || !isCompilable(node)) return node;
+
+        try { return new Compiler().define(node); }
+
+        // the body is too large for a JVM method, or the JVM refused the
+        // class; either way the interpreter can still run it
+        catch (IllegalStateException ise) { return node; }
+        catch (LinkageError le) { return node; }
+        catch (ReflectiveOperationException roe) { return node; }
+    }
+
+    private static boolean isCompilable(Node node) {
+        if (node instanceof LetNode) {
+            for (int slot : ((LetNode) node).slots) if (slot < 0) return false;
+            return true;
+        }
+
+        return node instanceof ConstantNode
+            || node instanceof LocalVariableNode
+            || node instanceof LocalSetqNode
+            || node instanceof CellVariableNode
+            || node instanceof CellSetqNode
+            || node instanceof IfNode
+            || node instanceof PrognNode
+            || node instanceof CallNode
+            || node instanceof LocalCallNode;
+    }
+
+    private Node define(Node node) throws ReflectiveOperationException {
+
+        // constructor: pass the constants and source node to the superclass
+        ClassFileWriter.Code init = cw.new Code(3);
+        init.op1(ClassFileWriter.ALOAD, 0, 1);
+        init.op1(ClassFileWriter.ALOAD, 1, 1);
+        init.op1(ClassFileWriter.ALOAD, 2, 1);
+        init.op2(ClassFileWriter.INVOKESPECIAL, cw.methodRef(COMPILED_NODE,
+            "<init>", "(" + D_OBJECTS + "L" + NODE + ";)V"), -3);
+        init.op(ClassFileWriter.RETURN, 0);
+        cw.method(ClassFileWriter.ACC_PUBLIC, "<init>",
+            "(" + D_OBJECTS + "L" + NODE + ";)V", init);
+
+        // eval: the compiled body
+        emit(node);
+        code.op(ClassFileWriter.ARETURN, -1);
+        cw.method(ClassFileWriter.ACC_PUBLIC, "eval",
+            "(" + D_FRAME + ")" + D_SEXP, code);
+
+        byte[] bytes = cw.toByteArray(ClassFileWriter.ACC_FINAL
+            | ClassFileWriter.ACC_SUPER, COMPILED, COMPILED_NODE);
+
+        Class<?> compiled = MethodHandles.lookup()
+            .defineHiddenClass(bytes, true).lookupClass();
+
+        return (Node) compiled
+            .getDeclaredConstructor(Object[].class, Node.class)
+            .newInstance(constants.toArray(), node);
+    }
+
+    // -------------
+    // CODE EMISSION
+    // -------------
+
+    // Each emit method leaves exactly one value, the value of the node, on
+    // the operand stack.
+
+    private void emit(Node node) {
+        if (node instanceof ConstantNode) emitConstant((ConstantNode) node);
+        else if (node instanceof LocalVariableNode)
+            emitLocalVariable((LocalVariableNode) node);
+        else if (node instanceof LocalSetqNode)
+            emitLocalSetq((LocalSetqNode) node);
+        else if (node instanceof CellVariableNode)
+            emitCellVariable((CellVariableNode) node);
+        else if (node instanceof CellSetqNode)
+            emitCellSetq((CellSetqNode) node);
+        else if (node instanceof MakeCellNode)
+            emitMakeCell((MakeCellNode) node);
+        else if (node instanceof IfNode) emitIf((IfNode) node);
+        else if (node instanceof PrognNode) emitProgn((PrognNode) node);
+        else if (node instanceof LetNode && isCompilable(node))
+            emitLet((LetNode) node);
+        else if (node instanceof CallNode) emitCall((CallNode) node);
+        else if (node instanceof LocalCallNode)
+            emitLocalCall((LocalCallNode) node);
+        else emitInterpreted(node);
+    }
+
+    private void emitConstant(ConstantNode node) {
+        if (node.value == SExp.NIL) emitStatic("NIL");
+        else if (node.value == SExp.T) emitStatic("T");
+        else emitObject(node.value, SEXP);
+    }
+
+    private void emitLocalVariable(LocalVariableNode node) {
+        emitSlots(node.depth);
+        code.pushInt(node.slot);
+        code.op(ClassFileWriter.AALOAD, -1);
+    }
+
+    private void emitLocalSetq(LocalSetqNode node) {
+        emitSlots(node.depth);
+        code.pushInt(node.slot);
+        emit(node.value);
+
+        // keep the value as the result of the SETQ
+        code.op(ClassFileWriter.DUP_X2, 1);
+        code.op(ClassFileWriter.AASTORE, -3);
+    }
+
+    private void emitCellVariable(CellVariableNode node) {
+        emitCell(node.depth, node.slot);
+        code.op2(ClassFileWriter.GETFIELD,
+            cw.fieldRef(CELL, "value", D_SEXP), 0);
+    }
+
+    private void emitCellSetq(CellSetqNode node) {
+        emitCell(node.depth, node.slot);
+        emit(node.value);
+
+        // keep the value as the result of the SETQ
+        code.op(ClassFileWriter.DUP_X1, 1);
+        code.op2(ClassFileWriter.PUTFIELD,
+            cw.fieldRef(CELL, "value", D_SEXP), -2);
+    }
+
+    private void emitMakeCell(MakeCellNode node) {
+        code.op2(ClassFileWriter.NEW, cw.classRef(CELL), 1);
+        code.op(ClassFileWriter.DUP, 1);
+        emit(node.value);
+        code.op2(ClassFileWriter.INVOKESPECIAL, cw.methodRef(CELL,
+            "<init>", "(" + D_SEXP + ")V"), -2);
+    }
+
+    /** Push the cell held in a slot of the frame <tt>depth</tt> levels up. */
+    private void emitCell(int depth, int slot) {
+        emitSlots(depth);
+        code.pushInt(slot);
+        code.op(ClassFileWriter.AALOAD, -1);
+        code.op2(ClassFileWriter.CHECKCAST, cw.classRef(CELL), 0);
+    }
+
+    private void emitIf(IfNode node) {
+
+        // the test is false if it is null or NIL
+        emit(node.test);
+        code.op1(ClassFileWriter.ASTORE, TEST, -1);
+        code.op1(ClassFileWriter.ALOAD, TEST, 1);
+        int ifNull = code.jump(ClassFileWriter.IFNULL, -1);
+        code.op1(ClassFileWriter.ALOAD, TEST, 1);
+        emitStatic("NIL");
+        int ifNil = code.jump(ClassFileWriter.IF_ACMPEQ, -2);
+
+        int depth = code.stack();
+        emit(node.then);
+        int end = code.jump(ClassFileWriter.GOTO, 0);
+
+        code.stack(depth);
+        code.land(ifNull);
+        code.land(ifNil);
+        emit(node.otherwise);
+        code.land(end);
+    }
+
+    private void emitProgn(PrognNode node) {
+        if (node.forms.length == 0) {
+            emitStatic("NIL");
+            return;
+        }
+
+        for (int i = 0; i < node.forms.length; ++i) {
+            emit(node.forms[i]);
+            if (i < node.forms.length - 1) code.op(ClassFileWriter.POP, -1);
+        }
+    }
+
+    private void emitLet(LetNode node) {
+        for (int i = 0; i < node.slots.length; ++i) {
+            emitSlots(0);
+            code.pushInt(node.slots[i]);
+            emit(node.initForms[i]);
+            code.op(ClassFileWriter.AASTORE, -3);
+        }
+
+        emit(node.body);
+    }
+
+    private void emitCall(CallNode node) {
+        emitObject(node, CALL_NODE);
+        code.op2(ClassFileWriter.INVOKEVIRTUAL, cw.methodRef(CALL_NODE,
+            "function", "()" + D_FORM_ENTRY), 0);
+        emitInvoke(node.arguments, node.tail);
+    }
+
+    private void emitLocalCall(LocalCallNode node) {
+        emitSlots(node.depth);
+        code.pushInt(node.slot);
+        code.op(ClassFileWriter.AALOAD, -1);
+        code.op2(ClassFileWriter.CHECKCAST, cw.classRef(FORM_ENTRY), 0);
+        emitInvoke(node.arguments, node.tail);
+    }
+
+    /**
+     * Evaluate the arguments and call the function on top of the stack
+     * with them, as {@link Node#call} does.
+     */
+    private void emitInvoke(Node[] arguments, boolean tail) {
+        String name, descriptor;
+        int count = arguments.length;
+
+        if (count <= MAX_FIXED_ARITY) {
+            for (Node argument : arguments) emit(argument);
+            name = "call" + count;
+            descriptor = "";
+            for (int i = 0; i < count; ++i) descriptor += D_SEXP;
+        } else {
+            emitArguments(arguments);
+            name = "call";
+            descriptor = D_SEXPS;
+            count = 1;
+        }
+
+        // the function and the arguments are replaced by the result
+        if (tail) code.op2(ClassFileWriter.INVOKESTATIC, cw.methodRef(
+            TAIL_CALL, name, "(" + D_FORM_ENTRY + descriptor + ")" + D_SEXP),
+            -count);
+        else code.op2(ClassFileWriter.INVOKEVIRTUAL, cw.methodRef(
+            FORM_ENTRY, name, "(" + descriptor + ")" + D_SEXP), -count);
+    }
+
+    private void emitInterpreted(Node node) {
+        emitObject(node, NODE);
+        code.op1(ClassFileWriter.ALOAD, FRAME_ARG, 1);
+        code.op2(ClassFileWriter.INVOKEVIRTUAL, cw.methodRef(NODE,
+            "eval", "(" + D_FRAME + ")" + D_SEXP), -1);
+    }
+
+    /** Evaluate the arguments of a call into a new SExp array. */
+    private void emitArguments(Node[] arguments) {
+        code.pushInt(arguments.length);
+        code.op2(ClassFileWriter.ANEWARRAY, cw.classRef(SEXP), 0);
+        for (int i = 0; i < arguments.length; ++i) {
+            code.op(ClassFileWriter.DUP, 1);
+            code.pushInt(i);
+            emit(arguments[i]);
+            code.op(ClassFileWriter.AASTORE, -3);
+        }
+    }
+
+    /** Push the slots of the frame <tt>depth</tt> levels up. */
+    private void emitSlots(int depth) {
+        code.op1(ClassFileWriter.ALOAD, FRAME_ARG, 1);
+        for (int i = 0; i < depth; ++i)
+            code.op2(ClassFileWriter.GETFIELD,
+                cw.fieldRef(FRAME, "parent", D_FRAME), 0);
+        code.op2(ClassFileWriter.GETFIELD,
+            cw.fieldRef(FRAME, "slots", D_SEXPS), 0);
+    }
+
+    /** Push an object from the constants array, cast to the given class. */
+    private void emitObject(Object value, String internalName) {
+        code.op1(ClassFileWriter.ALOAD, THIS, 1);
+        code.op2(ClassFileWriter.GETFIELD,
+            cw.fieldRef(COMPILED_NODE, "constants", D_OBJECTS), 0);
+        code.pushInt(constants.size());
+        code.op(ClassFileWriter.AALOAD, -1);
+        code.op2(ClassFileWriter.CHECKCAST, cw.classRef(internalName), 0);
+        constants.add(value);
+    }
+
+    private void emitStatic(String name) {
+        code.op2(ClassFileWriter.GETSTATIC, cw.fieldRef(SEXP, name, D_SEXP), 1);
+    }
+}
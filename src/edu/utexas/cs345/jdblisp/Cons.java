@@ -1,46 +1,206 @@
 package edu.utexas.cs345.jdblisp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
 /**
  * Cons
+ * A cons cell, the one building block of lists. A proper list is a chain of
+ * cells linked through their cdrs and ended by {@link SExp#NIL}, which is
+ * the empty list; a chain ended by anything else is a dotted list.
+ *
+ * Code that walks the elements of a list uses <b>null</b> for the end of
+ * the list, as returned by {@link #list(SExp)} and {@link #next}, so that
+ * loops read <tt>for (Cons c = ...; c != null; c = c.next())</tt>.
+ *
+ * Cells are mutable through {@link #setCar} and {@link #setCdr}, which the
+ * destructive list functions use. Cells shared by the {@link ConsPool} must
+ * not be modified; since they never change, they cache their hash code.
  * @author Jonathan Bernard (jdbernard@gmail.com)
  */
-public class Cons extends Seq {
+public class Cons implements SExp {
+
+    // the number of cells hashed, so that circular lists can be hashed
+    private static final int HASH_LIMIT = 64;
+
+    public SExp car;
+    public SExp cdr;
 
-    public final SExp cdr;
+    // set by the ConsPool when it shares the cell, which is then immutable
+    boolean shared = false;
+
+    // the hash code of a shared cell, computed on first use; 0 if not yet
+    // computed
+    private int hash = 0;
 
     public Cons(SExp car, SExp cdr) {
-        super(car, (cdr == null ||
-                    cdr == SExp.NIL ||
-                    !(cdr instanceof Seq) ?
-                        SExp.NIL : (Seq) cdr));
+        assert (car != null && cdr != null);
+        this.car = car;
+        this.cdr = cdr;
+    }
+
+    public void setCar(SExp car) {
+        assert (car != null);
+        this.car = car;
+    }
+
+    public void setCdr(SExp cdr) {
+        assert (cdr != null);
         this.cdr = cdr;
     }
 
-    public Cons(SExp car, List list) {
-        super(car, list.seq);
-        this.cdr = list.seq;
+    /** The last cell of a list. */
+    public Cons last() {
+        Cons c = this;
+        for (Cons n = c.next(); n != null; n = n.next()) c = n;
+        return c;
+    }
+
+    /** A proper list of the given elements, NIL if there are none. */
+    public static SExp list(SExp... elements) {
+        SExp list = SExp.NIL;
+        for (int i = elements.length; i-- > 0;)
+            list = new Cons(elements[i], list);
+        return list;
+    }
+
+    /**
+     * The first cell of a list, or <b>null</b> if the list is empty.
+     * @throws edu.utexas.cs345.jdblisp.TypeException if the object is not a
+     * list.
+     */
+    public static Cons list(SExp list) throws TypeException {
+        if (list == SExp.NIL) return null;
+        if (list instanceof Cons) return (Cons) list;
+        throw new TypeException(list, "List");
+    }
+
+    /** The next cell of the list, or <b>null</b> at its end. */
+    public Cons next() {
+        return cdr instanceof Cons ? (Cons) cdr : null;
+    }
+
+    /** The elements of a list, for the walks that need them by index. */
+    public static ArrayList<SExp> elements(Cons list) {
+        ArrayList<SExp> elements = new ArrayList<SExp>();
+        for (; list != null; list = list.next()) elements.add(list.car);
+        return elements;
+    }
+
+    /**
+     * A copy of the cells of a list and of the lists among its elements,
+     * down to the atoms, which are not copied. Each cell is copied once, in
+     * a loop, so shared and circular structure keeps its shape and deep
+     * lists do not overflow the stack. Cells shared by the
+     * {@link ConsPool} never change and are not copied.
+     */
+    public static SExp copyTree(SExp tree) {
+        IdentityHashMap<Cons, Cons> copies = new IdentityHashMap<Cons, Cons>();
+        ArrayDeque<Cons> pending = new ArrayDeque<Cons>();
+        SExp copy = copyCell(tree, copies, pending);
+
+        // the car and cdr of a pending copy are still the original's
+        while (!pending.isEmpty()) {
+            Cons c = pending.pop();
+            c.car = copyCell(c.car, copies, pending);
+            c.cdr = copyCell(c.cdr, copies, pending);
+        }
+        return copy;
+    }
+
+    private static SExp copyCell(SExp s, IdentityHashMap<Cons, Cons> copies,
+    ArrayDeque<Cons> pending) {
+        if (!(s instanceof Cons) || ((Cons) s).shared) return s;
+        Cons copy = copies.get(s);
+        if (copy == null) {
+            copy = new Cons(((Cons) s).car, ((Cons) s).cdr);
+            copies.put((Cons) s, copy);
+            pending.push(copy);
+        }
+        return copy;
+    }
+
+    public int length() { return length(this); }
+
+    /** The number of elements of a list, 0 for <b>null</b>. */
+    public static int length(Cons list) {
+        int n = 0;
+        for (; list != null; list = list.next()) ++n;
+        return n;
+    }
+
+    /**
+     * The number of elements of a list, counting no more than limit + 1 of
+     * them. This checks the length of an argument list in constant time
+     * however long the list is.
+     */
+    public static int length(Cons list, int limit) {
+        int n = 0;
+        for (; list != null && n <= limit; list = list.next()) ++n;
+        return n;
     }
 
+    /**
+     * Lists are equal if their elements are equal and their final cdrs are
+     * equal, as by EQUAL; see {@link Equality#same} for how deep and
+     * circular lists are compared.
+     */
     @Override
-    public String display(String offset) {
-        if (this.cdr == super.cdr)
-            return super.display(offset);
+    public boolean equals(Object o) {
+        return o instanceof Cons && Equality.same(this, (Cons) o, false);
+    }
 
+    /**
+     * The hash code is combined from the elements of at most HASH_LIMIT
+     * cells, counting the cells of lists in the elements, so hashing a long
+     * or deeply nested list costs a bounded amount and hashing a circular
+     * list ends. Lists are mutable, so the hash code is only cached for
+     * shared cells, which are not.
+     */
+    @Override
+    public int hashCode() {
+        if (hash != 0) return hash;
+
+        int h = hash(this, new int[] { HASH_LIMIT });
+        if (h == 0) h = 1;
+        if (shared) hash = h;
+        return h;
+    }
+
+    // the cells are visited depth first, each taking one from the budget;
+    // the depth of the recursion is bounded by the budget
+    private static int hash(Cons list, int[] budget) {
+        int h = 1;
+        SExp s = list;
+        for (; s instanceof Cons && budget[0] > 0; s = ((Cons) s).cdr) {
+            --budget[0];
+            SExp car = ((Cons) s).car;
+            h = 31 * h + (car instanceof Cons ? hash((Cons) car, budget)
+                : car.hashCode());
+        }
+        if (!(s instanceof Cons)) h = 31 * h + s.hashCode();
+        return h;
+    }
+
+    @Override
+    public String display(String offset) {
         StringBuilder sb = new StringBuilder();
         sb.append(offset);
-        sb.append("Cons: \n");
-        
-        sb.append(car.display(offset + "  "));
+        sb.append("List: \n");
 
-        if (cdr != SExp.NIL) sb.append(cdr.display(offset));
+        // one entry per cell, walking the cdrs in a loop
+        SExp s = this;
+        for (; s instanceof Cons; s = ((Cons) s).cdr) {
+            sb.append(offset + "  ");
+            sb.append("Cons: \n");
+            sb.append(((Cons) s).car.display(offset + "    "));
+        }
+        if (s != SExp.NIL) sb.append(s.display(offset + "  "));
 
         return sb.toString();
     }
 
     @Override
-    public String toString() {
-        if (this.cdr == super.cdr) return super.toString();
-        else if (this.cdr == SExp.NIL) return car.toString();
-        else return car.toString() + " . " + cdr.toString();
-    }
+    public String toString() { return Printer.UNLIMITED.toString(this); }
 }
@@ -0,0 +1,226 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * ConsPool
+ * Hash-conses lists: while the pool is enabled, a cons of a car and a cdr
+ * that are both immutable is looked up in a table of the cells made before,
+ * and an EQUAL cell is returned instead of a new one. Lists built bottom-up
+ * through the pool therefore share every EQUAL tail and sublist, and EQUAL
+ * lists from the pool are EQ.
+ *
+ * Only atoms and cells from the pool count as immutable; a cell whose car or
+ * cdr is any other cons, a vector or a hash table is never shared. Since the
+ * parts of a shared cell are themselves shared, a cell is found by the
+ * identity of its cdr and of a list in its car, in constant time. Cells are
+ * held weakly, so data that is no longer referenced leaves the pool.
+ *
+ * Hash-consing is off by default. Cells from the pool must never be
+ * destructively modified; the destructive list functions check
+ * {@link #contains} and refuse to.
+ */
+public class ConsPool {
+
+    /** The pool used by the reader and QUOTE. */
+    public static final ConsPool SHARED = new ConsPool();
+
+    private static final int MIN_CAPACITY = 64;
+
+    /** A weak reference to a cell in the table, chained by hash. */
+    private static class Entry extends WeakReference<Cons> {
+        final int hash;
+        Entry next;
+
+        Entry(Cons cell, int hash, Entry next, ReferenceQueue<Cons> queue) {
+            super(cell, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private final ReferenceQueue<Cons> collected = new ReferenceQueue<Cons>();
+    private Entry[] table = new Entry[MIN_CAPACITY];
+    private int count = 0;
+
+    private volatile boolean enabled = false;
+
+    // there is one pool, so that shared EQUAL cells are always identical
+    private ConsPool() {}
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Start or stop sharing new cells. Cells shared before stay in the pool
+     * while they are referenced, so they are still protected from
+     * modification.
+     */
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** A cons of car and cdr, shared with an EQUAL one when possible. */
+    public Cons cons(SExp car, SExp cdr) {
+        if (!enabled) return new Cons(car, cdr);
+
+        synchronized (this) {
+            if (!immutable(car) || !immutable(cdr)) return new Cons(car, cdr);
+
+            int hash = hash(car, cdr);
+            Cons cell = find(car, cdr, hash);
+            if (cell == null) {
+                cell = new Cons(car, cdr);
+                add(cell, hash);
+            }
+            return cell;
+        }
+    }
+
+    /** A proper list of the given elements, NIL if there are none. */
+    public SExp list(SExp... elements) {
+        SExp list = SExp.NIL;
+        for (int i = elements.length; i-- > 0;)
+            list = cons(elements[i], list);
+        return list;
+    }
+
+    /**
+     * The shared copy of an object: lists are rebuilt through the pool, and
+     * every other object is returned as it is. The lists among the elements
+     * are rebuilt first, using a stack rather than recursion, so deeply
+     * nested lists do not overflow the Java stack.
+     */
+    public SExp intern(SExp object) {
+        if (!enabled || !(object instanceof Cons)) return object;
+        if (contains((Cons) object)) return object;
+
+        ArrayDeque<Rebuild> stack = new ArrayDeque<Rebuild>();
+        stack.push(new Rebuild((Cons) object));
+
+        while (true) {
+            Rebuild r = stack.peek();
+
+            // rebuild a list element before the list that holds it
+            if (r.next < r.elements.size()) {
+                SExp element = r.elements.get(r.next);
+                if (element instanceof Cons && !contains((Cons) element))
+                    stack.push(new Rebuild((Cons) element));
+                else ++r.next;
+                continue;
+            }
+
+            // every element is shared, so rebuild the list from the end
+            SExp list = r.tail;
+            for (int i = r.elements.size(); i-- > 0;)
+                list = cons(r.elements.get(i), list);
+
+            stack.pop();
+            if (stack.isEmpty()) return list;
+            Rebuild parent = stack.peek();
+            parent.elements.set(parent.next++, list);
+        }
+    }
+
+    /** A list being interned: its elements, and the cdr of its last cell. */
+    private static final class Rebuild {
+        final ArrayList<SExp> elements = new ArrayList<SExp>();
+        final SExp tail;
+        int next = 0;       // the first element not yet shared
+
+        Rebuild(Cons list) {
+            SExp s = list;
+            for (; s instanceof Cons; s = ((Cons) s).cdr)
+                elements.add(((Cons) s).car);
+            tail = s;
+        }
+    }
+
+    /** If a cell came from the pool. */
+    public boolean contains(Cons cell) { return cell.shared; }
+
+    public synchronized int size() {
+        expunge();
+        return count;
+    }
+
+    // -----
+    // TABLE
+    // -----
+
+    private Cons find(SExp car, SExp cdr, int hash) {
+        expunge();
+        for (Entry e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+            if (e.hash != hash) continue;
+            Cons cell = e.get();
+            if (cell != null && cell.cdr == cdr && sameCar(cell.car, car))
+                return cell;
+        }
+        return null;
+    }
+
+    private void add(Cons cell, int hash) {
+        cell.shared = true;
+        if (count * 2 > table.length) resize(table.length * 2);
+        int i = hash & (table.length - 1);
+        table[i] = new Entry(cell, hash, table[i], collected);
+        ++count;
+    }
+
+    /** Drop the entries of cells that have been collected. */
+    private void expunge() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            Entry dead = (Entry) ref;
+            int i = dead.hash & (table.length - 1);
+            Entry prev = null;
+            for (Entry e = table[i]; e != null; prev = e, e = e.next) {
+                if (e != dead) continue;
+                if (prev == null) table[i] = e.next;
+                else prev.next = e.next;
+                --count;
+                break;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        Entry[] old = table;
+        table = new Entry[capacity];
+        for (Entry head : old) {
+            for (Entry e = head; e != null;) {
+                Entry next = e.next;
+                int i = e.hash & (capacity - 1);
+                e.next = table[i];
+                table[i] = e;
+                e = next;
+            }
+        }
+    }
+
+    // -----------------
+    // HASHING AND TESTS
+    // -----------------
+
+    // lists in the car and cdr of a shared cell are themselves shared, so
+    // they are hashed and compared by identity; atoms in the car are
+    // compared as by EQUAL
+    private static int hash(SExp car, SExp cdr) {
+        int h = car instanceof Cons ? System.identityHashCode(car)
+            : car.hashCode();
+        h = 31 * h + System.identityHashCode(cdr);
+        h *= 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean sameCar(SExp a, SExp b) {
+        if (a == b) return true;
+        if (a instanceof Cons || b instanceof Cons) return false;
+        return a.equals(b);
+    }
+
+    private boolean immutable(SExp x) {
+        if (x instanceof Cons) return contains((Cons) x);
+        return !(x instanceof Vector || x instanceof HashTable);
+    }
+}
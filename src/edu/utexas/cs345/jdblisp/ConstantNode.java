@@ -0,0 +1,14 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * ConstantNode
+ * A self-evaluating object or a quoted form.
+ */
+public class ConstantNode extends Node {
+
+    public final SExp value;
+
+    public ConstantNode(SExp value) { this.value = value; }
+
+    public SExp eval(Frame frame) { return value; }
+}
@@ -0,0 +1,18 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * DelayNode
+ * Makes a promise of the value of a form, as DELAY. The form is analyzed as
+ * the body of a function of no arguments, so the promise closes over the
+ * variables it uses like a lambda.
+ */
+public class DelayNode extends Node {
+
+    public final LambdaNode thunk;
+
+    public DelayNode(LambdaNode thunk) { this.thunk = thunk; }
+
+    public SExp eval(Frame frame) throws LispException {
+        return new Promise((FormEntry) thunk.eval(frame));
+    }
+}
@@ -0,0 +1,48 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.Arrays;
+
+/**
+ * DoubleVector
+ * A vector of double-floats, kept in a <tt>double[]</tt>. Any real number
+ * may be stored; it is converted to a double-float.
+ */
+public class DoubleVector extends Vector {
+
+    static final Symbol ELEMENT_TYPE = Symbol.intern("DOUBLE-FLOAT");
+
+    private double[] elements;
+
+    public DoubleVector(int size, int fillPointer) {
+        super(fillPointer);
+        elements = new double[size];
+    }
+
+    public SExp elementType() { return ELEMENT_TYPE; }
+
+    public int capacity() { return elements.length; }
+
+    protected SExp element(int index) { return new Num(elements[index]); }
+
+    protected void setElement(int index, SExp value) throws LispException {
+        elements[index] = TypeUtil.attemptCast(Num.class, value).doubleValue();
+    }
+
+    protected void resize(int capacity) {
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    protected void fillElements(SExp value, int start, int end)
+    throws LispException {
+        Arrays.fill(elements, start, end,
+            TypeUtil.attemptCast(Num.class, value).doubleValue());
+    }
+
+    protected void copyElements(int start, Vector source, int sourceStart,
+    int count) throws LispException {
+        if (source instanceof DoubleVector)
+            System.arraycopy(((DoubleVector) source).elements, sourceStart,
+                elements, start, count);
+        else super.copyElements(start, source, sourceStart, count);
+    }
+}
@@ -0,0 +1,177 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+
+/**
+ * Equality
+ * The equality predicates of Common Lisp, from the strictest to the most
+ * lenient:
+ * <ul>
+ * <li>EQ: the same object.</li>
+ * <li>EQL: EQ, or numbers of the same representation and value.</li>
+ * <li>EQUAL: EQL, or strings with the same characters, or lists whose
+ * elements are EQUAL. This is <tt>equals</tt> on the SExp classes, and
+ * {@link #sxhash} is consistent with it.</li>
+ * <li>EQUALP: EQUAL, ignoring the case of strings, comparing numbers by
+ * value across representations and comparing the elements of lists and of
+ * vectors by EQUALP.</li>
+ * </ul>
+ * Lists are compared without recursion, so deeply nested lists do not
+ * overflow the stack, and the comparison of circular lists ends.
+ */
+public final class Equality {
+
+    // the number of pairs taken from the stack before they are remembered
+    // to detect cycles through the cars
+    private static final int VISIT_LIMIT = 1024;
+
+    private Equality() {}
+
+    public static boolean eq(SExp a, SExp b) {
+        return a == b;
+    }
+
+    public static boolean eql(SExp a, SExp b) {
+        return eq(a, b) || (a instanceof Num && a.equals(b));
+    }
+
+    public static boolean equal(SExp a, SExp b) {
+        return eq(a, b) || (a != null && a.equals(b));
+    }
+
+    public static boolean equalp(SExp a, SExp b) {
+        return same(a, b, true);
+    }
+
+    /**
+     * Compare two objects as EQUAL or, if lenient, as EQUALP. Lists are
+     * walked along their cdrs in a loop, and pairs of elements that are
+     * themselves lists (or, for EQUALP, vectors) are kept on a stack rather
+     * than compared by recursion. The elements are compared after the walk
+     * along the cdrs, so lists of different lengths are told apart before
+     * any of their elements that are lists.
+     *
+     * Circular structures are compared as the infinite trees they unfold
+     * to. A cycle through the cdrs is found by Brent's method, in constant
+     * space: a pair of cells that comes up again on the same walk has
+     * already been compared. A cycle through the cars can only repeat a
+     * pair taken from the stack, so once VISIT_LIMIT such pairs have been
+     * compared, they are remembered, and a pair that comes up again is
+     * taken as equal.
+     */
+    static boolean same(SExp a, SExp b, boolean lenient) {
+        ArrayDeque<SExp> pending = null;    // pairs of elements, b on top
+        HashSet<Pair> visited = null;
+        int visits = 0;
+
+        while (true) {
+
+            // a pair of structures from the stack may have been seen before
+            if (visits++ >= VISIT_LIMIT && a != b && isStructure(a, lenient)
+                && isStructure(b, lenient)) {
+                if (visited == null) visited = new HashSet<Pair>();
+                if (!visited.add(new Pair(a, b))) a = b;
+            }
+
+            // the pair Brent's method compares the cells of the walk with
+            SExp markA = null, markB = null;
+            int steps = 0, power = 1;
+
+            while (a != b) {
+                if (a instanceof Cons && b instanceof Cons) {
+                    Cons x = (Cons) a, y = (Cons) b;
+
+                    // EQUAL shared lists are the same cells
+                    if (!lenient && x.shared && y.shared) return false;
+
+                    // a pair that comes up again ends a cycle of cdrs
+                    if (x == markA && y == markB) break;
+                    if (++steps == power) {
+                        markA = x;
+                        markB = y;
+                        power *= 2;
+                        steps = 0;
+                    }
+
+                    if (x.car != y.car) {
+                        if (isStructure(x.car, lenient)
+                            || isStructure(y.car, lenient)) {
+                            if (pending == null)
+                                pending = new ArrayDeque<SExp>();
+                            pending.push(x.car);
+                            pending.push(y.car);
+                        }
+                        else if (!sameAtom(x.car, y.car, lenient))
+                            return false;
+                    }
+
+                    a = x.cdr;
+                    b = y.cdr;
+                }
+                else if (lenient && a instanceof Vector
+                    && b instanceof Vector) {
+                    Vector x = (Vector) a, y = (Vector) b;
+                    if (x.length() != y.length()) return false;
+
+                    if (pending == null) pending = new ArrayDeque<SExp>();
+                    for (int i = 0; i < x.length(); ++i) {
+                        pending.push(x.element(i));
+                        pending.push(y.element(i));
+                    }
+                    break;
+                }
+                else if (sameAtom(a, b, lenient)) break;
+                else return false;
+            }
+
+            if (pending == null || pending.isEmpty()) return true;
+            b = pending.pop();
+            a = pending.pop();
+        }
+    }
+
+    private static boolean isStructure(SExp x, boolean lenient) {
+        return x instanceof Cons || (lenient && x instanceof Vector);
+    }
+
+    // objects that are not both structures
+    private static boolean sameAtom(SExp a, SExp b, boolean lenient) {
+        if (a instanceof Cons || b instanceof Cons) return false;
+        if (a.equals(b)) return true;
+        if (!lenient) return false;
+
+        if (a instanceof Num && b instanceof Num)
+            return ((Num) a).numEquals((Num) b);
+
+        if (a instanceof Str && b instanceof Str)
+            return ((Str) a).value.equalsIgnoreCase(((Str) b).value);
+
+        return false;
+    }
+
+    /** Two structures being compared, identified by identity. */
+    private static final class Pair {
+        final SExp a, b;
+
+        Pair(SExp a, SExp b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Pair && ((Pair) o).a == a && ((Pair) o).b == b;
+        }
+
+        public int hashCode() {
+            return 31 * System.identityHashCode(a) + System.identityHashCode(b);
+        }
+    }
+
+    /**
+     * A hash code consistent with EQUAL, as a non-negative fixnum.
+     */
+    public static long sxhash(SExp a) {
+        return a.hashCode() & 0x7fffffff;
+    }
+}
@@ -0,0 +1,54 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.Arrays;
+
+/**
+ * FixnumVector
+ * A vector of fixnums, kept in a <tt>long[]</tt>.
+ */
+public class FixnumVector extends Vector {
+
+    static final Symbol ELEMENT_TYPE = Symbol.intern("FIXNUM");
+
+    private long[] elements;
+
+    public FixnumVector(int size, int fillPointer) {
+        super(fillPointer);
+        elements = new long[size];
+    }
+
+    public SExp elementType() { return ELEMENT_TYPE; }
+
+    public int capacity() { return elements.length; }
+
+    protected SExp element(int index) { return Num.valueOf(elements[index]); }
+
+    protected void setElement(int index, SExp value) throws LispException {
+        elements[index] = fixnum(value);
+    }
+
+    protected void resize(int capacity) {
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    protected void fillElements(SExp value, int start, int end)
+    throws LispException {
+        Arrays.fill(elements, start, end, fixnum(value));
+    }
+
+    protected void copyElements(int start, Vector source, int sourceStart,
+    int count) throws LispException {
+        if (source instanceof FixnumVector)
+            System.arraycopy(((FixnumVector) source).elements, sourceStart,
+                elements, start, count);
+        else super.copyElements(start, source, sourceStart, count);
+    }
+
+    private static long fixnum(SExp value) throws LispException {
+        Num n = TypeUtil.attemptCast(Num.class, value);
+        if (!n.isFixnum())
+            throw new LispException("TYPE-ERROR: The value " + value
+                + " is not of type FIXNUM");
+        return n.longValue();
+    }
+}
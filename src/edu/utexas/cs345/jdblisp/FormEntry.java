@@ -14,10 +14,40 @@ public abstract class FormEntry implements SExp, SymbolTableEntry {
         this.helpinfo = helpinfo;
     }
 
-    public abstract SExp call(SymbolTable table, Seq arguments) throws LispException;
+    /**
+     * Call this form with arguments that have already been evaluated.
+     * @param arguments The evaluated arguments.
+     * @return The result of the call.
+     */
+    public abstract SExp call(SExp[] arguments) throws LispException;
+
+    // Fixed-arity entry points, used by call sites with up to four
+    // arguments. By default the arguments are packed into an array for
+    // call(SExp[]); FunctionEntry binds them directly instead.
+
+    public SExp call0() throws LispException {
+        return call(new SExp[0]);
+    }
+
+    public SExp call1(SExp a) throws LispException {
+        return call(new SExp[] { a });
+    }
+
+    public SExp call2(SExp a, SExp b) throws LispException {
+        return call(new SExp[] { a, b });
+    }
+
+    public SExp call3(SExp a, SExp b, SExp c) throws LispException {
+        return call(new SExp[] { a, b, c });
+    }
+
+    public SExp call4(SExp a, SExp b, SExp c, SExp d) throws LispException {
+        return call(new SExp[] { a, b, c, d });
+    }
+
     public abstract String display(String offset);
 
-    public SExp eval(SymbolTable symbolTable) { return this; }
+    public HelpTopic helpinfo() { return helpinfo; }
 
     public Symbol symbol() { return symbol; }
 }
@@ -0,0 +1,30 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * Frame
+ * The run-time storage for the local bindings of one function invocation (or
+ * one top-level form). Variables and local functions are resolved by the
+ * {@link edu.utexas.cs345.jdblisp.Analyzer} to a (depth, slot) address: the
+ * number of parent links to follow and the index into that frame's slots.
+ * The parent of the frame of a closure call is the closure record holding
+ * the captured values (see {@link FunctionTemplate}).
+ */
+public class Frame {
+
+    public final SExp[] slots;
+    public final Frame parent;
+
+    public Frame(int size, Frame parent) {
+        this.slots = new SExp[size];
+        this.parent = parent;
+    }
+
+    /**
+     * Follow <tt>depth</tt> parent links from this frame.
+     */
+    public Frame up(int depth) {
+        Frame frame = this;
+        while (depth-- > 0) frame = frame.parent;
+        return frame;
+    }
+}
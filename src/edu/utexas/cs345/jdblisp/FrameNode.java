@@ -0,0 +1,20 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * FrameNode
+ * Allocates the frame for the local bindings of a top-level form.
+ */
+public class FrameNode extends Node {
+
+    public final int frameSize;
+    public final Node body;
+
+    public FrameNode(int frameSize, Node body) {
+        this.frameSize = frameSize;
+        this.body = body;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        return body.eval(new Frame(frameSize, frame));
+    }
+}
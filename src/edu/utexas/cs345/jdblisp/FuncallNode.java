@@ -0,0 +1,78 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * FuncallNode
+ * A call to a function designator computed at run time. This is used for
+ * FUNCALL and for forms whose car is a lambda expression.
+ */
+public class FuncallNode extends Node {
+
+    private final SymbolTable globals;
+    public final Node function;
+    public final Node[] arguments;
+    public final boolean tail;
+
+    // inline cache for function names: the symbol and function found by the
+    // last lookup
+    private CachedFunction cache = null;
+
+    public FuncallNode(SymbolTable globals, Node function, Node[] arguments) {
+        this(globals, function, arguments, false);
+    }
+
+    public FuncallNode(SymbolTable globals, Node function, Node[] arguments,
+    boolean tail) {
+        this.globals = globals;
+        this.function = function;
+        this.arguments = arguments;
+        this.tail = tail;
+    }
+
+    public Node inTailPosition() {
+        return new FuncallNode(globals, function, arguments, true);
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        return call(resolve(function.eval(frame)), arguments, frame, tail);
+    }
+
+    /**
+     * Coerce a function designator to a function, through the inline cache
+     * when it is a symbol.
+     */
+    FormEntry resolve(SExp func) throws LispException {
+        if (!(func instanceof Symbol)) return resolve(globals, func);
+
+        CachedFunction cached = cache;
+        int version = SymbolTable.definitionsVersion();
+        if (cached != null && cached.name == func
+            && cached.version == version)
+            return cached.function;
+
+        FormEntry fe = resolve(globals, func);
+        cache = new CachedFunction((Symbol) func, fe, version);
+        return fe;
+    }
+
+    /**
+     * Coerce a function designator to a function. If it is a symbol the
+     * function is found in the global environment. The builtins that take
+     * function arguments resolve them here too, as FUNCALL does.
+     */
+    static FormEntry resolve(SymbolTable globals, SExp func)
+    throws LispException {
+
+        // cast if already a form entry
+        if (func instanceof FormEntry) return (FormEntry) func;
+
+        // lookup the function if it is a symbol
+        if (func instanceof Symbol) {
+            FormEntry fe = globals.lookupFunction((Symbol) func);
+            if (fe == null)
+                throw new UndefinedFunctionException((Symbol) func);
+            return fe;
+        }
+
+        throw new TypeException(func, "FUNCTION");
+    }
+}
@@ -6,36 +6,33 @@ package edu.utexas.cs345.jdblisp;
  */
 public class FunctionEntry extends FormEntry {
 
-    protected final Symbol[] parameters;
-    protected final SExp body;
+    protected final FunctionTemplate template;
+    protected final Frame closure;
 
     protected boolean traceEnabled;
 
     //private Logger traceLog = Logger.getLogger(getClass());
 
-    public FunctionEntry(Symbol symbol, Symbol[] parameters, SExp body) {
-        super(symbol, null);
-
-        // build invocation help string
-        String invokation = "(" + symbol.name;
-        for (Symbol param : parameters) invokation += " <" + param.name + ">";
-        invokation += ")";
-        String bodyInfo = "Function body: " + body.toString();
-
-        // build help topic
-        FormHelpTopic helpinfo = new FormHelpTopic(symbol.name, null, invokation, bodyInfo);
-
-        this.parameters = parameters;
-        this.body = body;
-        this.helpinfo = helpinfo;
+    /**
+     * Make a function from its definition.
+     * @param template The analyzed definition.
+     * @param closure The closure record for the captured variables, may be
+     * <b>null</b> if the definition captures nothing.
+     */
+    public FunctionEntry(FunctionTemplate template, Frame closure) {
+        super(template.name, null);
+        this.template = template;
+        this.closure = closure;
     }
 
-    public FunctionEntry(Symbol symbol, Symbol[] parameters, SExp body,
-    HelpTopic helpinfo) {
-        super(symbol, helpinfo);
-        this.parameters = parameters;
-        this.body = body;
-    }
+    /**
+     * Compile the body of this function to JVM bytecode. Parts of the body
+     * the {@link Compiler} does not handle are still interpreted. Other
+     * functions made from the same definition are compiled too.
+     */
+    public void compile() { template.compile(); }
+
+    public boolean isCompiled() { return template.isCompiled(); }
 
     public boolean isTraceEnabled() { return traceEnabled ;}
 
@@ -47,52 +44,120 @@ public class FunctionEntry extends FormEntry {
 
     public String toString() { return "<FUNCTION " + symbol.toString() + ">"; }
 
-    public SExp call(SymbolTable symbolTable, Seq arguments) throws LispException {
+    /**
+     * Call this function. Tail calls made by the body are run here, in a
+     * loop, so that tail recursion does not grow the Java stack.
+     * @param arguments The evaluated arguments.
+     */
+    public SExp call(SExp[] arguments) throws LispException {
+        return TailCall.complete(run(bind(arguments)));
+    }
 
-        String traceString = null;
-        SExp evaluatedArg, retVal;
+    public SExp call0() throws LispException {
+        return TailCall.complete(run(bind0()));
+    }
 
-        if (traceEnabled)
-            traceString = "(" + symbol.name;
+    public SExp call1(SExp a) throws LispException {
+        return TailCall.complete(run(bind1(a)));
+    }
 
-        // bind arguments to parameters
-        SymbolTable localScope = new SymbolTable(symbolTable);
-        int i = 0;
-        while (i < parameters.length) {
+    public SExp call2(SExp a, SExp b) throws LispException {
+        return TailCall.complete(run(bind2(a, b)));
+    }
 
-            // too few arguments
-            if (arguments == null)
-                throw new InvalidArgumentQuantityException(
-                    toString(), parameters.length, i);
+    public SExp call3(SExp a, SExp b, SExp c) throws LispException {
+        return TailCall.complete(run(bind3(a, b, c)));
+    }
 
-            // bind one arg to param
-            evaluatedArg = arguments.car.eval(symbolTable);
-            localScope.bind(parameters[i], new VariableEntry(parameters[i],
-                evaluatedArg));
+    public SExp call4(SExp a, SExp b, SExp c, SExp d) throws LispException {
+        return TailCall.complete(run(bind4(a, b, c, d)));
+    }
 
-            if (traceEnabled) traceString += " " + evaluatedArg.toString();
+    /**
+     * Bind the arguments to the parameters of this function in a new frame
+     * enclosed by the closure frame. The parameters occupy the first slots
+     * of the frame.
+     * @param arguments The evaluated arguments.
+     * @return The frame to run the body in.
+     */
+    Frame bind(SExp[] arguments) throws LispException {
+        checkArity(arguments.length);
+        Frame frame = new Frame(template.frameSize, closure);
+        System.arraycopy(arguments, 0, frame.slots, 0, arguments.length);
+        return frame;
+    }
 
-            arguments = arguments.cdr;
-            ++i;
-        }
+    // the fixed-arity versions of bind(SExp[])
 
-        // too many arguments
-        if (arguments != null)
+    Frame bind0() throws LispException {
+        checkArity(0);
+        return new Frame(template.frameSize, closure);
+    }
+
+    Frame bind1(SExp a) throws LispException {
+        checkArity(1);
+        Frame frame = new Frame(template.frameSize, closure);
+        frame.slots[0] = a;
+        return frame;
+    }
+
+    Frame bind2(SExp a, SExp b) throws LispException {
+        checkArity(2);
+        Frame frame = new Frame(template.frameSize, closure);
+        frame.slots[0] = a;
+        frame.slots[1] = b;
+        return frame;
+    }
+
+    Frame bind3(SExp a, SExp b, SExp c) throws LispException {
+        checkArity(3);
+        Frame frame = new Frame(template.frameSize, closure);
+        frame.slots[0] = a;
+        frame.slots[1] = b;
+        frame.slots[2] = c;
+        return frame;
+    }
+
+    Frame bind4(SExp a, SExp b, SExp c, SExp d) throws LispException {
+        checkArity(4);
+        Frame frame = new Frame(template.frameSize, closure);
+        frame.slots[0] = a;
+        frame.slots[1] = b;
+        frame.slots[2] = c;
+        frame.slots[3] = d;
+        return frame;
+    }
+
+    private void checkArity(int count) throws LispException {
+        if (count != template.parameters.length)
             throw new InvalidArgumentQuantityException(
-                toString(),parameters.length, (i + arguments.length()));
+                toString(), template.parameters.length, count);
+    }
 
-        if (traceEnabled) traceString += ")";
-        if (traceEnabled) System.out.println(traceString);
+    /**
+     * Evaluate the function body in a frame made by one of the bind
+     * methods.
+     * @param frame The frame holding the arguments.
+     * @return The value of the body, which may be a {@link TailCall} still
+     * to be run.
+     */
+    SExp run(Frame frame) throws LispException {
 
+        if (!traceEnabled) return template.body.eval(frame);
 
-        retVal = body.eval(localScope);
+        String traceString = "(" + symbol.name;
+        for (int i = 0; i < template.parameters.length; ++i)
+            traceString += " " + frame.slots[i].toString();
+        traceString += ")";
+        System.out.println(traceString);
 
-        if (traceEnabled)
-            traceString = symbol.name + " returned " + retVal.toString();
-        if (traceEnabled) System.out.println(traceString);
+        // a traced function reports the value its tail calls return
+        SExp retVal = TailCall.complete(template.body.eval(frame));
+        traceString = symbol.name + " returned " + retVal.toString();
+        System.out.println(traceString);
 
         return retVal;
     }
 
-    public HelpTopic helpinfo() { return helpinfo; }
+    public HelpTopic helpinfo() { return template.helpinfo(); }
 }
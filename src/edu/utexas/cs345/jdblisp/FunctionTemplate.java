@@ -0,0 +1,92 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * FunctionTemplate
+ * The analyzed form of a function definition (DEFUN, LAMBDA or a LABELS
+ * function), shared by every function made from the definition. Making a
+ * closure allocates only the function and its closure record: a frame with
+ * one slot per variable or local function the body captures, holding a copy
+ * of its value. The closure does not refer to the frames it was created in,
+ * so it keeps nothing else alive.
+ */
+public class FunctionTemplate {
+
+    public final Symbol name;
+    public final Symbol[] parameters;
+    public final SExp source;
+    public final int frameSize;
+
+    // replaced by its compiled equivalent by compile()
+    Node body;
+
+    // built on first request, see helpinfo()
+    private HelpTopic helpinfo = null;
+
+    /**
+     * References, in the frame the closure is created in, to the captured
+     * names. A captured variable held in a {@link Cell} is captured as the
+     * cell itself.
+     */
+    public final Node[] captures;
+
+    public FunctionTemplate(Symbol name, Symbol[] parameters, SExp source,
+    Node body, int frameSize, Node[] captures) {
+        this.name = name;
+        this.parameters = parameters;
+        this.source = source;
+        this.body = body;
+        this.frameSize = frameSize;
+        this.captures = captures;
+    }
+
+    /**
+     * Make the closure record for a closure created in the given frame.
+     * @return The record, or <b>null</b> if the body captures nothing.
+     */
+    public Frame capture(Frame frame) throws LispException {
+        if (captures.length == 0) return null;
+        Frame record = newRecord();
+        fill(record, frame);
+        return record;
+    }
+
+    /** Make an empty closure record, for {@link #fill}. */
+    Frame newRecord() {
+        return captures.length == 0 ? null
+            : new Frame(captures.length, null);
+    }
+
+    /**
+     * Copy the captured values into a record made by {@link #newRecord}.
+     * This is separate from making the record so that LABELS functions can
+     * capture each other.
+     */
+    void fill(Frame record, Frame frame) throws LispException {
+        for (int i = 0; i < captures.length; ++i)
+            record.slots[i] = captures[i].eval(frame);
+    }
+
+    /**
+     * Compile the body to JVM bytecode. This affects every function made
+     * from this definition.
+     */
+    public void compile() { body = Compiler.compile(body); }
+
+    public boolean isCompiled() { return body instanceof CompiledNode; }
+
+    /** The help topic for the function, built the first time it is asked for. */
+    public HelpTopic helpinfo() {
+        if (helpinfo == null) {
+            // build invocation help string
+            StringBuilder invokation = new StringBuilder("(" + name.name);
+            for (Symbol param : parameters)
+                invokation.append(" <").append(param.name).append(">");
+            invokation.append(")");
+
+            helpinfo = new FormHelpTopic(name.name, null,
+                invokation.toString(), "Function body: " + source.toString());
+        }
+
+        return helpinfo;
+    }
+}
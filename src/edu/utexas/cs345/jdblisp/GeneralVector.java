@@ -0,0 +1,52 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.Arrays;
+
+/**
+ * GeneralVector
+ * A vector whose elements may be any objects.
+ */
+public class GeneralVector extends Vector {
+
+    private SExp[] elements;
+
+    public GeneralVector(int size, int fillPointer) {
+        super(fillPointer);
+        elements = new SExp[size];
+        Arrays.fill(elements, SExp.NIL);
+    }
+
+    /** A vector of the given elements, without a fill pointer. */
+    public GeneralVector(SExp[] elements) {
+        super(-1);
+        this.elements = elements;
+    }
+
+    public SExp elementType() { return SExp.T; }
+
+    public int capacity() { return elements.length; }
+
+    protected SExp element(int index) { return elements[index]; }
+
+    protected void setElement(int index, SExp value) {
+        elements[index] = value;
+    }
+
+    protected void resize(int capacity) {
+        int size = elements.length;
+        elements = Arrays.copyOf(elements, capacity);
+        if (capacity > size) Arrays.fill(elements, size, capacity, SExp.NIL);
+    }
+
+    protected void fillElements(SExp value, int start, int end) {
+        Arrays.fill(elements, start, end, value);
+    }
+
+    protected void copyElements(int start, Vector source, int sourceStart,
+    int count) throws LispException {
+        if (source instanceof GeneralVector)
+            System.arraycopy(((GeneralVector) source).elements, sourceStart,
+                elements, start, count);
+        else super.copyElements(start, source, sourceStart, count);
+    }
+}
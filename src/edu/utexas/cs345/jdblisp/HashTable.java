@@ -0,0 +1,225 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * HashTable
+ * A hash table mapping keys to values, compared by one of the equality
+ * predicates EQ, EQL or EQUAL (see {@link edu.utexas.cs345.jdblisp.Equality}).
+ *
+ * Entries are kept in open-addressed arrays with linear probing. Symbols are
+ * interned, so they are hashed and compared by identity under every test,
+ * and fixnums are hashed and compared by value without going through
+ * <tt>equals</tt>. Removed entries leave a marker behind so that probing
+ * continues past them; the markers are dropped when the table is rebuilt.
+ *
+ * A synchronized table may be shared between threads: every operation holds
+ * the lock of the table, and {@link #entries} returns a snapshot, so a
+ * function mapped over the table runs outside of the lock.
+ */
+public class HashTable implements SExp {
+
+    // tests
+    public static final int EQ = 0;
+    public static final int EQL = 1;
+    public static final int EQUAL = 2;
+
+    private static final String[] TEST_NAMES = { "EQ", "EQL", "EQUAL" };
+
+    // the key of a removed entry
+    private static final SExp REMOVED = new Symbol("REMOVED");
+
+    private static final int MIN_CAPACITY = 8;
+
+    public final int test;
+    public final boolean threadSafe;
+
+    private SExp[] keys;
+    private SExp[] values;
+    private int count = 0;      // live entries
+    private int used = 0;       // live and removed entries
+
+    /**
+     * @param test {@link #EQ}, {@link #EQL} or {@link #EQUAL}.
+     * @param size The number of entries expected.
+     * @param threadSafe If the table may be used by more than one thread.
+     */
+    public HashTable(int test, int size, boolean threadSafe) {
+        this.test = test;
+        this.threadSafe = threadSafe;
+        allocate(capacityFor(size));
+    }
+
+    /** The value of a key, or null if the key is not in the table. */
+    public SExp get(SExp key) {
+        if (threadSafe) synchronized (this) { return lookup(key); }
+        return lookup(key);
+    }
+
+    public void put(SExp key, SExp value) {
+        if (threadSafe) synchronized (this) { store(key, value); }
+        else store(key, value);
+    }
+
+    /** @return If the key was in the table. */
+    public boolean remove(SExp key) {
+        if (threadSafe) synchronized (this) { return delete(key); }
+        return delete(key);
+    }
+
+    public void clear() {
+        if (threadSafe) synchronized (this) { reset(); }
+        else reset();
+    }
+
+    public int count() {
+        if (threadSafe) synchronized (this) { return count; }
+        return count;
+    }
+
+    /**
+     * The entries of the table as a list of alternating keys and values.
+     * Later changes to the table do not affect the array returned.
+     */
+    public SExp[] entries() {
+        if (threadSafe) synchronized (this) { return snapshot(); }
+        return snapshot();
+    }
+
+    public String display(String offset) {
+        return offset + "HashTable: " + toString() + "\n";
+    }
+
+    @Override
+    public String toString() {
+        return "#<HASH-TABLE :TEST " + TEST_NAMES[test] + " :COUNT "
+            + count() + ">";
+    }
+
+    // ---------------
+    // OPEN ADDRESSING
+    // ---------------
+
+    private SExp lookup(SExp key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask)
+            if (matches(keys[i], key)) return values[i];
+        return null;
+    }
+
+    private void store(SExp key, SExp value) {
+        int mask = keys.length - 1;
+        int free = -1;
+        int i = hash(key) & mask;
+
+        for (; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == REMOVED) { if (free < 0) free = i; }
+            else if (matches(keys[i], key)) { values[i] = value; return; }
+        }
+
+        // reuse the first removed slot passed, if any
+        if (free >= 0) i = free;
+        else ++used;
+
+        keys[i] = key;
+        values[i] = value;
+        ++count;
+
+        // keep the table at most half full, counting removed entries
+        if (used * 2 > keys.length) rehash(capacityFor(count));
+    }
+
+    private boolean delete(SExp key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] != REMOVED && matches(keys[i], key)) {
+                keys[i] = REMOVED;
+                values[i] = null;
+                --count;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reset() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private SExp[] snapshot() {
+        SExp[] entries = new SExp[count * 2];
+        int j = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] == null || keys[i] == REMOVED) continue;
+            entries[j++] = keys[i];
+            entries[j++] = values[i];
+        }
+        return entries;
+    }
+
+    private void rehash(int capacity) {
+        SExp[] oldKeys = keys, oldValues = values;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            SExp key = oldKeys[i];
+            if (key == null || key == REMOVED) continue;
+            int j = hash(key) & mask;
+            while (keys[j] != null) j = (j + 1) & mask;
+            keys[j] = key;
+            values[j] = oldValues[i];
+            ++count;
+        }
+        used = count;
+    }
+
+    private void allocate(int capacity) {
+        keys = new SExp[capacity];
+        values = new SExp[capacity];
+        count = 0;
+        used = 0;
+    }
+
+    /** The smallest power of two at least four times the size. */
+    private static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 4 && capacity < (1 << 30)) capacity <<= 1;
+        return capacity;
+    }
+
+    // -----------------
+    // HASHING AND TESTS
+    // -----------------
+
+    private int hash(SExp key) {
+        int h;
+        if (key instanceof Symbol) h = System.identityHashCode(key);
+        else if (test != EQ && key instanceof Num && ((Num) key).isFixnum()) {
+            long n = ((Num) key).longValue();
+            h = (int) (n ^ (n >>> 32));
+        }
+        else if (test == EQ) h = System.identityHashCode(key);
+        else if (test == EQL && !(key instanceof Num))
+            h = System.identityHashCode(key);
+        else h = key.hashCode();
+
+        // spread the high bits, which the mask would otherwise ignore
+        h *= 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean matches(SExp stored, SExp key) {
+        if (stored == key) return true;
+        if (key instanceof Symbol) return false;
+        if (test == EQ) return false;
+
+        if (key instanceof Num) {
+            if (!(stored instanceof Num)) return false;
+            Num a = (Num) stored, b = (Num) key;
+            if (a.isFixnum() && b.isFixnum())
+                return a.longValue() == b.longValue();
+            return a.equals(b);
+        }
+
+        return test == EQUAL && key.equals(stored);
+    }
+}
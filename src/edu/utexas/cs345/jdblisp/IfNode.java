@@ -0,0 +1,29 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * IfNode
+ */
+public class IfNode extends Node {
+
+    public final Node test;
+    public final Node then;
+    public final Node otherwise;
+
+    public IfNode(Node test, Node then, Node otherwise) {
+        this.test = test;
+        this.then = then;
+        this.otherwise = otherwise;
+    }
+
+    public Node inTailPosition() {
+        return new IfNode(test, then.inTailPosition(),
+            otherwise.inTailPosition());
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        SExp testResult = test.eval(frame);
+        if (testResult == null || testResult == SExp.NIL)
+            return otherwise.eval(frame);
+        return then.eval(frame);
+    }
+}
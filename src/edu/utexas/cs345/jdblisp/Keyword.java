@@ -6,11 +6,16 @@ package edu.utexas.cs345.jdblisp;
  */
 public class Keyword extends Symbol {
 
-    public Keyword(String name) { super(name); }
+    /** Create an uninterned keyword, see {@link #intern}. */
+    Keyword(String name) { super(name); }
 
-    /** {@inheritdoc} */
-    @Override
-    public SExp eval(SymbolTable symbolTable) { return this; }
+    /**
+     * Get the canonical keyword with the given name.
+     * @param name The name of the keyword, without the colon.
+     */
+    public static Keyword intern(String name) {
+        return (Keyword) SymbolRegistry.KEYWORDS.intern(name);
+    }
 
     public String display(String offset) {
         return offset + "Keyword: " + name + "\n";
@@ -18,12 +23,4 @@ public class Keyword extends Symbol {
 
     @Override
     public String toString() { return ":" + name; }
-
-    @Override
-    public boolean equals(Object that) {
-        if (this == that) return true;
-        if (that == null) return false;
-        if (!(that instanceof Keyword)) return false;
-        return this.name.equals(((Keyword) that).name);
-    }
 }
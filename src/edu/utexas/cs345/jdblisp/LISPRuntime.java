@@ -20,12 +20,15 @@ public class LISPRuntime {
 
     public SymbolTable globalSymbolTable;
 
+    Analyzer analyzer;
+
     private Parser parser;
 
     private boolean interactive = true;
     private boolean stop = false;
 
     boolean dumpAST = false;
+    boolean autoCompile = false;
 
     private OutputStream os;
 
@@ -43,6 +46,15 @@ public class LISPRuntime {
         // build global symbol table
         globalSymbolTable = new SymbolTable(constantsSymbolTable);
         SpecialFormEntry.defineSpecialForms(this);
+        BuiltinFunctionEntry.defineBuiltinFunctions(this);
+
+        try { Printer.defineVariables(globalSymbolTable); }
+        catch (LispException le) {
+            // the variables are new, so they cannot be constants
+            throw new IllegalStateException(le);
+        }
+
+        analyzer = new Analyzer(this);
     }
 
     // TODO: is this needed? 
@@ -59,6 +71,21 @@ public class LISPRuntime {
         // parse command-line arguments (treat non-options as input files)
         // TODO: replace with Apache Commons CLI
         for (String arg : args) {
+            if (arg.equals("--compile")) {
+                lisp.autoCompile = true;
+                continue;
+            }
+
+            if (arg.equals("--double-floats")) {
+                LiteralPool.READER.setDecimalsAsDouble(true);
+                continue;
+            }
+
+            if (arg.equals("--hash-consing")) {
+                ConsPool.SHARED.setEnabled(true);
+                continue;
+            }
+
             System.out.println("Loading file '" + arg + "...");
             lisp.interactive = false;
             lisp.repl(new FileInputStream(arg), System.out);
@@ -104,8 +131,10 @@ public class LISPRuntime {
 
             if (interactive) {
                 try {
-                    SExp result = sexp.eval(globalSymbolTable);
-                    out.println(result == null ? "NIL" : result.toString());
+                    SExp result = analyzer.analyzeTopLevel(sexp).eval(null);
+                    Printer.fromVariables(globalSymbolTable)
+                        .print(result, out);
+                    out.println();
                 } catch (LispException le) {
                     out.println(le.getLocalizedMessage());
                     continue;
@@ -122,8 +151,8 @@ public class LISPRuntime {
     void signalStop() { stop = true; }
 
     private static SymbolTable defineGlobalConstants() {
-        Symbol T = new Symbol("T");
-        Symbol NIL = new Symbol("NIL");
+        Symbol T = Symbol.intern("T");
+        Symbol NIL = Symbol.intern("NIL");
         SymbolTable constantsTable = new SymbolTable();
         constantsTable.bind(T, new VariableEntry(T, SExp.T, true));
         constantsTable.bind(NIL, new VariableEntry(NIL, SExp.NIL, true));
@@ -0,0 +1,39 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LabelsNode
+ * Binds local, mutually recursive functions in slots of the current frame and
+ * evaluates a body with them.
+ */
+public class LabelsNode extends Node {
+
+    public final int[] slots;
+    public final FunctionTemplate[] templates;
+    public final Node body;
+
+    public LabelsNode(int[] slots, FunctionTemplate[] templates, Node body) {
+        this.slots = slots;
+        this.templates = templates;
+        this.body = body;
+    }
+
+    public Node inTailPosition() {
+        return new LabelsNode(slots, templates, body.inTailPosition());
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        Frame[] records = new Frame[templates.length];
+
+        // the functions may capture each other, so they are all bound before
+        // any closure record is filled in
+        for (int i = 0; i < templates.length; ++i) {
+            records[i] = templates[i].newRecord();
+            frame.slots[slots[i]] = new FunctionEntry(templates[i], records[i]);
+        }
+
+        for (int i = 0; i < templates.length; ++i)
+            if (records[i] != null) templates[i].fill(records[i], frame);
+
+        return body.eval(frame);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LambdaNode
+ * Creates a closure over the variables the lambda body captures from the
+ * current frame.
+ */
+public class LambdaNode extends Node {
+
+    public final FunctionTemplate template;
+
+    public LambdaNode(FunctionTemplate template) {
+        this.template = template;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        return new Lambda(template, template.capture(frame));
+    }
+}
@@ -0,0 +1,144 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LazySeq
+ * Lazy sequences: lists whose tails are computed when they are first
+ * reached. A lazy sequence is a chain of cons cells whose cdr may be a
+ * {@link Promise} of the rest of the sequence, as made by LAZY-CONS. When
+ * the rest is reached through {@link #rest} the promise is forced and the
+ * cell's cdr is replaced by its value, so a realized part of a lazy sequence
+ * is an ordinary list and is never computed twice.
+ *
+ * The promises made here refer only to the cell they follow and to the
+ * function they apply, and drop both once forced, so the elements already
+ * consumed can be collected while the rest is still to come.
+ */
+public class LazySeq {
+
+    private LazySeq() {}
+
+    /** The rest of a list or lazy sequence after its first cell. */
+    public static SExp rest(Cons cell) throws LispException {
+        SExp rest = cell.cdr;
+        while (rest instanceof Promise) rest = ((Promise) rest).force();
+
+        // remember the realized tail, unless the cell is shared
+        if (rest != cell.cdr && !ConsPool.SHARED.contains(cell))
+            cell.setCdr(rest);
+        return rest;
+    }
+
+    /** The first cell of a sequence, or null at its end. */
+    private static Cons cell(SExp sequence) throws LispException {
+        while (sequence instanceof Promise)
+            sequence = ((Promise) sequence).force();
+        return Cons.list(sequence);
+    }
+
+    /** A list of the first count elements of a sequence. */
+    public static SExp take(long count, SExp sequence)
+    throws LispException {
+        Sequences.ListBuilder result = new Sequences.ListBuilder();
+        Cons c = count > 0 ? cell(sequence) : null;
+        for (long i = 0; c != null; c = cell(rest(c))) {
+            result.add(c.car);
+            if (++i == count) break;
+        }
+        return result.list();
+    }
+
+    /** The sequence after its first count elements. */
+    public static SExp drop(long count, SExp sequence)
+    throws LispException {
+        for (long i = 0; i < count; ++i) {
+            Cons c = cell(sequence);
+            if (c == null) return SExp.NIL;
+            sequence = rest(c);
+        }
+        return sequence;
+    }
+
+    /** The infinite sequence x, f(x), f(f(x)), ... */
+    public static Cons iterate(FormEntry function, SExp x) {
+        return new Cons(x, new Iterating(function, x));
+    }
+
+    /** The lazy sequence of the values of a function of each element. */
+    public static SExp map(FormEntry function, SExp sequence)
+    throws LispException {
+        Cons c = cell(sequence);
+        if (c == null) return SExp.NIL;
+        return new Cons(function.call1(c.car), new Mapping(function, c));
+    }
+
+    /** The lazy sequence of the elements that satisfy a predicate. */
+    public static SExp filter(FormEntry predicate, SExp sequence)
+    throws LispException {
+        // skip to the next element that satisfies the predicate
+        for (Cons c = cell(sequence); c != null; c = cell(rest(c)))
+            if (predicate.call1(c.car) != SExp.NIL)
+                return new Cons(c.car, new Filtering(predicate, c));
+        return SExp.NIL;
+    }
+
+    // --------
+    // PROMISES
+    // --------
+
+    private static class Iterating extends Promise {
+        private FormEntry function;
+        private SExp x;
+
+        Iterating(FormEntry function, SExp x) {
+            this.function = function;
+            this.x = x;
+        }
+
+        protected SExp compute() throws LispException {
+            return iterate(function, function.call1(x));
+        }
+
+        protected void release() {
+            function = null;
+            x = null;
+        }
+    }
+
+    private static class Mapping extends Promise {
+        private FormEntry function;
+        private Cons cell;      // the cell of the last element mapped
+
+        Mapping(FormEntry function, Cons cell) {
+            this.function = function;
+            this.cell = cell;
+        }
+
+        protected SExp compute() throws LispException {
+            return map(function, rest(cell));
+        }
+
+        protected void release() {
+            function = null;
+            cell = null;
+        }
+    }
+
+    private static class Filtering extends Promise {
+        private FormEntry predicate;
+        private Cons cell;      // the cell of the last element passed
+
+        Filtering(FormEntry predicate, Cons cell) {
+            this.predicate = predicate;
+            this.cell = cell;
+        }
+
+        protected SExp compute() throws LispException {
+            return filter(predicate, rest(cell));
+        }
+
+        protected void release() {
+            predicate = null;
+            cell = null;
+        }
+    }
+}
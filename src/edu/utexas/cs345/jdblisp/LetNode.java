@@ -0,0 +1,106 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LetNode
+ * Binds variables and evaluates a body with them. Lexical variables live in
+ * slots of the current frame. Variables proclaimed special by DEFVAR or
+ * DEFPARAMETER (marked by a slot of -1) are bound dynamically: the value in
+ * their global cell is replaced for the extent of the body and restored
+ * afterwards.
+ */
+public class LetNode extends Node {
+
+    private final SymbolTable globals;
+    public final Symbol[] variables;
+    public final int[] slots;
+    public final Node[] initForms;
+    public final Node body;
+    public final boolean sequential;
+
+    private final boolean hasSpecials;
+
+    // the cells of the special variables, found by the first evaluation
+    private VariableEntry[] cells = null;
+
+    public LetNode(SymbolTable globals, Symbol[] variables, int[] slots,
+    Node[] initForms, Node body, boolean sequential) {
+        this.globals = globals;
+        this.variables = variables;
+        this.slots = slots;
+        this.initForms = initForms;
+        this.body = body;
+        this.sequential = sequential;
+
+        boolean specials = false;
+        for (int slot : slots) if (slot < 0) specials = true;
+        this.hasSpecials = specials;
+    }
+
+    public Node inTailPosition() {
+
+        // special bindings are undone after the body, so the body is not in
+        // tail position
+        if (hasSpecials) return this;
+
+        return new LetNode(globals, variables, slots, initForms,
+            body.inTailPosition(), sequential);
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+
+        // lexical bindings are fresh slots that the init-forms cannot see,
+        // so they can be stored as soon as they are computed
+        if (!hasSpecials) {
+            for (int i = 0; i < slots.length; ++i)
+                frame.slots[slots[i]] = initForms[i].eval(frame);
+
+            return body.eval(frame);
+        }
+
+        if (cells == null) cells = lookupCells();
+
+        SExp[] saved = new SExp[slots.length];
+        boolean[] bound = new boolean[slots.length];
+        SExp[] values = new SExp[slots.length];
+
+        try {
+            for (int i = 0; i < slots.length; ++i) {
+                values[i] = initForms[i].eval(frame);
+
+                if (slots[i] >= 0) frame.slots[slots[i]] = values[i];
+                else if (sequential) bindSpecial(i, values[i], saved, bound);
+            }
+
+            // LET binds its special variables after all init-forms
+            if (!sequential)
+                for (int i = 0; i < slots.length; ++i)
+                    if (slots[i] < 0) bindSpecial(i, values[i], saved, bound);
+
+            return body.eval(frame);
+
+        } finally {
+            for (int i = slots.length; i-- > 0;)
+                if (bound[i]) cells[i].value = saved[i];
+        }
+    }
+
+    private void bindSpecial(int i, SExp value, SExp[] saved,
+    boolean[] bound) {
+        saved[i] = cells[i].value;
+        cells[i].value = value;
+        bound[i] = true;
+    }
+
+    private VariableEntry[] lookupCells() throws LispException {
+        VariableEntry[] found = new VariableEntry[slots.length];
+        for (int i = 0; i < slots.length; ++i) {
+            if (slots[i] >= 0) continue;
+            found[i] = globals.lookupVariable(variables[i]);
+
+            // the analyzer only marks defined variables as special
+            if (found[i] == null)
+                throw new UndefinedVariableException(variables[i]);
+        }
+        return found;
+    }
+}
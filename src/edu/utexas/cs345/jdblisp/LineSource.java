@@ -0,0 +1,36 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * LineSource
+ * The lines of a text file, as a source for {@link Transducer#transduce}.
+ * The file is opened anew for each reduction and read one line at a time,
+ * so a file of any size can be reduced without holding its lines.
+ */
+public class LineSource implements SExp {
+
+    public final String path;
+
+    public LineSource(String path) { this.path = path; }
+
+    BufferedReader open() throws LispException {
+        try {
+            return new BufferedReader(new InputStreamReader(
+                new FileInputStream(path), "UTF-8"));
+        } catch (IOException ioe) {
+            throw new LispException("Cannot open " + path + ": "
+                + ioe.getMessage(), ioe);
+        }
+    }
+
+    public String display(String offset) {
+        return offset + "LineSource: " + path + "\n";
+    }
+
+    @Override
+    public String toString() { return "#<FILE-LINES \"" + path + "\">"; }
+}
@@ -0,0 +1,83 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LiteralPool
+ * Deduplicates number and string literals as they are read, so that code and
+ * data loaded from files refer to one shared object for each distinct
+ * literal. The pool keeps the most recently used literals only, so reading
+ * many distinct values does not make it grow without bound.
+ */
+public class LiteralPool {
+
+    /** The pool used by the reader. */
+    public static final LiteralPool READER = new LiteralPool(4096);
+
+    private final Map<String, Num> numbers;
+    private final Map<String, Str> strings;
+
+    private boolean decimalsAsDouble = false;
+
+    public LiteralPool(int capacity) {
+        numbers = new LruMap<Num>(capacity);
+        strings = new LruMap<Str>(capacity);
+    }
+
+    /**
+     * Get the number for a numeric literal.
+     * @param image The literal as it was read.
+     */
+    public synchronized Num number(String image) {
+        Num n = numbers.get(image);
+        if (n == null) {
+            n = Num.read(image, decimalsAsDouble);
+            numbers.put(image, n);
+        }
+        return n;
+    }
+
+    /**
+     * Read numbers with a decimal point but no exponent as double-floats
+     * instead of exact decimals.
+     */
+    public synchronized void setDecimalsAsDouble(boolean decimalsAsDouble) {
+        if (this.decimalsAsDouble != decimalsAsDouble) numbers.clear();
+        this.decimalsAsDouble = decimalsAsDouble;
+    }
+
+    public synchronized boolean isDecimalsAsDouble() {
+        return decimalsAsDouble;
+    }
+
+    /**
+     * Get the string for a string literal.
+     * @param image The literal as it was read.
+     */
+    public synchronized Str string(String image) {
+        Str s = strings.get(image);
+        if (s == null) {
+            s = new Str(image);
+            strings.put(image, s);
+        }
+        return s;
+    }
+
+    private static class LruMap<V> extends LinkedHashMap<String, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        LruMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LocalCallNode
+ * A call to a local function bound by LABELS.
+ */
+public class LocalCallNode extends Node {
+
+    public final Symbol name;
+    public final int depth;
+    public final int slot;
+    public final Node[] arguments;
+    public final boolean tail;
+
+    public LocalCallNode(Symbol name, int depth, int slot, Node[] arguments) {
+        this(name, depth, slot, arguments, false);
+    }
+
+    public LocalCallNode(Symbol name, int depth, int slot, Node[] arguments,
+    boolean tail) {
+        this.name = name;
+        this.depth = depth;
+        this.slot = slot;
+        this.arguments = arguments;
+        this.tail = tail;
+    }
+
+    public Node inTailPosition() {
+        return new LocalCallNode(name, depth, slot, arguments, true);
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        FormEntry fe = (FormEntry) frame.up(depth).slots[slot];
+        return call(fe, arguments, frame, tail);
+    }
+}
@@ -0,0 +1,24 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LocalSetqNode
+ * Assignment to a lexically bound variable.
+ */
+public class LocalSetqNode extends Node {
+
+    public final int depth;
+    public final int slot;
+    public final Node value;
+
+    public LocalSetqNode(int depth, int slot, Node value) {
+        this.depth = depth;
+        this.slot = slot;
+        this.value = value;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        SExp variableValue = value.eval(frame);
+        frame.up(depth).slots[slot] = variableValue;
+        return variableValue;
+    }
+}
@@ -0,0 +1,23 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * LocalVariableNode
+ * A reference to a lexically bound variable or local function, resolved at
+ * analysis time to a slot in an enclosing frame.
+ */
+public class LocalVariableNode extends Node {
+
+    public final Symbol symbol;
+    public final int depth;
+    public final int slot;
+
+    public LocalVariableNode(Symbol symbol, int depth, int slot) {
+        this.symbol = symbol;
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public SExp eval(Frame frame) {
+        return frame.up(depth).slots[slot];
+    }
+}
@@ -0,0 +1,17 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * MakeCellNode
+ * Puts the initial value of a variable held in a {@link Cell} into a new
+ * cell.
+ */
+public class MakeCellNode extends Node {
+
+    public final Node value;
+
+    public MakeCellNode(Node value) { this.value = value; }
+
+    public SExp eval(Frame frame) throws LispException {
+        return new Cell(value.eval(frame));
+    }
+}
@@ -0,0 +1,259 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * MemoCache
+ * The result cache of a memoized function. Results are keyed by the
+ * argument lists, compared element by element with <tt>equals</tt>, so
+ * arguments that are structurally equal share a result. A stored key holds
+ * copies of the lists among the arguments, so a caller that goes on to
+ * modify its lists does not change the key.
+ *
+ * A cache may be bounded in size, evicting the least recently used (LRU) or
+ * least frequently used (LFU) result when it is full, and may expire results
+ * a fixed time after they were computed (TTL). Expired results are removed
+ * when they are looked up, and the oldest are swept whenever a result is
+ * stored, so a cache with a TTL does not grow without bound even if it has
+ * no size limit. Evictions run in constant time, and sweeps in constant
+ * time per result removed. A thread-safe cache serializes all access to it; the
+ * function itself is still called outside of the lock.
+ */
+public class MemoCache {
+
+    // eviction policies
+    public static final int LRU = 0;
+    public static final int LFU = 1;
+
+    /** The size of the cache of a function memoized without a limit given. */
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final int policy;
+    private final int maxEntries;       // 0 for no limit
+    private final long ttlNanos;        // 0 for no expiry
+    private final boolean threadSafe;
+
+    // in access order, so the first entry is the least recently used
+    private final LinkedHashMap<Key, Entry> entries =
+        new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+    // LFU only: the keys with each use count, oldest first
+    private final HashMap<Long, LinkedHashSet<Key>> frequencies =
+        new HashMap<Long, LinkedHashSet<Key>>();
+    private long minFrequency = 0;
+
+    // TTL only: the entries in the order they were stored, which is the
+    // order they expire in; entries removed since are skipped by the sweep
+    private final ArrayDeque<Entry> stored = new ArrayDeque<Entry>();
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    /**
+     * @param policy {@link #LRU} or {@link #LFU}.
+     * @param maxEntries The maximum number of results kept, 0 for no limit.
+     * @param ttlMillis How long a result is kept, 0 to keep it until it is
+     * evicted.
+     * @param threadSafe If the cache may be used by more than one thread.
+     */
+    public MemoCache(int policy, int maxEntries, long ttlMillis,
+    boolean threadSafe) {
+        this.policy = policy;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1000000L;
+        this.threadSafe = threadSafe;
+    }
+
+    /** The argument list of a call, as a hash key. */
+    private static class Key {
+        final SExp[] arguments;
+        final int hash;
+
+        Key(SExp[] arguments) {
+            this.arguments = arguments;
+            this.hash = Arrays.hashCode(arguments);
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key
+                && Arrays.equals(arguments, ((Key) o).arguments);
+        }
+
+        public int hashCode() { return hash; }
+    }
+
+    private static class Entry {
+        final Key key;
+        final SExp value;
+        final long expires;
+        long frequency = 1;
+        boolean removed = false;
+
+        Entry(Key key, SExp value, long expires) {
+            this.key = key;
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Find the result cached for the given arguments.
+     * @return The result, or <b>null</b> if there is none.
+     */
+    public SExp get(SExp[] arguments) {
+        if (!threadSafe) return lookup(new Key(arguments));
+        Key key = new Key(arguments);
+        synchronized (this) { return lookup(key); }
+    }
+
+    /** Cache the result for the given arguments. */
+    public void put(SExp[] arguments, SExp value) {
+        Key key = new Key(snapshot(arguments));
+        if (!threadSafe) store(key, value);
+        else synchronized (this) { store(key, value); }
+    }
+
+    // the arguments with their lists copied, or the arguments themselves if
+    // there are none
+    private static SExp[] snapshot(SExp[] arguments) {
+        SExp[] copy = arguments;
+        for (int i = 0; i < arguments.length; ++i) {
+            if (!(arguments[i] instanceof Cons)) continue;
+            if (copy == arguments) copy = arguments.clone();
+            copy[i] = Cons.copyTree(arguments[i]);
+        }
+        return copy;
+    }
+
+    /** Forget all cached results. The statistics are kept. */
+    public void clear() {
+        if (!threadSafe) reset();
+        else synchronized (this) { reset(); }
+    }
+
+    private SExp lookup(Key key) {
+        Entry entry = entries.get(key);
+
+        if (entry != null && ttlNanos > 0
+            && System.nanoTime() - entry.expires > 0) {
+            remove(key, entry);
+            ++expirations;
+            entry = null;
+        }
+
+        if (entry == null) {
+            ++misses;
+            return null;
+        }
+
+        ++hits;
+        if (policy == LFU) touch(key, entry);
+        return entry.value;
+    }
+
+    private void store(Key key, SExp value) {
+        long now = ttlNanos > 0 ? System.nanoTime() : 0;
+        if (ttlNanos > 0) sweep(now);
+
+        Entry old = entries.get(key);
+        if (old != null) remove(key, old);
+        else if (maxEntries > 0 && entries.size() >= maxEntries) evict();
+
+        Entry entry = new Entry(key, value, ttlNanos > 0 ? now + ttlNanos : 0);
+        entries.put(key, entry);
+        if (ttlNanos > 0) stored.add(entry);
+
+        if (policy == LFU) {
+            bucket(1).add(key);
+            minFrequency = 1;
+        }
+    }
+
+    // remove the results that have expired, oldest first
+    private void sweep(long now) {
+        while (!stored.isEmpty() && now - stored.peek().expires > 0) {
+            Entry entry = stored.poll();
+            if (entry.removed) continue;
+            remove(entry.key, entry);
+            ++expirations;
+        }
+    }
+
+    private void evict() {
+        Key victim;
+
+        if (policy == LFU) {
+            LinkedHashSet<Key> keys = frequencies.get(minFrequency);
+
+            // an expired result may have emptied the least frequent bucket
+            if (keys == null) {
+                minFrequency = Collections.min(frequencies.keySet());
+                keys = frequencies.get(minFrequency);
+            }
+
+            victim = keys.iterator().next();
+        } else victim = entries.keySet().iterator().next();
+
+        remove(victim, entries.get(victim));
+        ++evictions;
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        entry.removed = true;
+        if (policy != LFU) return;
+
+        LinkedHashSet<Key> keys = frequencies.get(entry.frequency);
+        keys.remove(key);
+        if (keys.isEmpty()) frequencies.remove(entry.frequency);
+    }
+
+    // LFU: move a key to the bucket for its next use count
+    private void touch(Key key, Entry entry) {
+        LinkedHashSet<Key> keys = frequencies.get(entry.frequency);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            frequencies.remove(entry.frequency);
+            if (minFrequency == entry.frequency) ++minFrequency;
+        }
+
+        ++entry.frequency;
+        bucket(entry.frequency).add(key);
+    }
+
+    private LinkedHashSet<Key> bucket(long frequency) {
+        LinkedHashSet<Key> keys = frequencies.get(frequency);
+        if (keys == null) {
+            keys = new LinkedHashSet<Key>();
+            frequencies.put(frequency, keys);
+        }
+        return keys;
+    }
+
+    private void reset() {
+        entries.clear();
+        stored.clear();
+        frequencies.clear();
+        minFrequency = 0;
+    }
+
+    /**
+     * The statistics of this cache as a property list:
+     * <tt>(:hits h :misses m :evictions e :expirations x :size s)</tt>.
+     */
+    public synchronized SExp statistics() {
+        return Cons.list(
+            Keyword.intern("HITS"), Num.valueOf(hits),
+            Keyword.intern("MISSES"), Num.valueOf(misses),
+            Keyword.intern("EVICTIONS"), Num.valueOf(evictions),
+            Keyword.intern("EXPIRATIONS"), Num.valueOf(expirations),
+            Keyword.intern("SIZE"), Num.valueOf(entries.size()));
+    }
+}
@@ -0,0 +1,60 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * MemoizedFunctionEntry
+ * A function whose results are cached in a {@link MemoCache}. It replaces
+ * the original function in the global environment, so recursive calls made
+ * by the function through its name are memoized as well.
+ */
+public class MemoizedFunctionEntry extends FormEntry {
+
+    public final FormEntry function;
+    public final MemoCache cache;
+
+    public MemoizedFunctionEntry(FormEntry function, MemoCache cache) {
+        super(function.symbol, null);
+        this.function = function;
+        this.cache = cache;
+    }
+
+    /**
+     * Memoize the global function with the given name, replacing any
+     * previous memoization of it.
+     * @return The memoized function.
+     * @throws UndefinedFunctionException if there is no such function.
+     */
+    public static MemoizedFunctionEntry memoize(SymbolTable globals,
+    Symbol name, MemoCache cache) throws LispException {
+        FormEntry fe = globals.lookupFunction(name);
+        if (fe == null) throw new UndefinedFunctionException(name);
+
+        if (fe instanceof SpecialFormEntry)
+            throw new LispException(name.name + " is a special form, not a "
+                + "function.");
+
+        if (fe instanceof MemoizedFunctionEntry)
+            fe = ((MemoizedFunctionEntry) fe).function;
+
+        MemoizedFunctionEntry memoized = new MemoizedFunctionEntry(fe, cache);
+        globals.bind(name, memoized);
+        return memoized;
+    }
+
+    public SExp call(SExp[] arguments) throws LispException {
+        SExp value = cache.get(arguments);
+        if (value != null) return value;
+
+        value = function.call(arguments);
+        cache.put(arguments, value);
+        return value;
+    }
+
+    /** The help topic of the function, built only when it is asked for. */
+    public HelpTopic helpinfo() { return function.helpinfo(); }
+
+    public String display(String offset) {
+        return offset + "Memoized Function: " + symbol.toString();
+    }
+
+    public String toString() { return "<FUNCTION " + symbol.toString() + ">"; }
+}
@@ -0,0 +1,80 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * Node
+ * An executable node produced by the {@link edu.utexas.cs345.jdblisp.Analyzer}.
+ * Each form is analyzed once into a tree of nodes; the tree is immutable and
+ * is evaluated directly, so forms are never re-destructured at run time.
+ */
+public abstract class Node {
+
+    /**
+     * Evaluate this node.
+     * @param frame The frame holding the local bindings of the enclosing
+     * function (or top-level form); may be <b>null</b> if there are none.
+     * @return The result of the evaluation.
+     */
+    public abstract SExp eval(Frame frame) throws LispException;
+
+    /**
+     * Rewrite this node for the tail position of a function body. Calls in
+     * tail position return a {@link TailCall} instead of growing the stack.
+     * @return The rewritten node, or this node if it is unchanged.
+     */
+    public Node inTailPosition() { return this; }
+
+    /**
+     * Evaluate an array of nodes, left to right.
+     * @param nodes The nodes to evaluate.
+     * @param frame The frame for the local bindings.
+     * @return The results of the evaluations, in order.
+     */
+    static SExp[] evalAll(Node[] nodes, Frame frame) throws LispException {
+        SExp[] values = new SExp[nodes.length];
+        for (int i = 0; i < nodes.length; ++i)
+            values[i] = nodes[i].eval(frame);
+        return values;
+    }
+
+    /**
+     * Evaluate the arguments of a call, left to right, and call a function
+     * with them. Calls with up to four arguments use the fixed-arity entry
+     * points of {@link FormEntry}, so no argument array is allocated.
+     * @param fe The function to call.
+     * @param arguments The argument forms.
+     * @param frame The frame for the local bindings.
+     * @param tail True if the call is in tail position.
+     * @return The result of the call, or a {@link TailCall} if <tt>tail</tt>
+     * is true.
+     */
+    static SExp call(FormEntry fe, Node[] arguments, Frame frame,
+    boolean tail) throws LispException {
+        SExp a, b, c, d;
+        switch (arguments.length) {
+            case 0:
+                return tail ? TailCall.call0(fe) : fe.call0();
+            case 1:
+                a = arguments[0].eval(frame);
+                return tail ? TailCall.call1(fe, a) : fe.call1(a);
+            case 2:
+                a = arguments[0].eval(frame);
+                b = arguments[1].eval(frame);
+                return tail ? TailCall.call2(fe, a, b) : fe.call2(a, b);
+            case 3:
+                a = arguments[0].eval(frame);
+                b = arguments[1].eval(frame);
+                c = arguments[2].eval(frame);
+                return tail ? TailCall.call3(fe, a, b, c) : fe.call3(a, b, c);
+            case 4:
+                a = arguments[0].eval(frame);
+                b = arguments[1].eval(frame);
+                c = arguments[2].eval(frame);
+                d = arguments[3].eval(frame);
+                return tail ? TailCall.call4(fe, a, b, c, d)
+                    : fe.call4(a, b, c, d);
+            default:
+                SExp[] values = evalAll(arguments, frame);
+                return tail ? TailCall.call(fe, values) : fe.call(values);
+        }
+    }
+}
@@ -2,85 +2,460 @@ package edu.utexas.cs345.jdblisp;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.MathContext;
 
 /**
+ * A number is held in one of four representations. Integers that fit in a
+ * <tt>long</tt> are fixnums and use primitive arithmetic; an operation on
+ * fixnums that overflows is promoted to a <tt>BigInteger</tt> bignum.
+ * Numbers read with a decimal point are exact decimals, held as
+ * <tt>BigDecimal</tt>s. Numbers read with an exponent (<tt>1.5e3</tt>,
+ * <tt>2d0</tt>) are double-floats and use primitive <tt>double</tt>
+ * arithmetic.
+ *
+ * Operations on mixed representations follow the contagion rules of Common
+ * Lisp: if either operand is a double-float the result is a double-float,
+ * otherwise if either is a decimal the result is a decimal.
  * @author Jonathan Bernard (jdbernard@gmail.com)
  */
 public class Num implements SExp, Comparable<Num> {
 
-    private BigDecimal n;
+    // representations, in order of contagion
+    private static final int FIXNUM = 0;
+    private static final int BIGNUM = 1;
+    private static final int DECIMAL = 2;
+    private static final int DOUBLE = 3;
+
+    // the precision of decimal quotients that do not terminate
+    private static final MathContext DIVISION_CONTEXT = MathContext.DECIMAL128;
+
+    // small integers are shared, see valueOf
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final Num[] cache = new Num[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < cache.length; ++i)
+            cache[i] = new Num(i + CACHE_LOW);
+    }
+
+    public static final Num ZERO = valueOf(0);
+    public static final Num ONE = valueOf(1);
+
+    private final int kind;
+    private final long fixnum;
+    private final double flonum;
+    private final BigInteger bignum;
+    private final BigDecimal decimal;
 
     public Num(String string) {
-        /*try { n = Short.parseShort(string); return; }
-        catch (NumberFormatException nfe) {}
+        this(parse(string));
+    }
+
+    public Num(long n) {
+        this(FIXNUM, n, 0, null, null);
+    }
+
+    public Num(double n) {
+        this(DOUBLE, 0, n, null, null);
+    }
 
-        try { n = Integer.parseInt(string); return; }
-        catch (NumberFormatException nfe) {}
+    public Num(BigInteger n) {
+        // bignums that fit in a long are kept as fixnums
+        this(n.bitLength() < 64 ? FIXNUM : BIGNUM,
+            n.bitLength() < 64 ? n.longValue() : 0, 0,
+            n.bitLength() < 64 ? null : n, null);
+    }
+
+    public Num(BigDecimal n) {
+        this(DECIMAL, 0, 0, null, n);
+    }
 
-        try { n = Long.parseLong(string); return; }
-        catch (NumberFormatException nfe) {}
+    private Num(Num n) {
+        this(n.kind, n.fixnum, n.flonum, n.bignum, n.decimal);
+    }
 
-        try { n = new BigInteger(string); return; }
-        catch (NumberFormatException nfe) {}
+    private Num(int kind, long fixnum, double flonum, BigInteger bignum,
+    BigDecimal decimal) {
+        this.kind = kind;
+        this.fixnum = fixnum;
+        this.flonum = flonum;
+        this.bignum = bignum;
+        this.decimal = decimal;
+    }
 
-        try { n = Float.parseFloat(string); return; }
-        catch (NumberFormatException nfe) {}
+    /**
+     * Get a fixnum with the given value. Small integers are taken from a
+     * shared cache instead of being allocated.
+     */
+    public static Num valueOf(long n) {
+        if (n >= CACHE_LOW && n <= CACHE_HIGH)
+            return cache[(int) n - CACHE_LOW];
+        return new Num(n);
+    }
+
+    /**
+     * Read a number from its printed representation, as the reader does.
+     * Small integers are taken from the shared cache.
+     */
+    public static Num read(String string) {
+        return read(string, false);
+    }
+
+    /**
+     * Read a number from its printed representation.
+     * @param decimalsAsDouble If true, numbers with a decimal point but no
+     * exponent are read as double-floats rather than exact decimals.
+     */
+    public static Num read(String string, boolean decimalsAsDouble) {
+        if (string.length() <= 18 && isPlainInteger(string))
+            return valueOf(Long.parseLong(string));
+
+        Num n = parse(string);
+        if (decimalsAsDouble && n.kind == DECIMAL)
+            return new Num(n.decimal.doubleValue());
+        return n;
+    }
 
-        try { n = Double.parseDouble(string); return; }
-        catch (NumberFormatException nfe) {}
-*/
-        try { n = new BigDecimal(string); return; }
-        catch (NumberFormatException nfe) {
-            assert(false);
+    private static Num parse(String string) {
+        // the infinities and NaN, as printDouble prints them
+        if (string.equals("+inf.0")) return new Num(Double.POSITIVE_INFINITY);
+        if (string.equals("-inf.0")) return new Num(Double.NEGATIVE_INFINITY);
+        if (string.endsWith("nan.0")) return new Num(Double.NaN);
+
+        int exponent = exponentMarker(string);
+
+        // double-float, the exponent marker is any of e, d, f, s or l
+        if (exponent >= 0)
+            return new Num(Double.parseDouble(string.substring(0, exponent)
+                + "e" + string.substring(exponent + 1)));
+
+        if (string.indexOf('.') >= 0) return new Num(new BigDecimal(string));
+
+        // up to 18 digits always fits in a long
+        if (string.length() <= 18) return new Num(Long.parseLong(string));
+
+        return new Num(new BigInteger(string));
+    }
+
+    private static boolean isPlainInteger(String string) {
+        return string.indexOf('.') < 0 && exponentMarker(string) < 0;
+    }
+
+    private static int exponentMarker(String string) {
+        for (int i = 0; i < string.length(); ++i)
+            if (Character.isLetter(string.charAt(i))) return i;
+        return -1;
+    }
+
+    /** Is this an integer small enough to be held in a <tt>long</tt>? */
+    public boolean isFixnum() { return kind == FIXNUM; }
+
+    /** Is this an integer (a fixnum or a bignum)? */
+    public boolean isInteger() { return kind == FIXNUM || kind == BIGNUM; }
+
+    /** Is this a double-float? */
+    public boolean isDouble() { return kind == DOUBLE; }
+
+    /** The value of a fixnum. */
+    public long longValue() { return fixnum; }
+
+    public double doubleValue() {
+        switch (kind) {
+            case FIXNUM: return fixnum;
+            case BIGNUM: return bignum.doubleValue();
+            case DECIMAL: return decimal.doubleValue();
+            default: return flonum;
         }
     }
 
-    public Num(BigDecimal n) { this.n = n; }
+    public BigInteger toBigInteger() {
+        switch (kind) {
+            case FIXNUM: return BigInteger.valueOf(fixnum);
+            case BIGNUM: return bignum;
+            case DECIMAL: return decimal.toBigInteger();
+            default: return new BigDecimal(flonum).toBigInteger();
+        }
+    }
 
-    /** {@inheritdoc} */
-    public SExp eval(SymbolTable table) {
-        return this;
+    public BigDecimal toBigDecimal() {
+        switch (kind) {
+            case FIXNUM: return BigDecimal.valueOf(fixnum);
+            case BIGNUM: return new BigDecimal(bignum);
+            case DECIMAL: return decimal;
+            default: return new BigDecimal(flonum);
+        }
     }
 
     public String display(String offset) {
-        return offset + "Num: " + n.toString() + "\n";
+        return offset + "Num: " + toString() + "\n";
     }
 
     @Override
     public String toString() {
-        return n.toString();
+        switch (kind) {
+            case FIXNUM: return Long.toString(fixnum);
+            case BIGNUM: return bignum.toString();
+            case DECIMAL: return decimal.toString();
+            default: return printDouble(flonum);
+        }
+    }
+
+    // double-floats are printed with a d exponent so that they read back as
+    // double-floats rather than decimals; the infinities and NaN, which
+    // have no digits, are printed as +inf.0, -inf.0 and +nan.0, which the
+    // reader also reads
+    private static String printDouble(double d) {
+        if (Double.isNaN(d)) return "+nan.0";
+        if (Double.isInfinite(d)) return d > 0 ? "+inf.0" : "-inf.0";
+        String s = Double.toString(d);
+        if (s.indexOf('E') >= 0) return s.replace('E', 'd');
+        return s + "d0";
     }
 
+    /** The representation of the result of an operation on a and b. */
+    private static int contagion(Num a, Num b) {
+        return Math.max(a.kind, b.kind);
+    }
+
+    // In the operations below a fixnum operation that overflows is done
+    // again on bignums.
+
     public Num add(Num addend) {
-        return new Num(n.add(addend.n));
+        switch (contagion(this, addend)) {
+            case FIXNUM:
+                try { return valueOf(Math.addExact(fixnum, addend.fixnum)); }
+                catch (ArithmeticException overflow) {
+                    return bignumAdd(addend);
+                }
+            case BIGNUM:
+                return bignumAdd(addend);
+            case DECIMAL:
+                return new Num(toBigDecimal().add(addend.toBigDecimal()));
+            default:
+                return new Num(doubleValue() + addend.doubleValue());
+        }
     }
 
     public Num subtract(Num subtrahend) {
-        return new Num(n.subtract(subtrahend.n));
+        switch (contagion(this, subtrahend)) {
+            case FIXNUM:
+                try {
+                    return valueOf(
+                        Math.subtractExact(fixnum, subtrahend.fixnum));
+                } catch (ArithmeticException overflow) {
+                    return bignumSubtract(subtrahend);
+                }
+            case BIGNUM:
+                return bignumSubtract(subtrahend);
+            case DECIMAL:
+                return new Num(
+                    toBigDecimal().subtract(subtrahend.toBigDecimal()));
+            default:
+                return new Num(doubleValue() - subtrahend.doubleValue());
+        }
     }
 
     public Num multiply(Num multiplicand) {
-        return new Num(n.multiply(multiplicand.n));
+        switch (contagion(this, multiplicand)) {
+            case FIXNUM:
+                try {
+                    return valueOf(
+                        Math.multiplyExact(fixnum, multiplicand.fixnum));
+                } catch (ArithmeticException overflow) {
+                    return bignumMultiply(multiplicand);
+                }
+            case BIGNUM:
+                return bignumMultiply(multiplicand);
+            case DECIMAL:
+                return new Num(
+                    toBigDecimal().multiply(multiplicand.toBigDecimal()));
+            default:
+                return new Num(doubleValue() * multiplicand.doubleValue());
+        }
     }
 
+    private Num bignumAdd(Num addend) {
+        return new Num(toBigInteger().add(addend.toBigInteger()));
+    }
+
+    private Num bignumSubtract(Num subtrahend) {
+        return new Num(toBigInteger().subtract(subtrahend.toBigInteger()));
+    }
+
+    private Num bignumMultiply(Num multiplicand) {
+        return new Num(toBigInteger().multiply(multiplicand.toBigInteger()));
+    }
+
+    /**
+     * Divide this number by another. Integer quotients stay integers when the
+     * division is exact; otherwise the quotient is a decimal, rounded to 34
+     * significant digits if it does not terminate.
+     * @throws ArithmeticException if the divisor is zero.
+     */
     public Num divideBy(Num divisor) {
-        return new Num(n.divide(divisor.n));
+        if (divisor.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+
+        switch (contagion(this, divisor)) {
+            case FIXNUM:
+                // the least fixnum divided by -1 is a bignum
+                if (divisor.fixnum == -1) return negate();
+                if (fixnum % divisor.fixnum == 0)
+                    return valueOf(fixnum / divisor.fixnum);
+                break;
+            case BIGNUM:
+                BigInteger[] qr = toBigInteger()
+                    .divideAndRemainder(divisor.toBigInteger());
+                if (qr[1].signum() == 0) return new Num(qr[0]);
+                break;
+            case DOUBLE:
+                return new Num(doubleValue() / divisor.doubleValue());
+        }
+
+        return new Num(toBigDecimal().divide(divisor.toBigDecimal(),
+            DIVISION_CONTEXT));
     }
 
     public Num negate() {
-        return new Num(n.negate());
+        switch (kind) {
+            case FIXNUM:
+                // the negation of the least fixnum is a bignum
+                if (fixnum != Long.MIN_VALUE) return valueOf(-fixnum);
+                return new Num(toBigInteger().negate());
+            case BIGNUM: return new Num(bignum.negate());
+            case DECIMAL: return new Num(decimal.negate());
+            default: return new Num(-flonum);
+        }
     }
 
     public Num abs() {
-        return new Num(n.abs());
+        return signum() < 0 ? negate() : this;
     }
 
+    /**
+     * The remainder of truncating division (REM): the result has the sign of
+     * this number.
+     * @throws ArithmeticException if the divisor is zero.
+     */
     public Num remainder(Num divisor) {
-        return new Num(n.remainder(divisor.n));
+        if (divisor.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+
+        switch (contagion(this, divisor)) {
+            case FIXNUM:
+                return valueOf(fixnum % divisor.fixnum);
+            case BIGNUM:
+                return new Num(
+                    toBigInteger().remainder(divisor.toBigInteger()));
+            case DECIMAL:
+                return new Num(
+                    toBigDecimal().remainder(divisor.toBigDecimal()));
+            default:
+                return new Num(doubleValue() % divisor.doubleValue());
+        }
+    }
+
+    /**
+     * The remainder of flooring division (MOD): the result has the sign of
+     * the divisor.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    public Num modulo(Num divisor) {
+        if (contagion(this, divisor) == FIXNUM && divisor.fixnum != 0)
+            return valueOf(Math.floorMod(fixnum, divisor.fixnum));
+
+        Num rem = remainder(divisor);
+        if (rem.signum() != 0 && rem.signum() != divisor.signum())
+            return rem.add(divisor);
+        return rem;
     }
 
+    public int signum() {
+        switch (kind) {
+            case FIXNUM: return Long.signum(fixnum);
+            case BIGNUM: return bignum.signum();
+            case DECIMAL: return decimal.signum();
+            default: return (int) Math.signum(flonum);
+        }
+    }
+
+    /**
+     * Two numbers are equal if they have the same representation and value
+     * (EQL in Common Lisp): <tt>1</tt> and <tt>1.0d0</tt> are different, as
+     * are <tt>1.0</tt> and <tt>1</tt>, but <tt>1.0</tt> and <tt>1.00</tt>
+     * are the same.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Num)) return false;
+
+        Num that = (Num) o;
+        if (kind != that.kind) return false;
+
+        switch (kind) {
+            case FIXNUM: return fixnum == that.fixnum;
+            case BIGNUM: return bignum.equals(that.bignum);
+            case DECIMAL: return decimal.compareTo(that.decimal) == 0;
+            default:
+                return Double.doubleToLongBits(flonum)
+                    == Double.doubleToLongBits(that.flonum);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        switch (kind) {
+            case FIXNUM: return Long.hashCode(fixnum);
+            case BIGNUM: return bignum.hashCode();
+            case DECIMAL:
+                // decimals that differ only in scale are equal
+                return decimal.signum() == 0 ? 0
+                    : decimal.stripTrailingZeros().hashCode();
+            default: return Double.hashCode(flonum);
+        }
+    }
+
+    /** Is this a double-float NaN, which is not ordered with any number? */
+    public boolean isNaN() { return kind == DOUBLE && Double.isNaN(flonum); }
+
+    /**
+     * The numeric comparisons of =, <, <= and the others. These are false
+     * when either number is a NaN, so they do not go through compareTo,
+     * which has to put a NaN somewhere in its order.
+     */
+    public boolean numEquals(Num that) {
+        return !isNaN() && !that.isNaN() && compareTo(that) == 0;
+    }
+
+    public boolean lessThan(Num that) {
+        return !isNaN() && !that.isNaN() && compareTo(that) < 0;
+    }
+
+    public boolean lessOrEqual(Num that) {
+        return !isNaN() && !that.isNaN() && compareTo(that) <= 0;
+    }
+
+    /**
+     * A total order of numbers by value, as for sorting. Zeros of either
+     * sign are the same, and a NaN comes after every other number; use the
+     * numeric comparisons above to compare as =, < and the others do.
+     */
     @Override
     public int compareTo(Num that) {
-        return this.n.compareTo(that.n);
+        switch (contagion(this, that)) {
+            case FIXNUM:
+                return Long.compare(fixnum, that.fixnum);
+            case BIGNUM:
+                return toBigInteger().compareTo(that.toBigInteger());
+            case DECIMAL:
+                return toBigDecimal().compareTo(that.toBigDecimal());
+            default:
+                double a = doubleValue(), b = that.doubleValue();
+                if (a < b) return -1;
+                if (a > b) return 1;
+                return a == b ? 0 : Double.compare(a, b);
+        }
     }
 }
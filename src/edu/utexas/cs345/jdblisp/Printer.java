@@ -0,0 +1,277 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Printer
+ * Writes the printed representation of objects to an <tt>Appendable</tt>.
+ * Lists and vectors are printed with an explicit stack of the ones still
+ * open, so neither the length nor the depth of a structure is limited by
+ * the Java stack, and the output is written as it is produced.
+ *
+ * A printer may limit the output like the Common Lisp printer variables:
+ * <ul>
+ * <li>*PRINT-LENGTH*: the number of elements printed of each list or
+ * vector; the rest are printed as "...".</li>
+ * <li>*PRINT-LEVEL*: the depth of nesting printed; deeper lists and vectors
+ * are printed as "#".</li>
+ * <li>*PRINT-CIRCLE*: if true, lists, tails and vectors that are reached
+ * more than once are labeled with #n= where first printed and printed as
+ * #n# after that, so circular structure can be printed.</li>
+ * </ul>
+ */
+public class Printer {
+
+    static final Symbol PRINT_CIRCLE    = Symbol.intern("*PRINT-CIRCLE*");
+    static final Symbol PRINT_LENGTH    = Symbol.intern("*PRINT-LENGTH*");
+    static final Symbol PRINT_LEVEL     = Symbol.intern("*PRINT-LEVEL*");
+
+    /** A printer without limits, used for <tt>toString</tt>. */
+    public static final Printer UNLIMITED = new Printer(-1, -1, false);
+
+    private final int maxLength;        // -1 for no limit
+    private final int maxLevel;         // -1 for no limit
+    private final boolean circle;
+
+    public Printer(int maxLength, int maxLevel, boolean circle) {
+        this.maxLength = maxLength;
+        this.maxLevel = maxLevel;
+        this.circle = circle;
+    }
+
+    /** Define the printer variables, initially NIL. */
+    static void defineVariables(SymbolTable globals) throws LispException {
+        globals.define(PRINT_CIRCLE, SExp.NIL, false,
+            new HelpTopic(PRINT_CIRCLE.name, "variable", "If true, shared "
+                + "and circular structure is printed with #n= labels and "
+                + "#n# references."));
+        globals.define(PRINT_LENGTH, SExp.NIL, false,
+            new HelpTopic(PRINT_LENGTH.name, "variable", "The number of "
+                + "elements printed of each list or vector, or NIL for "
+                + "all of them."));
+        globals.define(PRINT_LEVEL, SExp.NIL, false,
+            new HelpTopic(PRINT_LEVEL.name, "variable", "The depth of "
+                + "nested lists and vectors printed, or NIL for any depth."));
+    }
+
+    /** A printer with the limits given by the current printer variables. */
+    static Printer fromVariables(SymbolTable globals) throws LispException {
+        return new Printer(limit(globals, PRINT_LENGTH),
+            limit(globals, PRINT_LEVEL),
+            !SExp.NIL.equals(value(globals, PRINT_CIRCLE)));
+    }
+
+    public String toString(SExp object) {
+        StringBuilder sb = new StringBuilder();
+        try { print(object, sb); }
+        catch (IOException ioe) {
+            // a StringBuilder does not throw
+            throw new IllegalStateException(ioe);
+        }
+        return sb.toString();
+    }
+
+    public void print(SExp object, Appendable out) throws IOException {
+        Output output = new Output(out, circle ? shared(object) : null);
+        output.object(object, 0);
+        while (!output.open.isEmpty()) output.step();
+    }
+
+    // --------
+    // PRINTING
+    // --------
+
+    /** A list or vector being printed. */
+    private static class Frame {
+        Cons next;          // the rest of a list
+        SExp dotted;        // the cdr of a dotted pair, still to be printed
+        final Vector vector;
+        int index = 0;      // the number of elements printed
+        final int level;    // the depth of the elements
+
+        Frame(Cons next, Vector vector, int level) {
+            this.next = next;
+            this.vector = vector;
+            this.level = level;
+        }
+
+        boolean done() {
+            if (vector != null) return index >= vector.length();
+            return next == null && dotted == null;
+        }
+    }
+
+    /** The state of one call to {@link #print}. */
+    private class Output {
+
+        final Appendable out;
+        final ArrayList<Frame> open = new ArrayList<Frame>();
+
+        // shared structure and its labels, 0 until the label is printed
+        final IdentityHashMap<Object, Integer> labels;
+        int nextLabel = 1;
+
+        Output(Appendable out, IdentityHashMap<Object, Integer> labels) {
+            this.out = out;
+            this.labels = labels;
+        }
+
+        /** Print an atom, or open a list or vector. */
+        void object(SExp x, int level) throws IOException {
+            if (x == null || x == SExp.NIL) {
+                out.append("NIL");
+                return;
+            }
+
+            if (!(x instanceof Cons || x instanceof Vector)) {
+                out.append(x.toString());
+                return;
+            }
+
+            if (maxLevel >= 0 && level >= maxLevel) {
+                out.append('#');
+                return;
+            }
+
+            if (reference(x)) return;
+
+            if (x instanceof Cons) {
+                out.append('(');
+                open.add(new Frame((Cons) x, null, level + 1));
+            } else {
+                out.append("#(");
+                open.add(new Frame(null, (Vector) x, level + 1));
+            }
+        }
+
+        /**
+         * Print the label of shared structure.
+         * @return If the structure was printed before, so that the label
+         * stands in for it.
+         */
+        boolean reference(Object o) throws IOException {
+            if (labels == null) return false;
+            Integer label = labels.get(o);
+            if (label == null) return false;
+
+            if (label > 0) {
+                out.append('#').append(label.toString()).append('#');
+                return true;
+            }
+
+            labels.put(o, nextLabel);
+            out.append('#').append(Integer.toString(nextLabel++)).append('=');
+            return false;
+        }
+
+        /** Print the next element of the innermost open list or vector. */
+        void step() throws IOException {
+            Frame f = open.get(open.size() - 1);
+
+            if (f.done()) {
+                out.append(')');
+                open.remove(open.size() - 1);
+                return;
+            }
+
+            if (f.index > 0) out.append(' ');
+
+            if (f.dotted != null) {
+                out.append(". ");
+                SExp dotted = f.dotted;
+                f.dotted = null;
+                object(dotted, f.level);
+                return;
+            }
+
+            if (maxLength >= 0 && f.index >= maxLength) {
+                out.append("...)");
+                open.remove(open.size() - 1);
+                return;
+            }
+
+            if (f.vector != null) {
+                object(f.vector.element(f.index++), f.level);
+                return;
+            }
+
+            Cons cell = f.next;
+
+            // a shared tail is printed as a dotted list so it can be labeled
+            if (f.index > 0 && labels != null && labels.containsKey(cell)) {
+                out.append(". ");
+                f.next = null;
+                object(cell, f.level - 1);
+                return;
+            }
+
+            ++f.index;
+            f.next = cell.next();
+            if (f.next == null && cell.cdr != SExp.NIL) f.dotted = cell.cdr;
+
+            object(cell.car, f.level);
+        }
+    }
+
+    /**
+     * Find the lists, tails and vectors reachable more than once from an
+     * object. The walk stops at a cell seen before, so it ends on circular
+     * structure.
+     */
+    private static IdentityHashMap<Object, Integer> shared(SExp object) {
+        IdentityHashMap<Object, Boolean> seen =
+            new IdentityHashMap<Object, Boolean>();
+        IdentityHashMap<Object, Integer> shared =
+            new IdentityHashMap<Object, Integer>();
+        ArrayList<SExp> pending = new ArrayList<SExp>();
+        pending.add(object);
+
+        while (!pending.isEmpty()) {
+            SExp x = pending.remove(pending.size() - 1);
+
+            if (x instanceof Vector) {
+                if (seen.put(x, Boolean.TRUE) != null) {
+                    shared.put(x, 0);
+                    continue;
+                }
+                Vector v = (Vector) x;
+                for (int i = 0; i < v.length(); ++i) pending.add(v.element(i));
+            }
+
+            else if (x instanceof Cons) {
+                SExp s = x;
+                while (s instanceof Cons) {
+                    if (seen.put(s, Boolean.TRUE) != null) {
+                        shared.put(s, 0);
+                        break;
+                    }
+                    pending.add(((Cons) s).car);
+                    s = ((Cons) s).cdr;
+                }
+
+                // the tail of a dotted list
+                if (!(s instanceof Cons)) pending.add(s);
+            }
+        }
+
+        return shared;
+    }
+
+    private static SExp value(SymbolTable globals, Symbol name)
+    throws LispException {
+        VariableEntry ve = globals.lookupVariable(name);
+        return ve == null ? SExp.NIL : ve.value;
+    }
+
+    /** The value of a limit variable, -1 if it is not a fixnum. */
+    private static int limit(SymbolTable globals, Symbol name)
+    throws LispException {
+        SExp value = value(globals, name);
+        if (!(value instanceof Num)) return -1;
+        Num n = (Num) value;
+        if (!n.isFixnum() || n.signum() < 0) return -1;
+        return (int) Math.min(Integer.MAX_VALUE, n.longValue());
+    }
+}
@@ -0,0 +1,30 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * PrognNode
+ * Evaluates a series of forms and returns the value of the last one.
+ */
+public class PrognNode extends Node {
+
+    public final Node[] forms;
+
+    public PrognNode(Node[] forms) { this.forms = forms; }
+
+    public Node inTailPosition() {
+        if (forms.length == 0) return this;
+
+        // only the last form is in tail position
+        Node[] tailForms = forms.clone();
+        tailForms[forms.length - 1] = forms[forms.length - 1].inTailPosition();
+        return new PrognNode(tailForms);
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        SExp result = SExp.NIL;
+
+        // evaluate all forms, left to right
+        for (Node form : forms) result = form.eval(frame);
+
+        return result;
+    }
+}
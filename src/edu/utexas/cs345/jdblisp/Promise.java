@@ -0,0 +1,52 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * Promise
+ * A value computed when it is first forced, as made by DELAY. The value is
+ * kept, so later forces return it without computing it again, and the
+ * thunk is dropped once it has run, so that a forced promise holds on to
+ * nothing but its value.
+ */
+public class Promise implements SExp {
+
+    private FormEntry thunk;
+    private SExp value = null;
+    private boolean forced = false;
+
+    /** @param thunk A function of no arguments that computes the value. */
+    public Promise(FormEntry thunk) { this.thunk = thunk; }
+
+    /** For promises that compute their value natively. */
+    protected Promise() { this.thunk = null; }
+
+    public boolean isForced() { return forced; }
+
+    public SExp force() throws LispException {
+        if (!forced) {
+            SExp v = compute();
+
+            // computing the value may have forced this promise already
+            if (!forced) {
+                value = v;
+                forced = true;
+                release();
+            }
+        }
+        return value;
+    }
+
+    /** Compute the value. */
+    protected SExp compute() throws LispException { return thunk.call0(); }
+
+    /** Drop what was needed to compute the value. */
+    protected void release() { thunk = null; }
+
+    public String display(String offset) {
+        return offset + "Promise: " + toString() + "\n";
+    }
+
+    @Override
+    public String toString() {
+        return forced ? "#<PROMISE FORCED>" : "#<PROMISE>";
+    }
+}
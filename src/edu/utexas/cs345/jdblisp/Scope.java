@@ -0,0 +1,128 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.ArrayList;
+
+/**
+ * Scope
+ * The analysis-time counterpart of a {@link edu.utexas.cs345.jdblisp.Frame}.
+ * A scope assigns a slot to every variable and local function bound in a
+ * function body. Blocks nested in the body (LET, LET*, LABELS) allocate their
+ * slots in the same frame and release the names, but not the slots, when the
+ * block ends, so closures created in a block keep their own slots.
+ *
+ * A name bound in an enclosing scope is captured: it is given a slot in the
+ * closure record of this scope, which is the parent of the frame at run
+ * time. Lexical references are therefore at most one level deep.
+ */
+class Scope {
+
+    private static class Binding {
+        final Symbol symbol;
+        final boolean function;
+        final int slot;
+        final boolean cell;
+
+        Binding(Symbol symbol, boolean function, int slot, boolean cell) {
+            this.symbol = symbol;
+            this.function = function;
+            this.slot = slot;
+            this.cell = cell;
+        }
+    }
+
+    /** A resolved lexical variable or local function. */
+    static class Ref {
+        final int depth;
+        final int slot;
+        final boolean cell;
+
+        Ref(int depth, int slot, boolean cell) {
+            this.depth = depth;
+            this.slot = slot;
+            this.cell = cell;
+        }
+    }
+
+    final Scope parent;
+
+    private ArrayList<Binding> bindings = new ArrayList<Binding>();
+    private int size = 0;
+
+    // names captured from enclosing scopes, and references to them in the
+    // frame of the parent scope
+    private ArrayList<Binding> captured = new ArrayList<Binding>();
+    private ArrayList<Node> captures = new ArrayList<Node>();
+
+    Scope(Scope parent) { this.parent = parent; }
+
+    /** The number of slots a frame for this scope needs. */
+    int size() { return size; }
+
+    /**
+     * Allocate a slot for a variable.
+     * @param cell <b>true</b> if the variable is held in a {@link Cell}.
+     * @return The slot index.
+     */
+    int bindVariable(Symbol s, boolean cell) {
+        bindings.add(new Binding(s, false, size, cell));
+        return size++;
+    }
+
+    /**
+     * Allocate a slot for a local function.
+     * @return The slot index.
+     */
+    int bindFunction(Symbol s) {
+        bindings.add(new Binding(s, true, size, false));
+        return size++;
+    }
+
+    /** Mark the start of a block. */
+    int mark() { return bindings.size(); }
+
+    /** Forget the names bound since the given mark. */
+    void release(int mark) {
+        while (bindings.size() > mark) bindings.remove(bindings.size() - 1);
+    }
+
+    /**
+     * Resolve a name to its binding in this scope or, capturing it, in an
+     * enclosing scope.
+     * @param function <b>true</b> to look in the function namespace.
+     * @return The reference, or <b>null</b> if the name is not lexically
+     * bound.
+     */
+    Ref resolve(Symbol s, boolean function) {
+        Binding b = find(bindings, s, function);
+        if (b != null) return new Ref(0, b.slot, b.cell);
+
+        b = find(captured, s, function);
+        if (b != null) return new Ref(1, b.slot, b.cell);
+
+        if (parent == null) return null;
+        Ref outer = parent.resolve(s, function);
+        if (outer == null) return null;
+
+        // copy the value (or the cell) into the closure record
+        b = new Binding(s, function, captured.size(), outer.cell);
+        captured.add(b);
+        captures.add(new LocalVariableNode(s, outer.depth, outer.slot));
+        return new Ref(1, b.slot, b.cell);
+    }
+
+    /**
+     * References, in the frame of the parent scope, to the names captured by
+     * this scope, in the order of the slots of the closure record.
+     */
+    Node[] captures() { return captures.toArray(new Node[captures.size()]); }
+
+    /** Find the innermost binding of a name in a list of bindings. */
+    private static Binding find(ArrayList<Binding> list, Symbol s,
+    boolean function) {
+        for (int i = list.size() - 1; i >= 0; --i) {
+            Binding b = list.get(i);
+            if (b.function == function && b.symbol.equals(s)) return b;
+        }
+        return null;
+    }
+}
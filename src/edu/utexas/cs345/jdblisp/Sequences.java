@@ -0,0 +1,102 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sequences
+ * Iteration over sequences, proper lists and vectors, for the native
+ * sequence functions. The elements are visited in a loop, so a sequence
+ * function uses no Java stack for the length of its argument.
+ */
+public class Sequences {
+
+    private Sequences() {}
+
+    /**
+     * Iterate over the elements of a list or the active elements of a
+     * vector.
+     * @throws edu.utexas.cs345.jdblisp.TypeException if the object is not a
+     * sequence.
+     */
+    public static Iterator<SExp> iterator(SExp sequence) throws TypeException {
+        if (sequence instanceof Vector)
+            return new VectorIterator((Vector) sequence);
+        return new ListIterator(Cons.list(sequence));
+    }
+
+    /** The number of elements of a list or the active ones of a vector. */
+    public static int length(SExp sequence) throws TypeException {
+        if (sequence instanceof Vector) return ((Vector) sequence).length();
+        return Cons.length(Cons.list(sequence));
+    }
+
+    /** The elements of a sequence in an array. */
+    public static SExp[] toArray(SExp sequence) throws TypeException {
+        SExp[] elements = new SExp[length(sequence)];
+        Iterator<SExp> it = iterator(sequence);
+        for (int i = 0; i < elements.length; ++i) elements[i] = it.next();
+        return elements;
+    }
+
+    private static class ListIterator implements Iterator<SExp> {
+        private Cons next;
+
+        ListIterator(Cons list) { next = list; }
+
+        public boolean hasNext() { return next != null; }
+
+        public SExp next() {
+            if (next == null) throw new NoSuchElementException();
+            SExp element = next.car;
+            next = next.next();
+            return element;
+        }
+
+        public void remove() { throw new UnsupportedOperationException(); }
+    }
+
+    private static class VectorIterator implements Iterator<SExp> {
+        private final Vector vector;
+        private int index = 0;
+
+        VectorIterator(Vector vector) { this.vector = vector; }
+
+        // the length is checked at each step, as the fill pointer may move
+        public boolean hasNext() { return index < vector.length(); }
+
+        public SExp next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return vector.element(index++);
+        }
+
+        public void remove() { throw new UnsupportedOperationException(); }
+    }
+
+    /**
+     * Builds a proper list from the front, keeping its last cell so that
+     * each element is added in constant time.
+     */
+    public static class ListBuilder {
+        private SExp head = SExp.NIL;
+        private Cons last = null;
+
+        public void add(SExp element) {
+            Cons cell = new Cons(element, SExp.NIL);
+            if (last == null) head = cell;
+            else last.setCdr(cell);
+            last = cell;
+        }
+
+        public boolean isEmpty() { return last == null; }
+
+        /** The list built, ended by the given tail. */
+        public SExp list(SExp tail) {
+            if (last == null) return tail;
+            last.setCdr(tail);
+            return head;
+        }
+
+        public SExp list() { return list(SExp.NIL); }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * SetqNode
+ * Assignment to a global (or dynamically bound) variable.
+ */
+public class SetqNode extends Node {
+
+    private final SymbolTable globals;
+    public final Symbol variable;
+    public final Node value;
+
+    // the cell of the variable, found by the first assignment
+    private VariableEntry cell = null;
+
+    public SetqNode(SymbolTable globals, Symbol variable, Node value) {
+        this.globals = globals;
+        this.variable = variable;
+        this.value = value;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        SExp variableValue = value.eval(frame);
+
+        if (cell == null) {
+            cell = globals.lookupVariable(variable);
+
+            if (cell == null)
+                throw new LispException("No such variable defined: "
+                    + variable.name);
+        }
+
+        return cell.set(variableValue);
+    }
+}
@@ -1,8 +1,8 @@
 package edu.utexas.cs345.jdblisp;
 
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.Set;
 
 /**
  * SpecialFormEntry
@@ -19,9 +19,26 @@ public abstract class SpecialFormEntry extends FormEntry {
         this.environment = environment;
     }
 
-    public abstract SExp call(SymbolTable symbolTable, Seq arguments)
+    /**
+     * Analyze a use of this special form into an executable node. This is
+     * where the form destructures its (unevaluated) arguments, so it happens
+     * once per use of the form rather than every time it is evaluated.
+     * @param analyzer The analyzer to use for any subforms.
+     * @param arguments The unevaluated arguments to the form.
+     */
+    public abstract Node analyze(Analyzer analyzer, Cons arguments)
         throws LispException;
 
+    /**
+     * Special forms are not functions and cannot be called with evaluated
+     * arguments.
+     */
+    public SExp call(SExp[] arguments)
+    throws LispException {
+        throw new LispException(symbol.name + " is a special form, not a "
+            + "function.");
+    }
+
     @Override
     public String display(String offset) {
         return offset + "Special Form Entry: " + symbol.toString();
@@ -32,43 +49,30 @@ public abstract class SpecialFormEntry extends FormEntry {
         return "<SPECIAL-FORM (" + symbol.toString() + ") >";
     }
 
-    static final Symbol LTE                 = new Symbol("<=");
-    static final Symbol LT                  = new Symbol("<");
-    static final Symbol NUMEQ               = new Symbol("=");
-    static final Symbol NUMNOTEQ            = new Symbol("/=");
-    static final Symbol GT                  = new Symbol(">");
-    static final Symbol GTE                 = new Symbol(">=");
-    static final Symbol DIV                 = new Symbol("/");
-    static final Symbol DIF                 = new Symbol("-");
-    static final Symbol MUL                 = new Symbol("*");
-    static final Symbol SUM                 = new Symbol("+");
-    static final Symbol CAR                 = new Symbol("CAR");
-    static final Symbol CDR                 = new Symbol("CDR");
-    static final Symbol CONS                = new Symbol("CONS");
-    static final Symbol DEFUN               = new Symbol("DEFUN");
-    static final Symbol DEFPARAMETER        = new Symbol("DEFPARAMETER");
-    static final Symbol DEFVAR              = new Symbol("DEFVAR");
-    static final Symbol ENABLEDEBUGAST      = new Symbol("ENABLE-DEBUG-AST");
-    static final Symbol FUNCTION            = new Symbol("FUNCTION");
-    static final Symbol FUNCALL             = new Symbol("FUNCALL");
-    static final Symbol GETF                = new Symbol("GETF");
-    static final Symbol HELP                = new Symbol("HELP");
-    static final Symbol IF                  = new Symbol("IF");
-    static final Symbol LABELS              = new Symbol("LABELS");
-    static final Symbol LAMBDA              = new Symbol("LAMBDA");
-    static final Symbol LET                 = new Symbol("LET");
-    static final Symbol LET_STAR            = new Symbol("LET*");
-    static final Symbol LETREC              = new Symbol("LETREC");
-    static final Symbol LIST                = new Symbol("LIST");
-    static final Symbol MOD                 = new Symbol("MOD");
-    static final Symbol NOT                 = new Symbol("NOT");
-    static final Symbol NULL                = new Symbol("NULL?");
-    static final Symbol QUOTE               = new Symbol("QUOTE");
-    static final Symbol PROGN               = new Symbol("PROGN");
-    static final Symbol REM                 = new Symbol("REM");
-    static final Symbol SETQ                = new Symbol("SETQ");
-    static final Symbol TRACE               = new Symbol("TRACE");
-    static final Symbol QUIT                = new Symbol("QUIT");
+    static final Symbol DEFCONSTANT         = Symbol.intern("DEFCONSTANT");
+    static final Symbol DEFUN               = Symbol.intern("DEFUN");
+    static final Symbol DEFUN_MEMO          = Symbol.intern("DEFUN-MEMO");
+    static final Symbol DEFPARAMETER        = Symbol.intern("DEFPARAMETER");
+    static final Symbol DEFVAR              = Symbol.intern("DEFVAR");
+    static final Symbol DELAY               = Symbol.intern("DELAY");
+    static final Symbol FUNCTION            = Symbol.intern("FUNCTION");
+    static final Symbol FUNCALL             = Symbol.intern("FUNCALL");
+    static final Symbol HELP                = Symbol.intern("HELP");
+    static final Symbol IF                  = Symbol.intern("IF");
+    static final Symbol LABELS              = Symbol.intern("LABELS");
+    static final Symbol LAMBDA              = Symbol.intern("LAMBDA");
+    static final Symbol LAZY_CONS           = Symbol.intern("LAZY-CONS");
+    static final Symbol LET                 = Symbol.intern("LET");
+    static final Symbol LET_STAR            = Symbol.intern("LET*");
+    static final Symbol LETREC              = Symbol.intern("LETREC");
+    static final Symbol QUOTE               = Symbol.intern("QUOTE");
+    static final Symbol PROGN               = Symbol.intern("PROGN");
+    static final Symbol POP                 = Symbol.intern("POP");
+    static final Symbol PUSH                = Symbol.intern("PUSH");
+    static final Symbol SETF                = Symbol.intern("SETF");
+    static final Symbol SETQ                = Symbol.intern("SETQ");
+    static final Symbol TRACE               = Symbol.intern("TRACE");
+    static final Symbol QUIT                = Symbol.intern("QUIT");
 
     // ------------------------
     // SPECIAL FORMS DEFINITION
@@ -82,577 +86,6 @@ public abstract class SpecialFormEntry extends FormEntry {
      */
     public static void defineSpecialForms(LISPRuntime environment) {
 
-        // ---
-        // LTE
-        // ---
-
-        final SpecialFormEntry LTE = new SpecialFormEntry(
-            SpecialFormEntry.LTE, environment,
-            new FormHelpTopic("<=", "Less than or equal to",
-                "(<= <number>*) => <result>",
-                "The value of <= is true if the numbers are in monotonically "
-                    + "nondecreasing order; otherwise it is false.",
-                "number", "a real",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                // check that there is at least one argument
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current > next, return false
-                    if (current.compareTo(next) > 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are nondecreasing, return true
-                return SExp.T;
-            }
-        };
-
-        // --
-        // LT
-        // --
-
-        final SpecialFormEntry LT = new SpecialFormEntry(
-            SpecialFormEntry.LT, environment,
-            new FormHelpTopic("<", "Less than",
-                "(< <number>*) => <result>",
-                "The value of < is true if the numbers are in monotonically "
-                    + "increasing order; otherwise it is false.",
-                "number", "a real",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current >= next, return false
-                    if (current.compareTo(next) >= 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are increasing, return true
-                return SExp.T;
-            }
-        };
-
-        // ---------
-        // NUMEQ (=) 
-        // ---------
-
-        final SpecialFormEntry NUMEQ = new SpecialFormEntry(
-            SpecialFormEntry.NUMEQ, environment,
-            new FormHelpTopic("=", "Equal to",
-                "(= <number>*) => <result>",
-                "The value of = is true if all numbers are the same in value.",
-                "number", "a number",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current != next, return false
-                    if (current.compareTo(next) != 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are equal, return true
-                return SExp.T;
-            }
-        };
-
-        // -------------
-        // NUMNOTEQ (/=) 
-        // -------------
-
-        final SpecialFormEntry NUMNOTEQ = new SpecialFormEntry(
-            SpecialFormEntry.NUMNOTEQ, environment,
-            new FormHelpTopic("/=", "Not equal to",
-                "(/= <number>*) => <result>",
-                "The value of /= is true if no two numbers are the same in value.",
-                "number", "a number",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current == next, return false
-                    if (current.compareTo(next) == 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are non-equal, return true
-                return SExp.T;
-            }
-        };
-
-        // --
-        // GT
-        // --
-
-        final SpecialFormEntry GT = new SpecialFormEntry(
-            SpecialFormEntry.GT, environment,
-            new FormHelpTopic(">", "Greater than",
-                "(> <number>*) => <result>",
-                "The value of > is true if the numbers are in monotonically "
-                    + "decreasing order; otherwise it is false.",
-                "number", "a number",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current <= next, return false
-                    if (current.compareTo(next) <= 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are decreasing, return true
-                return SExp.T;
-            }
-        };
-
-        // ---
-        // GTE
-        // ---
-
-        final SpecialFormEntry GTE = new SpecialFormEntry(
-            SpecialFormEntry.GTE, environment,
-            new FormHelpTopic(">=", "Greater than or equal to",
-                "(>= <number>*) => <result>",
-                "The value of > is true if the numbers are in monotonically "
-                    + "non-increasing order; otherwise it is false.",
-                "number", "a number",
-                "result", "a boolean"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num current;
-                Num next;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // get first number
-                current = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                // advance to next argument
-                arguments = arguments.cdr;
-
-                while(arguments != null) {
-                    // get next number
-                    next = TypeUtil.attemptCast(Num.class,
-                        arguments.car.eval(symbolTable));
-
-                    // current < next, return false
-                    if (current.compareTo(next) < 0) return SExp.NIL;
-
-                    // next becomes current
-                    current = next;
-
-                    // advance to next argument
-                    arguments = arguments.cdr;
-                }
-
-                // all are non-increasing, return true
-                return SExp.T;
-            }
-        };
-
-        // ---
-        // DIV
-        // ---
-
-        final SpecialFormEntry DIV = new SpecialFormEntry(
-            SpecialFormEntry.DIV, environment,
-            new FormHelpTopic("/", "Divide several expressions.",
-                "(- divisor) | (- dividend <divisor_1> [... <divisor_n>])",
-                "Perform division. If there is only one argument passed "
-                    + "then result = 1/ arg. If multiple arguments are passed"
-                    + " then result = arg_1 / arg_2 / ... / args_n, computed "
-                    + "from left to right. In general, expressions are "
-                    + "evaluated before being bound  to function parameters. "
-                    + "The expressions passed to / must evaluate to numbers.",
-                "dividend", "In the case of multiple arguments to /, this is "
-                    + "the number which is diveded.",
-                "divisor_1 ... divisor_n", "Divisors are the numbers dividing "
-                    + "the dividend and may be any expression that evaluates "
-                    + "to a number."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num dividend = new Num("1");
-                Num firstArg;
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // case: only one argument: 1 / arg
-                firstArg = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-
-                dividend = dividend.divideBy(firstArg);
-
-                arguments = arguments.cdr;
-                if (arguments == null) return dividend;
-
-                // case: (/ x y1 ... yn)
-                dividend = firstArg;
-
-                // variable number of arguments [0..inf)
-                while (arguments != null) {
-                    dividend = dividend.divideBy(TypeUtil.attemptCast(
-                        Num.class,
-                        arguments.car.eval(symbolTable)));
-                    arguments = arguments.cdr;
-                }
-
-                return dividend;
-            }
-        };
-
-        // ---
-        // DIF
-        // ---
-
-        final SpecialFormEntry DIF = new SpecialFormEntry(
-            SpecialFormEntry.DIF, environment,
-            new FormHelpTopic("-", "Subtract several expressions.",
-                "(- subtrahend) | (- <minuend> <subtrahend_1> [... <subtrahend_n>])",
-                "Perform a subtraction. If there is only one argument passed "
-                    + "then result = 0 - arg. If multiple arguments are passed"
-                    + " then result = arg_1 - arg_2 - ... - args_n. In "
-                    + "general, expressions are evaluated before being bound "
-                    + " to function parameters. The expressions passed to - "
-                    + "must evaluate to numbers.",
-                "minuend", "In the case of multiple arguments to -, this is "
-                    + "the number from which the others are subtracted.",
-                "subtrahend_1 ... subtrahend_n", "Subtrahends are numbers "
-                    + "subtracted from the minuend and may be any expression "
-                    + "that evaluates to a number."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num difference = new Num("0");
-
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "at least one argument is required.");
-
-                // case: only one argument: 0 - arg
-                difference = difference.subtract(TypeUtil.attemptCast(
-                    Num.class,
-                    arguments.car.eval(symbolTable)));
-
-                arguments = arguments.cdr;
-                if (arguments == null) return difference;
-
-                // case: (- x y1 ... yn)
-                difference = difference.negate();
-
-                // variable number of arguments [0..inf)
-                while (arguments != null)  {
-                    difference = difference.subtract(TypeUtil.attemptCast(
-                        Num.class,
-                        arguments.car.eval(symbolTable)));
-                    arguments = arguments.cdr;
-                }
-
-                return difference;
-            }
-        };
-
-        // ---
-        // MUL
-        // ---
-
-        final SpecialFormEntry MUL = new SpecialFormEntry(
-            SpecialFormEntry.MUL, environment,
-            new FormHelpTopic("*", "Multiply several expressions.",
-                "(+ [<multiplicand_1> ... <multiplicand_n>])",
-                "Compute the product of the zero or more expressions passed"
-                    + "as arguments. In general, expressions are evaluated "
-                    + "before being bound to function parameters. The"
-                    + " expressions passed to multiply must evaluate to numbers.",
-                "multiplicand_1 ... multiplicand_n", "Multiplicands may be "
-                    + "any expression that evaluates to a number."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num product = new Num("1");
-
-                // variable number of arguments [0..inf)
-                while (arguments != null) {
-                    product = product.multiply(TypeUtil.attemptCast(
-                        Num.class, arguments.car.eval(symbolTable)));
-                    arguments = arguments.cdr;
-                }
-
-                return product;
-            }
-        };
-
-        // ---
-        // SUM
-        // ---
-
-        final SpecialFormEntry SUM = new SpecialFormEntry(
-            SpecialFormEntry.SUM, environment,
-            new FormHelpTopic("+", "Sum several expressions.",
-                "(+ [<addend_1> ... <addend_n>])",
-                "Compute the summation of the zero or more expressions passed"
-                    + "as arguments. In general, expressions are evaluated "
-                    + "before being bound to function parameters. The"
-                    + " expressions passed to sum must evaluate to numbers.",
-                "addend_1 ... addend_n", "Addends may be any expression that "
-                    + "evaluates to a number."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                Num sum = new Num("0");
-
-                // variable number of arguments [0..inf)
-                while (arguments != null) {
-                    sum = sum.add(TypeUtil.attemptCast(
-                        Num.class,arguments.car.eval(symbolTable)));
-                    arguments = arguments.cdr;
-                }
-
-                return sum;
-            }
-        };
-
-        // ---
-        // CAR
-        // ---
-
-        final SpecialFormEntry CAR = new SpecialFormEntry(
-            SpecialFormEntry.CAR, environment,
-            new FormHelpTopic("CAR", "get first element of a list",
-                "(car <List>) => <SExp>",
-                "Return the first element of a List or Cons",
-                "List", "a list",
-                "car", "an sexp"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-     
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(), 1);
-
-                SExp evaluatedArg = arguments.car.eval(symbolTable);
-
-                // check for NIL case
-                if (SExp.NIL.equals(evaluatedArg)) return SExp.NIL;
-
-                // TypeUtil.attemptCast is not quite good enough here, we need
-                // to check against two possible classes.
-                if (evaluatedArg instanceof List) 
-                    return ((List) evaluatedArg).seq.car;
-
-                // rare use case, but possible and the CL spec says it should still accept
-                else if (evaluatedArg instanceof Seq) 
-                    return ((Seq) evaluatedArg).car;
-                else throw new TypeException(arguments.car, List.class);
-            }
-        };   
-
-        // ---
-        // CDR
-        // ---
-
-        final SpecialFormEntry CDR = new SpecialFormEntry(
-            SpecialFormEntry.CDR, environment,
-            new FormHelpTopic("CDR", "get the cdr of a list or cons",
-                "(cdr <List>) => <SExp>",
-                "Returns the cdr of a List or Cons",
-                "List", "a list",
-                "cdr", "an sexp"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-     
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(toString(), 1);
-
-                SExp evaluatedArg = arguments.car.eval(symbolTable);
-
-                // check for NIL case
-                if (SExp.NIL.equals(evaluatedArg)) return SExp.NIL;
-
-                // TypeUtil.attemptCast is not quite good enough here, we need
-                // to check against two possible classes.
-                if (evaluatedArg instanceof List) 
-                    return new List(((List) evaluatedArg).seq.cdr);
-
-                // rare use case, but possible and the CL spec says it should still accept
-                else if (evaluatedArg instanceof Seq)
-                    return ((Seq) evaluatedArg).cdr;
-                else throw new TypeException(arguments.car, List.class);
-            }
-        };   
-
-        // ----
-        // CONS
-        // ----
-
-        final SpecialFormEntry CONS = new SpecialFormEntry(
-            SpecialFormEntry.CONS, environment,
-            new FormHelpTopic("CONS", "create a cons",
-                "(cons <object-1> <object-2>) => <cons>",
-                "Creates a fresh cons, the car of which is object-1 and the "
-                    + "cdr of which is object-2.",
-                "object-1", "an object",
-                "object-2", "an object",
-                "cons", "a cons"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-                
-                SExp object1, object2;
-                Cons cons;
-
-                if (arguments == null || arguments.cdr == null)
-                    throw new InvalidArgumentQuantityException(toString(), 2);
-
-                // get the two objects
-                object1 = arguments.car.eval(symbolTable);
-                object2 = arguments.cdr.car.eval(symbolTable);
-
-                if (object2 instanceof List) cons = new Cons(object1, (List) object2);
-                else cons = new Cons(object1, object2);
-
-                return new List(cons);
-            }
-        };
-
         // -----
         // DEFUN
         // -----
@@ -669,20 +102,18 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "func-body", "an sexpression evaluated when the function is "
                     + "called."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
-                Symbol functionName;
-                ArrayList<Symbol> parameters = new ArrayList<Symbol>();
-                SExp body;
+                final Symbol functionName;
+                final Symbol[] parameters;
+                final SExp source;
+                final FunctionTemplate template;
 
                 // check for the correct number of arguments
-                if (arguments == null)
-                    throw new InvalidArgumentQuantityException(
-                        toString(), 3, 0);
-                if (arguments.length() != 3)
+                if (Cons.length(arguments, 3) != 3)
                     throw new InvalidArgumentQuantityException(
-                        toString(), 3, arguments.length());
+                        toString(), 3, Cons.length(arguments));
 
                 // TODO: check to see if a function for this symbol exists
                 // and warn if so
@@ -692,33 +123,126 @@ public abstract class SpecialFormEntry extends FormEntry {
                     Symbol.class, arguments.car);
 
                 // second argument, parameter list
-                arguments = arguments.cdr;
+                arguments = arguments.next();
                 assert (arguments != null);
                 
                 // read parameters
-                Seq paramSeq = TypeUtil.attemptCast(
-                    List.class, arguments.car).seq;
-
-                while (paramSeq != null) {
-                    parameters.add(TypeUtil.attemptCast(
-                        Symbol.class, paramSeq.car));
-                    paramSeq = paramSeq.cdr;
-                }
+                parameters = analyzer.parseParameters(arguments.car);
 
                 // third argument: function body
-                arguments = arguments.cdr;
+                arguments = arguments.next();
                 assert (arguments != null);
 
                 // TODO: necessary? if (!(arguments.car instanceof List))
                 
-                body = arguments.car;
+                source = arguments.car;
+
+                template = analyzer.analyzeFunction(functionName,
+                    parameters, source);
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                        environment.globalSymbolTable.bind(functionName,
+                            new FunctionEntry(template,
+                                template.capture(frame)));
 
-                environment.globalSymbolTable.bind(functionName,
-                    new FunctionEntry(functionName,
-                        parameters.toArray(new Symbol[]{}),
-                        body));
+                        return functionName;
+                    }
+                };
+            }
+        };
+
+        // ----------
+        // DEFUN-MEMO
+        // ----------
+
+        // inside the form, DEFUN names the symbol rather than the form
+        final SpecialFormEntry defunForm = DEFUN;
+
+        final SpecialFormEntry DEFUN_MEMO = new SpecialFormEntry(
+            SpecialFormEntry.DEFUN_MEMO, environment,
+            new FormHelpTopic("DEFUN-MEMO", "Define a memoized function.",
+                "(defun-memo <name> <param-list> <func-body>)",
+                "Defines a function as defun does and memoizes it as "
+                    + "(memoize 'name) does: results are cached by argument "
+                    + "list, keeping the " + MemoCache.DEFAULT_MAX_ENTRIES
+                    + " most recently used. Use memoize to choose another "
+                    + "cache.",
+                "name", "a symbol naming the function",
+                "param-list", "a list of symbols",
+                "func-body", "an sexpression evaluated when the function is "
+                    + "called."))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                final Node defun = defunForm.analyze(analyzer, arguments);
+                final Symbol name = (Symbol) arguments.car;
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                        defun.eval(frame);
+                        MemoizedFunctionEntry.memoize(
+                            environment.globalSymbolTable, name,
+                            new MemoCache(MemoCache.LRU,
+                                MemoCache.DEFAULT_MAX_ENTRIES, 0, false));
+                        return name;
+                    }
+                };
+            }
+        };
+
+        // -----------
+        // DEFCONSTANT
+        // -----------
+
+        final SpecialFormEntry DEFCONSTANT = new SpecialFormEntry(
+            SpecialFormEntry.DEFCONSTANT, environment,
+            new FormHelpTopic("DEFCONSTANT", "define a constant variable",
+                "(defconstant <name> <initial-value> [<documentation>]) => <name>",
+                "defconstant causes the global variable named by name to be "
+                    + "given a value that is the result of evaluating "
+                    + "initial-value. A constant cannot be assigned by setq "
+                    + "or bound by let, and references to it are replaced by "
+                    + "its value when code is analyzed. A constant may be "
+                    + "defined again only with the same value.",
+                "name", "a symbol; not evaluated. ",
+                "initial-value", "a form, evaluated.",
+                "documentation", "a string; not evaluated."))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                final Symbol name;
+                final Node initForm;
+                HelpTopic helpinfo = null;
+
+                if (arguments == null || arguments.next() == null)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        Cons.length(arguments));
 
-                return functionName;
+                // first argument: variable name
+                name = TypeUtil.attemptCast(Symbol.class, arguments.car);
+
+                // second argument: initial value
+                arguments = arguments.next();
+                initForm = analyzer.analyze(arguments.car);
+
+                // third argument: documentation
+                arguments = arguments.next();
+                if (arguments != null)
+                    helpinfo = new HelpTopic(name.toString(), "constant",
+                        TypeUtil.attemptCast(Str.class, arguments.car).value);
+
+                final HelpTopic constantHelp = helpinfo;
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                        environment.globalSymbolTable.define(name,
+                            initForm.eval(frame), true, constantHelp);
+                        return name;
+                    }
+                };
             }
         };
 
@@ -740,14 +264,14 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "initial-value", "a form, always evaluated",
                 "documentation", "a string; not evaluated."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
-                Symbol name;
-                SExp initValue = null;
+                final Symbol name;
+                Node initForm = null;
                 HelpTopic helpinfo = null;
 
-                if (arguments == null || arguments.length() < 1)
+                if (arguments == null)
                     throw new InvalidArgumentQuantityException(
                         toString(), 1, 0);
 
@@ -755,23 +279,34 @@ public abstract class SpecialFormEntry extends FormEntry {
                 name = TypeUtil.attemptCast(Symbol.class, arguments.car);
 
                 // second argument: initial value
-                arguments = arguments.cdr;
+                arguments = arguments.next();
                 if (arguments != null) {
-                    initValue = arguments.car.eval(symbolTable);
+                    initForm = analyzer.analyze(arguments.car);
                 
                     // third argument: documentation
-                    arguments = arguments.cdr;
+                    arguments = arguments.next();
                     if (arguments != null) 
                         helpinfo = new HelpTopic(name.toString(), "variable", 
                             TypeUtil.attemptCast(
                                 Str.class, arguments.car).value);
                 }
 
-                environment.globalSymbolTable.bind(name,
-                    new VariableEntry(name, initValue, false, helpinfo));
+                final Node initValueForm = initForm;
+                final HelpTopic variableHelp = helpinfo;
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                        SExp initValue = null;
 
-                return name;
+                        if (initValueForm != null)
+                            initValue = initValueForm.eval(frame);
 
+                        environment.globalSymbolTable.define(name,
+                            initValue, false, variableHelp);
+
+                        return name;
+                    }
+                };
             }
         };
 
@@ -793,57 +328,63 @@ public abstract class SpecialFormEntry extends FormEntry {
                     + "already bound.",
                 "documentation", "a string; not evaluated."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
                 
-                Symbol name;
-                SExp initValue = null;
-                HelpTopic helpinfo = null;
+                final Symbol name;
+                final Node defparameter;
 
-                if (arguments == null || arguments.length() < 1)
+                if (arguments == null)
                     throw new InvalidArgumentQuantityException(
                         toString(), 1, 0);
 
                 // first argument: variable name
                 name = TypeUtil.attemptCast(Symbol.class, arguments.car);
 
-                // if this variable is already defined, return without
-                // setting it
-                if (symbolTable.lookupVariable(name) != null)
-                    return arguments.car;
+                defparameter = DEFPARAM.analyze(analyzer, arguments);
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+
+                        // if this variable is already defined, return
+                        // without setting it
+                        if (environment.globalSymbolTable
+                                .lookupVariable(name) != null)
+                            return name;
 
-                return DEFPARAM.call(symbolTable, arguments);
+                        return defparameter.eval(frame);
+                    }
+                };
             }
         };
 
-        // ----------------
-        // ENABLE-DEBUG-AST
-        // ----------------
-
-        final SpecialFormEntry ENABLEDEBUGAST = new SpecialFormEntry(
-            SpecialFormEntry.ENABLEDEBUGAST, environment,
-            new FormHelpTopic("ENABLE-DEBUG-AST",
-                "Enable debug information: abstract syntax tree.",
-                "(enable-debug-ast [<enable>])",
-                "When DEBUG-AST is enabled, the runtime environment prints a "
-                    + "representation of the abstract syntax tree generated "
-                    + "by the parser for each sexpression it parses.",
-                "enable", "NIL = disabled, anything else = enabled. No "
-                    + "argument = enabled."))
+        // -----
+        // DELAY
+        // -----
+
+        final SpecialFormEntry DELAY = new SpecialFormEntry(
+            SpecialFormEntry.DELAY, environment,
+            new FormHelpTopic("DELAY", "Make a promise of a value.",
+                "(delay <form>) => <promise>",
+                "delay returns a promise to evaluate form. form is not "
+                    + "evaluated until the promise is first forced with "
+                    + "force; its value is then remembered, and forcing the "
+                    + "promise again returns it without evaluating form "
+                    + "again. form sees the lexical variables around the "
+                    + "delay, as the body of a lambda does.",
+                "form", "a form",
+                "promise", "a promise"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
-                if (arguments == null) {
-                    environment.dumpAST = true;
-                    return SExp.NIL;
-                }
-
-                SExp retVal = arguments.car.eval(symbolTable);
 
-                if (retVal != null && retVal != SExp.NIL) environment.dumpAST = true;
-                else environment.dumpAST = false;
+                if (Cons.length(arguments, 1) != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        Cons.length(arguments));
 
-                return retVal;
+                // the form is the body of a function of no arguments
+                return new DelayNode(new LambdaNode(analyzer.analyzeFunction(
+                    Lambda.NAME, new Symbol[0], arguments.car)));
             }
         };
 
@@ -861,21 +402,32 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "func-name", "a symbol naming a function",
                 "function", "a function"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments) 
+            public Node analyze(Analyzer analyzer, Cons arguments) 
             throws LispException {
-                FormEntry fe = null;
+
+                final Symbol name;
 
                 if (arguments == null)
                     throw new InvalidArgumentQuantityException(
                         toString(), 1, 0);
 
-                fe = symbolTable.lookupFunction(TypeUtil.attemptCast(
-                    Symbol.class, arguments.car));
+                name = TypeUtil.attemptCast(Symbol.class, arguments.car);
+
+                // local functions shadow global ones
+                Node local = analyzer.localFunctionReference(name);
+                if (local != null) return local;
+
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                        FormEntry fe = environment.globalSymbolTable
+                            .lookupFunction(name);
 
-                if (fe == null)
-                    throw new UndefinedFunctionException((Symbol) arguments.car);
+                        if (fe == null)
+                            throw new UndefinedFunctionException(name);
 
-                return fe;
+                        return fe;
+                    }
+                };
             }
         };
 
@@ -894,93 +446,18 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "arg", "an object",
                 "results", "the result of the function call"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
                 if (arguments == null)
                     throw new InvalidArgumentQuantityException(toString(),
                         "at least one argument is required.");
 
-                // first argument: function designator
-                SExp func = arguments.car.eval(symbolTable);
-                FormEntry fe = null;
-                arguments = arguments.cdr;
-
-                // cast if already a form entry
-                if (func instanceof FormEntry) fe = (FormEntry) func;
-
-                // lookup the function if it is a symbol
-                if (func instanceof Symbol) {
-                    fe = environment.globalSymbolTable
-                        .lookupFunction((Symbol) func);
-                    if (fe == null)
-                        throw new UndefinedFunctionException((Symbol) func);
-                }
-
-                if (fe == null)
-                    throw new TypeException(func, FormEntry.class);
-
-                // make the function call
-                return fe.call(symbolTable, arguments);
-            }
-        };
-
-        // ----
-        // GETF
-        // ----
-
-        final SpecialFormEntry GETF = new SpecialFormEntry(
-            SpecialFormEntry.GETF, environment,
-            new FormHelpTopic("GETF", "",
-                "(getf <plist> <indicator> [<default>]) => <value>",
-                "getf finds a property on the plist whose property indicator "
-                    + "is identical to indicator, and returns its "
-                    + "corresponding property value. If there are multiple "
-                    + "properties with that property indicator, getf uses the "
-                    + "first such property. If there is no property with that "
-                    + "property indicator, default is returned.",
-                "plist", "a property list.",
-                "indicator", "an object",
-                "default", "an object. The default is NIL",
-                "value", "an object"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                SExp plistEval;
-                Seq plistSeq;
-                SExp indicator;
-                SExp retVal = SExp.NIL;
-
-                if (arguments == null || arguments.length() < 2)
-                    throw new InvalidArgumentQuantityException(
-                        toString(), 2, 0);
-
-                // first argument: property list
-                plistEval = arguments.car.eval(symbolTable);
-                plistSeq = TypeUtil.attemptCast(List.class, plistEval).seq;
-
-                // second argument: indicator
-                arguments = arguments.cdr;
-                indicator = arguments.car.eval(symbolTable);
-
-                // third argument: default value
-                arguments = arguments.cdr;
-                if (arguments != null)
-                    retVal = arguments.car.eval(symbolTable);
-
-                while(plistSeq != null) {
-
-                    // check this value for equality
-                    if (plistSeq.car.equals(indicator))
-                        if (plistSeq.cdr != null)
-                            return plistSeq.cdr.car;
-
-                    // advance to the next pair (or terminate)
-                    plistSeq = (plistSeq.cdr == null ? null : plistSeq.cdr.cdr);
-                }
-
-                return retVal;
+                // first argument: function designator, the rest are the
+                // arguments to the function
+                return new FuncallNode(environment.globalSymbolTable,
+                    analyzer.analyze(arguments.car),
+                    analyzer.analyzeAll(arguments.next()));
             }
         };
 
@@ -997,41 +474,47 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "topic",
                 "either a string representing the topic to lookup or a symbol"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
-                
-                ArrayList<HelpTopic> topics = new ArrayList<HelpTopic>();
 
                 // no arguments: print help for HELP
                 if (arguments == null)
-                    return this.call(symbolTable,
-                        new Seq(SpecialFormEntry.HELP, null));
-
-                while (arguments != null) {
-                    // try to find the topic or function help
-                    if (arguments.car instanceof Str) {
-                        topics.add(HelpTopic.helpTopics.get(
-                            ((Str) arguments.car).value));
-                    } else if (arguments.car instanceof Symbol) {
-
-                        // lookup help for funtion
-                        FormEntry fe = symbolTable.lookupFunction(
-                            (Symbol) arguments.car);
-                        if (fe != null) topics.add(fe.helpinfo);
-
-                        // lookup help for variable
-                        VariableEntry ve = symbolTable.lookupVariable(
-                            (Symbol) arguments.car);
-                        if (ve != null) topics.add(ve.helpinfo);
-                    }
-
-                    arguments = arguments.cdr;
-                }
+                    return this.analyze(analyzer,
+                        new Cons(SpecialFormEntry.HELP, SExp.NIL));
 
-                for (HelpTopic topic : topics)
-                    topic.print(environment.getOutputStream());
+                final Cons topicNames = arguments;
 
-                return SExp.NIL;
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+                
+                        SymbolTable symbolTable = environment.globalSymbolTable;
+                        ArrayList<HelpTopic> topics = new ArrayList<HelpTopic>();
+
+                        for (Cons s = topicNames; s != null; s = s.next()) {
+                            // try to find the topic or function help
+                            if (s.car instanceof Str) {
+                                topics.add(HelpTopic.helpTopics.get(
+                                    ((Str) s.car).value));
+                            } else if (s.car instanceof Symbol) {
+
+                                // lookup help for funtion
+                                FormEntry fe = symbolTable.lookupFunction(
+                                    (Symbol) s.car);
+                                if (fe != null) topics.add(fe.helpinfo());
+
+                                // lookup help for variable
+                                VariableEntry ve = symbolTable.lookupVariable(
+                                    (Symbol) s.car);
+                                if (ve != null) topics.add(ve.helpinfo);
+                            }
+                        }
+
+                        for (HelpTopic topic : topics)
+                            topic.print(environment.getOutputStream());
+
+                        return SExp.NIL;
+                    }
+                };
             }
         };
 
@@ -1056,25 +539,27 @@ public abstract class SpecialFormEntry extends FormEntry {
                     + "returned by the then-form; otherwise, the values "
                     + "returned by the else-form."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments) 
+            public Node analyze(Analyzer analyzer, Cons arguments) 
             throws LispException {
 
-                if (arguments == null || arguments.length() < 2)
-                    throw new InvalidArgumentQuantityException(toString(), 2);
+                Node test, then, otherwise;
 
-                // evaluate test form
-                SExp testResult = arguments.car.eval(symbolTable);
+                if (arguments == null || arguments.next() == null)
+                    throw new InvalidArgumentQuantityException(toString(), 2);
 
-                // advance to then-form
-                arguments = arguments.cdr;
+                // test form
+                test = analyzer.analyze(arguments.car);
 
-                // if false, advance to else-form
-                if (testResult == null || testResult == SExp.NIL)
-                    arguments = arguments.cdr;
+                // then-form
+                arguments = arguments.next();
+                then = analyzer.analyze(arguments.car);
 
-                if (arguments == null) return SExp.NIL;
+                // else-form, NIL if absent
+                arguments = arguments.next();
+                if (arguments == null) otherwise = new ConstantNode(SExp.NIL);
+                else otherwise = analyzer.analyze(arguments.car);
 
-                return arguments.car.eval(symbolTable);
+                return new IfNode(test, then, otherwise);
             }
         };
 
@@ -1098,80 +583,80 @@ public abstract class SpecialFormEntry extends FormEntry {
                     + "progn.",
                 "form", "a form (the list of forms is an implicit progn."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
-                ArrayList<FormEntry> localFunctions = new ArrayList<FormEntry>();
-                ArrayList<Symbol> params;
+                ArrayList<Symbol> names = new ArrayList<Symbol>();
+                ArrayList<Symbol[]> params = new ArrayList<Symbol[]>();
+                ArrayList<SExp> sources = new ArrayList<SExp>();
                 LinkedList<SExp> localForms;
-                Seq labelsSeq, defunSeq, paramSeq;
-                SExp funcBody, result = SExp.NIL;
-                Symbol funcName;
-                SymbolTable newScope;
+                Cons labelsSeq, defunSeq;
+                SExp funcBody;
+
+                int n, mark;
+                int[] slots;
+                FunctionTemplate[] templates;
+                Node body;
 
                 if (arguments == null)
                     throw new InvalidArgumentQuantityException(toString(),
                         "at least one argument is required.");
 
-                labelsSeq = TypeUtil.attemptCast(List.class, arguments.car).seq;
+                labelsSeq = Cons.list(arguments.car);
 
                 // parse each local function definition
                 while (labelsSeq != null) {
-                    defunSeq = TypeUtil.attemptCast(List.class,
-                        labelsSeq.car).seq;
+                    defunSeq = Cons.list(labelsSeq.car);
 
-                    if (defunSeq == null || defunSeq.length() < 3)
+                    if (Cons.length(defunSeq, 3) < 3)
                         throw new LispException("Malformed LABELS expression: "
                             + "function definition list is incomplete.");
 
-                    funcName = TypeUtil.attemptCast(Symbol.class, defunSeq.car);
-                    defunSeq = defunSeq.cdr;
-                    paramSeq = TypeUtil.attemptCast(List.class,
-                        defunSeq.car).seq;
-                    defunSeq = defunSeq.cdr;
+                    names.add(TypeUtil.attemptCast(Symbol.class, defunSeq.car));
+                    defunSeq = defunSeq.next();
 
                     // capture each parameter to this function
-                    params = new ArrayList<Symbol>();
-                    while (paramSeq != null) {
-                        params.add(TypeUtil.attemptCast(Symbol.class,
-                            paramSeq.car));
-                        paramSeq = paramSeq.cdr;
-                    }
+                    params.add(analyzer.parseParameters(defunSeq.car));
+                    defunSeq = defunSeq.next();
 
                     // capture each local form
                     localForms = new LinkedList<SExp>();
                     while(defunSeq != null) {
                         localForms.add(defunSeq.car);
-                        defunSeq = defunSeq.cdr;
+                        defunSeq = defunSeq.next();
                     }
 
                     // create the implicit PROGN
                     localForms.addFirst(SpecialFormEntry.PROGN);
-                    funcBody = new List(new Seq(
-                        localForms.toArray(new SExp[]{})));
+                    funcBody = Cons.list(localForms.toArray(new SExp[]{}));
 
-                    // create the FunctionEntry
-                    localFunctions.add(new FunctionEntry(funcName,
-                        params.toArray(new Symbol[]{}), funcBody));
+                    sources.add(funcBody);
 
                     // next function definition
-                    labelsSeq = labelsSeq.cdr;
+                    labelsSeq = labelsSeq.next();
                 }
 
-                // create the new scope to include the new function definitions
-                newScope = new SymbolTable(symbolTable);
-                for (FormEntry fe : localFunctions)
-                    newScope.bind(fe.symbol, fe);
-
-                // advance to the body of the LABELS form, the implicit PROGN
-                // of forms
-                arguments = arguments.cdr;
-                while (arguments != null) {
-                    result = arguments.car.eval(newScope);
-                    arguments = arguments.cdr;
-                }
+                n = names.size();
+                slots = new int[n];
+                templates = new FunctionTemplate[n];
+
+                // the scope of the function names encompasses the function
+                // definitions themselves as well as the body
+                mark = analyzer.mark();
+                try {
+                    for (int i = 0; i < n; ++i)
+                        slots[i] = analyzer.bindFunction(names.get(i));
 
-                return result;
+                    // each function body has its own frame
+                    for (int i = 0; i < n; ++i)
+                        templates[i] = analyzer.analyzeFunction(
+                            names.get(i), params.get(i), sources.get(i));
+
+                    // the body of the LABELS form is an implicit PROGN
+                    body = analyzer.analyzeBody(arguments.next());
+                } finally { analyzer.release(mark); }
+
+                return new LabelsNode(slots, templates, body);
             }
         };
 
@@ -1189,32 +674,58 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "form", "a form",
                 "lambda", "a function"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
                 
-                ArrayList<Symbol> parameters = new ArrayList<Symbol>();
+                Symbol[] parameters;
                 SExp body;
-                Seq paramSeq;
 
-                if (arguments == null || arguments.length() != 2)
+                if (Cons.length(arguments, 2) != 2)
                     throw new InvalidArgumentQuantityException(toString(), 2);
 
                 // first parameter: parameters to the lambda
-                paramSeq = TypeUtil.attemptCast(List.class, arguments.car).seq;
-                while (paramSeq != null) {
-                    parameters.add(TypeUtil.attemptCast(
-                        Symbol.class, paramSeq.car));
-                    paramSeq = paramSeq.cdr;
-                }
+                parameters = analyzer.parseParameters(arguments.car);
 
                 // second argument: function body
-                arguments = arguments.cdr;
+                arguments = arguments.next();
                 assert (arguments != null);
 
                 body = arguments.car;
 
-                return new Lambda(parameters.toArray(new Symbol[]{}),
-                    body, symbolTable);
+                return new LambdaNode(
+                    analyzer.analyzeFunction(Lambda.NAME, parameters, body));
+            }
+        };
+
+        // ---------
+        // LAZY-CONS
+        // ---------
+
+        final SpecialFormEntry LAZY_CONS = new SpecialFormEntry(
+            SpecialFormEntry.LAZY_CONS, environment,
+            new FormHelpTopic("LAZY-CONS", "Make a cell of a lazy sequence.",
+                "(lazy-cons <head> <tail>) => <lazy-sequence>",
+                "lazy-cons evaluates head and returns a cons of its value and "
+                    + "a promise of the value of tail, as (cons head (delay "
+                    + "tail)). The tail is a lazy sequence, a list or NIL, "
+                    + "evaluated when lazy-cdr, take, drop or another lazy "
+                    + "sequence function first reaches it. A lazy sequence "
+                    + "may be infinite.",
+                "head", "a form",
+                "tail", "a form",
+                "lazy-sequence", "a cons"))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                if (Cons.length(arguments, 2) != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        Cons.length(arguments));
+
+                // (lazy-cons head tail) => (cons head (delay tail))
+                return analyzer.analyze(Cons.list(BuiltinFunctionEntry.CONS,
+                    arguments.car, Cons.list(SpecialFormEntry.DELAY,
+                        arguments.next().car)));
             }
         };
 
@@ -1243,62 +754,13 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "form", "a form",
                 "result", "the value returned by the last form"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
-                
-                SymbolTable newScope;
-                Seq letBinding;
-                ArrayList<Symbol> symbols = new ArrayList<Symbol>();
-                ArrayList<SExp> values = new ArrayList<SExp>();
-                SExp retVal = SExp.NIL;
 
-                if (arguments == null || arguments.length() < 1)
+                if (arguments == null)
                     throw new InvalidArgumentQuantityException(toString(), 1);
 
-                letBinding = TypeUtil.attemptCast(
-                    List.class, arguments.car).seq;
-
-                while (letBinding != null) {
-
-                    // each binding should be a list of a symbol and form
-                    if (!(letBinding.car instanceof List))
-                        throw new LispException("Malformed LET bindings: "
-                            + letBinding.car.toString());
-
-                    // get the symbol
-                    Seq binding = TypeUtil.attemptCast(
-                        List.class, letBinding.car).seq;
-
-                    if (binding == null) 
-                        throw new LispException(""); // TODO
-
-                    symbols.add(TypeUtil.attemptCast(Symbol.class, binding.car));
-
-                    // get and evaluate the value
-                    binding = binding.cdr;
-                    if (binding == null) values.add(SExp.NIL);
-                    else values.add(binding.car.eval(symbolTable));
-
-                    // next let binding
-                    letBinding = letBinding.cdr;
-                }
-
-                // perform actual binding in a new scope
-                newScope = new SymbolTable(symbolTable);
-
-                for (int i = 0; i < symbols.size(); ++i)
-                    newScope.bind(symbols.get(i),
-                        new VariableEntry(symbols.get(i), values.get(i)));
-
-                // evaluate all forms with the new scope
-                arguments = arguments.cdr;
-
-                while (arguments != null) {
-                    retVal = arguments.car.eval(newScope);
-                    arguments = arguments.cdr;
-                }
-
-                return retVal;
+                return analyzeLet(analyzer, arguments, false);
             }
         };
 
@@ -1328,62 +790,15 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "form", "a form",
                 "result", "the value returned by the last form"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
-                SymbolTable newScope;
-                Seq letBinding;
-                Symbol var;
-                SExp initvalue;
-                SExp retVal = SExp.NIL;
-
-                if (arguments == null || arguments.length() < 1)
+                if (arguments == null)
                     throw new InvalidArgumentQuantityException(toString(), 1);
 
-                letBinding = TypeUtil.attemptCast(
-                    List.class, arguments.car).seq;
-
-                // perform actual binding in a new scope
-                newScope = new SymbolTable(symbolTable);
-
-                while (letBinding != null) {
-
-                    // each binding should be a list of a symbol and form
-                    if (!(letBinding.car instanceof List))
-                        throw new LispException("Malformed LET bindings: "
-                            + letBinding.car.toString());
-
-                    // get the symbol
-                    Seq binding = TypeUtil.attemptCast(
-                        List.class, letBinding.car).seq;
-
-                    if (binding == null) 
-                        throw new LispException(""); // TODO
-
-                    var = TypeUtil.attemptCast(Symbol.class, binding.car);
-
-                    // get and evaluate the value
-                    // include already bound variables from the let* in the
-                    // scope for this evaluation
-                    binding = binding.cdr;
-                    if (binding == null) initvalue = SExp.NIL;
-                    else initvalue = binding.car.eval(newScope);
-
-                    newScope.bind(var, new VariableEntry(var, initvalue));
-
-                    // next let binding
-                    letBinding = letBinding.cdr;
-                }
-
-                // evaluate all forms with the new scope
-                arguments = arguments.cdr;
-
-                while (arguments != null) {
-                    retVal = arguments.car.eval(newScope);
-                    arguments = arguments.cdr;
-                }
-
-                return retVal;
+                // include already bound variables from the let* in the
+                // scope for each init-form
+                return analyzeLet(analyzer, arguments, true);
             }
         };
 
@@ -1394,100 +809,6 @@ public abstract class SpecialFormEntry extends FormEntry {
         // This is a Scheme function. It exists in CLISP as LABELS. The 
         // special form in JLisp is provided as an alias for LABELS
 
-        // ----
-        // LIST
-        // ----
-
-        final SpecialFormEntry LIST = new SpecialFormEntry(
-            SpecialFormEntry.LIST, environment,
-            new FormHelpTopic("LIST", "create a list",
-                "(list <object>*) => list",
-                "list returns a list containing the supplied objects.",
-                "object", "an object.",
-                "list", "a list."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-
-                ArrayList<SExp> values = new ArrayList<SExp>();
-                Seq retVal = null;
-
-                if (arguments == null) return SExp.NIL;
-
-                while(arguments != null) {
-                    // eval and push the current object
-                    values.add(arguments.car.eval(symbolTable));
-
-                    // next object in argument list
-                    arguments = arguments.cdr;
-                }
-
-                for (int i = values.size(); i != 0;)
-                    retVal = new Seq(values.get(--i), retVal);
-
-                return new List(retVal);
-            }
-        };
-
-        // ---
-        // MOD
-        // ---
-
-        // TODO: this does not follow the Common Lisp standard (which requires
-        // FLOOR, TRUNCATE, and others to be defined). Fix in future when the
-        // required functions are defined.
-        final SpecialFormEntry MOD = new SpecialFormEntry(
-            SpecialFormEntry.MOD, environment,
-            new FormHelpTopic("MOD", "modulus",
-                "(mod <number> <divisor>) => <result>",
-                "mod performs the operation floor on number and divisor and "
-                    + "returns the remainder of the floor operation. mod is "
-                    + "the modulus function when number and divisor are "
-                    + "integers. ",
-                "number", "a real.",
-                "divisor", "a real.",
-                "result", "a real."))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
-            throws LispException {
-                
-                Num dividend, divisor;
-
-                if (arguments == null || arguments.length() != 2)
-                    throw new InvalidArgumentQuantityException(toString(), 2);
-
-                dividend = TypeUtil.attemptCast(Num.class,
-                    arguments.car.eval(symbolTable));
-                divisor = TypeUtil.attemptCast(Num.class,
-                    arguments.cdr.car);
-
-                return dividend.remainder(divisor);
-            }
-        };
-
-        // ---
-        // NOT (also mapped to NULL?)
-        // ---
-
-        final SpecialFormEntry NOT = new SpecialFormEntry(
-            SpecialFormEntry.NOT, environment,
-            new FormHelpTopic("NOT", "Returns t if x is false; otherwise, "
-                + "returns nil.",
-                "(not <object>) => <object>",
-                "The not operator returns T iff the object passed as a "
-                + " parameter is equal to NIL and NIL otherwise.",
-                "object", "a generalized boolean (any object)"))
-        {
-            public SExp call(SymbolTable symbolTable, Seq arguments) 
-            throws LispException {
-                if (arguments == null || arguments.length() != 1)
-                    throw new InvalidArgumentQuantityException(toString(), 1);
-
-                if (SExp.NIL.equals(arguments.car.eval(symbolTable)))
-                    return SExp.T;
-                else return SExp.NIL;
-            }
-        };
         // -----
         // QUOTE
         // -----
@@ -1501,13 +822,14 @@ public abstract class SpecialFormEntry extends FormEntry {
                 + "quoted objects) are destructively modified. ",
                 "object", "an object; not evaluated."))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
                 if (arguments == null)
                     throw new InvalidArgumentQuantityException(
                         toString(), 1, 0);
 
-                return arguments.car;
+                return new ConstantNode(
+                    ConsPool.SHARED.intern(arguments.car));
             }
         };
 
@@ -1528,18 +850,136 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "form", "a list of forms",
                 "result", "the value of the last form"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
-                SExp result = SExp.NIL;
-
                 // evaluate all forms, left to right
-                while (arguments != null)  {
-                    result = arguments.car.eval(symbolTable);
-                    arguments = arguments.cdr;
+                return new PrognNode(analyzer.analyzeAll(arguments));
+            }
+        };
+
+        // ---
+        // POP
+        // ---
+
+        final SpecialFormEntry POP = new SpecialFormEntry(
+            SpecialFormEntry.POP, environment,
+            new FormHelpTopic("POP", "Remove the first element of a list.",
+                "(pop <place>) => <element>",
+                "pop reads the list in place, stores its cdr back into place "
+                    + "and returns its car. place is any place setf accepts; "
+                    + "its subforms are evaluated once, left to right.",
+                "place", "a place holding a list",
+                "element", "the first element of the list"))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                if (Cons.length(arguments, 1) != 1)
+                    throw new InvalidArgumentQuantityException(toString(), 1,
+                        Cons.length(arguments));
+
+                // (pop (op s1 s2)) => (let* ((p1 s1) (p2 s2) (g (op p1 p2)))
+                //                       (setf (op p1 p2) (cdr g)) (car g))
+                ArrayList<SExp> bindings = new ArrayList<SExp>();
+                SExp place = bindPlace(arguments.car, bindings);
+                Symbol list = new Symbol("LIST");
+                bindings.add(Cons.list(list, place));
+                return analyzer.analyze(letStar(bindings,
+                    storeForm(place, Cons.list(BuiltinFunctionEntry.CDR, list)),
+                    Cons.list(BuiltinFunctionEntry.CAR, list)));
+            }
+        };
+
+        // ----
+        // PUSH
+        // ----
+
+        final SpecialFormEntry PUSH = new SpecialFormEntry(
+            SpecialFormEntry.PUSH, environment,
+            new FormHelpTopic("PUSH", "Add an element to the front of a list.",
+                "(push <item> <place>) => <list>",
+                "push conses item onto the list in place, stores the new "
+                    + "list back into place and returns it. place is any "
+                    + "place setf accepts; item and then the subforms of "
+                    + "place are evaluated once, left to right. Building a "
+                    + "list with push and then reversing it with nreverse "
+                    + "takes time linear in its length.",
+                "item", "an object",
+                "place", "a place holding a list",
+                "list", "the new list"))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                if (Cons.length(arguments, 2) != 2)
+                    throw new InvalidArgumentQuantityException(toString(), 2,
+                        Cons.length(arguments));
+
+                // (push item (op s1 s2)) => (let* ((i item) (p1 s1) (p2 s2))
+                //                     (setf (op p1 p2) (cons i (op p1 p2))))
+                ArrayList<SExp> bindings = new ArrayList<SExp>();
+                SExp item = arguments.car;
+                SExp place = arguments.next().car;
+                if (place instanceof Cons && !isConstant(item)) {
+                    Symbol i = new Symbol("ITEM");
+                    bindings.add(Cons.list(i, item));
+                    item = i;
                 }
+                place = bindPlace(place, bindings);
+                return analyzer.analyze(letStar(bindings, storeForm(place,
+                    Cons.list(BuiltinFunctionEntry.CONS, item, place))));
+            }
+        };
+
+        // ----
+        // SETF
+        // ----
+
+        final SpecialFormEntry SETF = new SpecialFormEntry(
+            SpecialFormEntry.SETF, environment,
+            new FormHelpTopic("SETF", "Assigns values to places.",
+                "(setf [<place> <form>]*)",
+                "Assigns values to places. (setf place1 form1 place2 form2 "
+                    + "...) evaluates form1 and stores the result in place1, "
+                    + "then evaluates form2 and stores the result in place2, "
+                    + "and so forth, returning the last value stored. A "
+                    + "place is a variable, as for setq, or one of (aref "
+                    + "vector index), (gethash key hash-table [default]), "
+                    + "(fill-pointer vector), (car cons) or (cdr cons). The "
+                    + "subforms of a place are evaluated before the form, "
+                    + "left to right.",
+                "place", "a variable name or a place form",
+                "form", "a form"))
+        {
+            public Node analyze(Analyzer analyzer, Cons arguments)
+            throws LispException {
+
+                ArrayList<Node> assignments = new ArrayList<Node>();
+
+                // treat each pair, checking that it is complete
+                do {
+                    if (arguments == null || arguments.next() == null)
+                        throw new InvalidArgumentQuantityException(toString(),
+                            "there must be a positive, even number of "
+                            + "arguments (place, value pairs)");
+
+                    SExp place = arguments.car;
+                    SExp value = arguments.next().car;
+
+                    if (place instanceof Symbol)
+                        assignments.add(analyzer.variableAssignment(
+                            (Symbol) place, analyzer.analyze(value)));
+                    else assignments.add(analyzer.analyze(
+                        placeAssignment(place, value)));
+
+                    arguments = arguments.next().next();
+                } while (arguments != null);
+
+                if (assignments.size() == 1) return assignments.get(0);
 
-                return result;
+                return new PrognNode(
+                    assignments.toArray(new Node[assignments.size()]));
             }
         };
 
@@ -1564,19 +1004,18 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "a symbol naming a variable other than a constant variable",
                 "form", "a form"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
                 
+                ArrayList<Node> assignments = new ArrayList<Node>();
                 Symbol variableName;
-                SExp variableValue = SExp.NIL;
 
-                if (arguments == null || arguments.length() % 2 != 0)
-                    throw new InvalidArgumentQuantityException(toString(),
-                        "there must be a positive, even number of arguments "
-                        + "(name, value pairs)");
-
-                // treat each pair
-                while (arguments != null) {
+                // treat each pair, checking that it is complete
+                do {
+                    if (arguments == null || arguments.next() == null)
+                        throw new InvalidArgumentQuantityException(toString(),
+                            "there must be a positive, even number of "
+                            + "arguments (name, value pairs)");
 
                     // first argument of pair: Symbol for variable name
                     variableName = TypeUtil.attemptCast(
@@ -1586,18 +1025,18 @@ public abstract class SpecialFormEntry extends FormEntry {
                     // if the variable is a constant
 
                     // second argument: variable value
-                    arguments = arguments.cdr;
-                    assert (arguments != null);
+                    arguments = arguments.next();
 
-                    variableValue = arguments.car.eval(symbolTable);
+                    assignments.add(analyzer.variableAssignment(variableName,
+                        analyzer.analyze(arguments.car)));
 
-                    symbolTable.rebind(variableName,
-                        new VariableEntry(variableName, variableValue));
+                    arguments = arguments.next();
+                } while (arguments != null);
 
-                    arguments = arguments.cdr;
-                }
+                if (assignments.size() == 1) return assignments.get(0);
 
-                return variableValue;
+                return new PrognNode(
+                    assignments.toArray(new Node[assignments.size()]));
             }
         };
 
@@ -1613,27 +1052,39 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "Turn on trace information for a function.",
                 "funcname", "the name of the function to trace"))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
 
                 if (arguments == null || arguments.car == null)
-                    return SExp.NIL;
+                    return new ConstantNode(SExp.NIL);
 
                 // only parameter: symbol to trace
-                Symbol symbol = TypeUtil.attemptCast(
+                final Symbol symbol = TypeUtil.attemptCast(
                     Symbol.class, arguments.car);
 
-                FormEntry fe = symbolTable.lookupFunction(symbol);
+                return new Node() {
+                    public SExp eval(Frame frame) throws LispException {
+
+                        FormEntry fe = environment.globalSymbolTable
+                            .lookupFunction(symbol);
 
-                if (fe == null)
-                    throw new UndefinedFunctionException(symbol);
+                        if (fe == null)
+                            throw new UndefinedFunctionException(symbol);
 
-                if (fe instanceof FunctionEntry)
-                    ((FunctionEntry) fe).enableTrace(true);
+                        // a memoized function traces the calls that miss
+                        // its cache
+                        if (fe instanceof MemoizedFunctionEntry)
+                            fe = ((MemoizedFunctionEntry) fe).function;
 
-                // TODO: else throw error
+                        if (!(fe instanceof FunctionEntry))
+                            throw new LispException(symbol.name + " is not "
+                                + "a function defined in Lisp and cannot be "
+                                + "traced.");
 
-                return SExp.NIL;
+                        ((FunctionEntry) fe).enableTrace(true);
+                        return SExp.NIL;
+                    }
+                };
             }
         };
 
@@ -1647,37 +1098,30 @@ public abstract class SpecialFormEntry extends FormEntry {
                 "(quit)",
                 ""))
         {
-            public SExp call(SymbolTable symbolTable, Seq arguments)
+            public Node analyze(Analyzer analyzer, Cons arguments)
             throws LispException {
-                environment.signalStop();
-                return SExp.NIL;
+                return new Node() {
+                    public SExp eval(Frame frame) {
+                        environment.signalStop();
+                        return SExp.NIL;
+                    }
+                };
             }
         };
 
-        environment.globalSymbolTable.bind(LTE.symbol, LTE);
-        environment.globalSymbolTable.bind(LT.symbol, LT);
-        environment.globalSymbolTable.bind(NUMEQ.symbol, NUMEQ);
-        environment.globalSymbolTable.bind(NUMNOTEQ.symbol, NUMNOTEQ);
-        environment.globalSymbolTable.bind(GT.symbol, GT);
-        environment.globalSymbolTable.bind(GTE.symbol, GTE);
-        environment.globalSymbolTable.bind(DIF.symbol, DIF);
-        environment.globalSymbolTable.bind(DIV.symbol, DIV);
-        environment.globalSymbolTable.bind(MUL.symbol, MUL);
-        environment.globalSymbolTable.bind(SUM.symbol, SUM);
-        environment.globalSymbolTable.bind(CAR.symbol, CAR);
-        environment.globalSymbolTable.bind(CDR.symbol, CDR);
-        environment.globalSymbolTable.bind(CONS.symbol, CONS);
+        environment.globalSymbolTable.bind(DEFCONSTANT.symbol, DEFCONSTANT);
         environment.globalSymbolTable.bind(DEFUN.symbol, DEFUN);
+        environment.globalSymbolTable.bind(DEFUN_MEMO.symbol, DEFUN_MEMO);
         environment.globalSymbolTable.bind(DEFPARAM.symbol, DEFPARAM);
         environment.globalSymbolTable.bind(DEFVAR.symbol, DEFVAR);
-        environment.globalSymbolTable.bind(ENABLEDEBUGAST.symbol, ENABLEDEBUGAST);
+        environment.globalSymbolTable.bind(DELAY.symbol, DELAY);
         environment.globalSymbolTable.bind(FUNCALL.symbol, FUNCALL);
         environment.globalSymbolTable.bind(FUNCTION.symbol, FUNCTION);
-        environment.globalSymbolTable.bind(GETF.symbol, GETF);
         environment.globalSymbolTable.bind(HELP.symbol, HELP);
         environment.globalSymbolTable.bind(IF.symbol, IF);
         environment.globalSymbolTable.bind(LABELS.symbol, LABELS);
         environment.globalSymbolTable.bind(LAMBDA.symbol, LAMBDA);
+        environment.globalSymbolTable.bind(LAZY_CONS.symbol, LAZY_CONS);
         environment.globalSymbolTable.bind(LET.symbol, LET);
         environment.globalSymbolTable.bind(LET_STAR.symbol, LET_STAR);
 
@@ -1686,14 +1130,211 @@ public abstract class SpecialFormEntry extends FormEntry {
         // you to recursively define functions only. LET* allows you to
         // recursively define variables).
         environment.globalSymbolTable.bind(SpecialFormEntry.LETREC, LABELS); 
-        environment.globalSymbolTable.bind(LIST.symbol, LIST);
-        environment.globalSymbolTable.bind(MOD.symbol, MOD);
-        environment.globalSymbolTable.bind(NOT.symbol, NOT);
-        environment.globalSymbolTable.bind(SpecialFormEntry.NULL, NOT);
         environment.globalSymbolTable.bind(QUOTE.symbol, QUOTE);
         environment.globalSymbolTable.bind(PROGN.symbol, PROGN);
+        environment.globalSymbolTable.bind(POP.symbol, POP);
+        environment.globalSymbolTable.bind(PUSH.symbol, PUSH);
+        environment.globalSymbolTable.bind(SETF.symbol, SETF);
         environment.globalSymbolTable.bind(SETQ.symbol, SETQ);
         environment.globalSymbolTable.bind(TRACE.symbol, TRACE);
         environment.globalSymbolTable.bind(QUIT.symbol, QUIT);
     }
+
+    /**
+     * Analyze the bindings and body of a LET or LET* form,
+     * <tt>(([<var> <init-form>])*) <form>*</tt>. Lexical variables are
+     * allocated slots in the current frame; special variables get a slot of
+     * -1 and are bound dynamically.
+     * @param sequential <b>true</b> for LET*, <b>false</b> for LET.
+     */
+    static Node analyzeLet(Analyzer analyzer, Cons arguments,
+    boolean sequential) throws LispException {
+
+        Cons letBinding;
+        ArrayList<Symbol> symbols = new ArrayList<Symbol>();
+        ArrayList<Node> initForms = new ArrayList<Node>();
+        Set<Symbol> cells;
+        int[] slots;
+        int mark;
+        Node body;
+
+        letBinding = Cons.list(arguments.car);
+        slots = new int[letBinding == null ? 0 : letBinding.length()];
+        cells = analyzer.cellVariables(arguments);
+
+        mark = analyzer.mark();
+        try {
+            while (letBinding != null) {
+
+                // each binding should be a list of a symbol and form
+                if (!(letBinding.car instanceof Cons
+                    || letBinding.car == SExp.NIL))
+                    throw new LispException("Malformed LET bindings: "
+                        + letBinding.car.toString());
+
+                // get the symbol
+                Cons binding = Cons.list(letBinding.car);
+
+                if (binding == null) 
+                    throw new LispException(""); // TODO
+
+                symbols.add(TypeUtil.attemptCast(Symbol.class, binding.car));
+
+                // get the init-form for the value
+                binding = binding.next();
+                if (binding == null) initForms.add(new ConstantNode(SExp.NIL));
+                else initForms.add(analyzer.analyze(binding.car));
+
+                // LET* variables are visible to the following init-forms
+                if (sequential)
+                    slots[symbols.size() - 1] = bindLetVariable(analyzer,
+                        symbols.get(symbols.size() - 1), cells);
+
+                // next let binding
+                letBinding = letBinding.next();
+            }
+
+            // LET variables are only visible in the body
+            if (!sequential)
+                for (int i = 0; i < slots.length; ++i)
+                    slots[i] = bindLetVariable(analyzer, symbols.get(i),
+                        cells);
+
+            // all forms are evaluated with the new bindings
+            body = analyzer.analyzeBody(arguments.next());
+        } finally { analyzer.release(mark); }
+
+        // variables held in cells are initialized with a new cell
+        for (int i = 0; i < slots.length; ++i)
+            if (slots[i] >= 0 && cells.contains(symbols.get(i)))
+                initForms.set(i, new MakeCellNode(initForms.get(i)));
+
+        return new LetNode(analyzer.globalSymbolTable(),
+            symbols.toArray(new Symbol[symbols.size()]), slots,
+            initForms.toArray(new Node[initForms.size()]), body, sequential);
+    }
+
+    /**
+     * Allocate a slot for a variable bound by LET or LET*, or -1 if the
+     * variable is special.
+     * @param cells The variables of the form that are held in cells.
+     */
+    private static int bindLetVariable(Analyzer analyzer, Symbol var,
+    Set<Symbol> cells) throws LispException {
+        if (analyzer.isSpecial(var)) return -1;
+        return analyzer.bindVariable(var, cells.contains(var));
+    }
+
+    /**
+     * Rewrite an assignment to a place form into a call to the function that
+     * updates the place, evaluating the subforms of the place before the
+     * value.
+     */
+    private static SExp placeAssignment(SExp place, SExp value)
+    throws LispException {
+
+        // puthash takes the table after the value, so the key and table are
+        // bound first unless the order cannot matter
+        Cons form = Cons.list(place);
+        if (form != null && form.car == BuiltinFunctionEntry.GETHASH
+            && !isConstant(value)) {
+            ArrayList<SExp> bindings = new ArrayList<SExp>();
+            SExp bound = bindPlace(place, bindings);
+            return letStar(bindings, storeForm(bound, value));
+        }
+
+        return storeForm(place, value);
+    }
+
+    /**
+     * Bind the subforms of a place form to new uninterned variables, adding
+     * a (variable subform) binding for each subform that is not a constant.
+     * The place is returned with its subforms replaced by the variables, so
+     * that it can be both read and assigned while its subforms are
+     * evaluated once, in order. A variable is returned as it is.
+     */
+    private static SExp bindPlace(SExp place, ArrayList<SExp> bindings)
+    throws LispException {
+        if (!(place instanceof Cons)) return place;
+
+        ArrayList<SExp> bound = new ArrayList<SExp>();
+        Cons form = (Cons) place;
+        bound.add(form.car);
+        for (Cons s = form.next(); s != null; s = s.next()) {
+            if (isConstant(s.car)) {
+                bound.add(s.car);
+                continue;
+            }
+            Symbol var = new Symbol("PLACE");
+            bindings.add(Cons.list(var, s.car));
+            bound.add(var);
+        }
+        return Cons.list(bound.toArray(new SExp[bound.size()]));
+    }
+
+    /** If evaluating a form has no effect and cannot be affected by one. */
+    private static boolean isConstant(SExp form) {
+        if (form instanceof Cons) return ((Cons) form).car == QUOTE;
+        return !(form instanceof Symbol) || form instanceof Keyword;
+    }
+
+    /** (let* bindings form*), or the forms alone if there are no bindings. */
+    private static SExp letStar(ArrayList<SExp> bindings, SExp... forms) {
+        if (bindings.isEmpty())
+            return forms.length == 1 ? forms[0]
+                : new Cons(PROGN, Cons.list(forms));
+        return new Cons(LET_STAR, new Cons(
+            Cons.list(bindings.toArray(new SExp[bindings.size()])),
+            Cons.list(forms)));
+    }
+
+    /**
+     * The assignment of a value to a place, as by SETF, where the subforms
+     * of the place may be evaluated in any order relative to the value.
+     */
+    private static SExp storeForm(SExp place, SExp value)
+    throws LispException {
+        if (place instanceof Symbol) return Cons.list(SETF, place, value);
+
+        Cons form = Cons.list(place);
+        ArrayList<SExp> call = new ArrayList<SExp>();
+
+        if (form != null && form.car == BuiltinFunctionEntry.AREF) {
+            // (aref vector index) => (aset vector index value)
+            call.add(BuiltinFunctionEntry.ASET);
+            for (Cons s = form.next(); s != null; s = s.next()) call.add(s.car);
+            call.add(value);
+        }
+        else if (form != null && form.car == BuiltinFunctionEntry.FILLPOINTER) {
+            // (fill-pointer vector) => (fill-pointer vector value)
+            call.add(BuiltinFunctionEntry.FILLPOINTER);
+            for (Cons s = form.next(); s != null; s = s.next()) call.add(s.car);
+            call.add(value);
+        }
+        else if (form != null && form.car == BuiltinFunctionEntry.GETHASH) {
+            // (gethash key table [default]) => (puthash key value table)
+            // the default is only used when reading the place
+            int length = Cons.length(form, 4);
+            if (length < 3 || length > 4)
+                throw new LispException("Malformed SETF place: " + place);
+            call.add(BuiltinFunctionEntry.PUTHASH);
+            call.add(form.next().car);
+            call.add(value);
+            call.add(form.next().next().car);
+        }
+        else if (form != null && (form.car == BuiltinFunctionEntry.CAR
+            || form.car == BuiltinFunctionEntry.CDR)) {
+            // (car cons) => (car (rplaca cons value)), and likewise for cdr
+            if (Cons.length(form, 2) != 2)
+                throw new LispException("Malformed SETF place: " + place);
+            boolean car = form.car == BuiltinFunctionEntry.CAR;
+            call.add(form.car);
+            call.add(Cons.list(car ? BuiltinFunctionEntry.RPLACA
+                : BuiltinFunctionEntry.RPLACD, form.next().car, value));
+        }
+        else throw new LispException("Not a place SETF can assign to: "
+            + place);
+
+        return Cons.list(call.toArray(new SExp[call.size()]));
+    }
 }
@@ -11,13 +11,18 @@ public class Str implements SExp {
         this.value = value;
     }
 
-    /** {@inheritdoc}*/
-    public SExp eval(SymbolTable table) { return this; }
-
     public String display(String offset) {
         return offset + "Str: " + value + "\n";
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Str && value.equals(((Str) o).value));
+    }
+
+    @Override
+    public int hashCode() { return value.hashCode(); }
+
     @Override
     public String toString() {
         return value;
@@ -1,22 +1,25 @@
 package edu.utexas.cs345.jdblisp;
 
 /**
+ * Symbols are interned: {@link #intern} returns the same object for the same
+ * name, so two symbols are equal only if they are identical.
  * @author Jonathan Bernard (jdbernard@gmail.com)
  */
 public class Symbol implements SExp {
     public final String name;
 
-    public Symbol(String name) { this.name = name; }
-
-    /** {@inheritdoc}*/
-    public SExp eval(SymbolTable table) throws LispException {
-        // lookup value in the symbol table
-        VariableEntry ve = table.lookupVariable(this);
-
-        // err if not defined
-        if (ve == null) throw new UndefinedVariableException(this);
-
-        return ve.value;
+    /**
+     * Create an uninterned symbol. Use {@link #intern} to get the symbol
+     * that the reader would return for a name.
+     */
+    Symbol(String name) { this.name = name; }
+
+    /**
+     * Get the canonical symbol with the given name.
+     * @param name The name of the symbol, already upper-cased.
+     */
+    public static Symbol intern(String name) {
+        return SymbolRegistry.SYMBOLS.intern(name);
     }
 
     public String display(String offset) {
@@ -25,15 +28,4 @@ public class Symbol implements SExp {
 
     @Override
     public String toString() { return name; }
-
-    @Override
-    public boolean equals(Object that) {
-        if (this == that) return true;
-        if (that == null) return false;
-        if (!(that instanceof Symbol)) return false;
-        return this.name.equals(((Symbol) that).name);
-    }
-
-    @Override
-    public int hashCode() { return name.hashCode(); }
 }
@@ -0,0 +1,49 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SymbolRegistry
+ * Maps names to their canonical symbols. Interning every symbol through a
+ * registry means that there is only one symbol for each name, so symbols can
+ * be compared (and hashed) by identity. Keywords have a registry of their
+ * own; a registry per package can be added the same way.
+ */
+public class SymbolRegistry {
+
+    /** The registry of ordinary symbols. */
+    public static final SymbolRegistry SYMBOLS = new SymbolRegistry(false);
+
+    /** The registry of keywords. */
+    public static final SymbolRegistry KEYWORDS = new SymbolRegistry(true);
+
+    private final ConcurrentHashMap<String, Symbol> symbols =
+        new ConcurrentHashMap<String, Symbol>();
+    private final boolean keywords;
+
+    private SymbolRegistry(boolean keywords) { this.keywords = keywords; }
+
+    /**
+     * Find the symbol with the given name, creating it if it does not exist.
+     * @param name The name of the symbol.
+     * @return The canonical symbol for <tt>name</tt>.
+     */
+    public Symbol intern(String name) {
+        Symbol s = symbols.get(name);
+        if (s != null) return s;
+
+        s = keywords ? new Keyword(name) : new Symbol(name);
+        Symbol existing = symbols.putIfAbsent(name, s);
+        return existing == null ? s : existing;
+    }
+
+    /**
+     * Find the symbol with the given name.
+     * @param name The name of the symbol.
+     * @return The symbol, or <b>null</b> if it has not been interned.
+     */
+    public Symbol find(String name) { return symbols.get(name); }
+
+    /** The number of symbols in this registry. */
+    public int size() { return symbols.size(); }
+}
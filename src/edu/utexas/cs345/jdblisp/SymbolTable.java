@@ -7,8 +7,9 @@ import java.util.Map;
  * SymbolTable
  * @author Jonathan Bernard (jdbernard@gmail.com)
  * A SymbolTable holds the bindings of function definitions and variables for
- * a lexical scope. Functions and variables are maintained seperately, so you
- * can have a variable and function with the same symbol.
+ * the global environment. Functions and variables are maintained seperately,
+ * so you can have a variable and function with the same symbol. Lexical
+ * bindings are resolved by the {@link Analyzer} to slots in a {@link Frame}.
  */
 public class SymbolTable {
 
@@ -19,6 +20,10 @@ public class SymbolTable {
     private SymbolTable enclosingTable;
     private boolean locked = false;
 
+    // incremented whenever a function is bound, in any table. Call sites
+    // cache the function they looked up along with this version.
+    private static volatile int definitionsVersion = 0;
+
     /**
      * Create a new, unlocked, and empty symbol table.
      */
@@ -53,9 +58,18 @@ public class SymbolTable {
             // Also, check access permissions
         }
         functions.put(s, f);
+        ++definitionsVersion;
         return s;
     }
 
+    /**
+     * The version of the function definitions. It changes whenever a
+     * function is defined or redefined, so a function looked up under one
+     * version is still the current definition while the version is the
+     * same.
+     */
+    public static int definitionsVersion() { return definitionsVersion; }
+
     /**
      * Bind a value to a (potentially new) variable named by the
      * {@link edu.utexas.cs345.jdblisp.Symbol} s.
@@ -74,44 +88,44 @@ public class SymbolTable {
     }
 
     /**
-     * Bind a new value to an existing variable named by the
-     * {@link edu.utexas.cs345.jdblisp.Symbol} s.
+     * Define a global variable named by the
+     * {@link edu.utexas.cs345.jdblisp.Symbol} s. If the variable is already
+     * defined its value is set in place, so the variable keeps its cell.
      * @param s The {@link edu.utexas.cs345.jdblisp.Symbol} to bind.
-     * @param v The {@link edu.utexas.cs345.jdblisp.VariableEntry} representing
-     * the new value to bind.
-     * @throws edu.utexas.cs345.jdblisp.LispException if the variable is not
-     * defined or if the variable was defined as a constant.
+     * @param value The value of the variable.
+     * @param constant If the variable is a constant.
+     * @param helpinfo The documentation of the variable, may be <b>null</b>.
+     * @return The cell of the variable.
+     * @throws edu.utexas.cs345.jdblisp.LispException if the variable is a
+     * constant with a different value, or if a variable is redefined as a
+     * constant.
      */
-    public Symbol rebind(Symbol s, VariableEntry v) throws LispException {
-
-        // look up the variable in the current table
-        VariableEntry curVal = variables.get(s);
+    public VariableEntry define(Symbol s, SExp value, boolean constant,
+    HelpTopic helpinfo) throws LispException {
 
-        // not present
-        if (curVal == null) {
-            
-            // no parent table, variable is undefine
-            if (enclosingTable == null) 
-                throw new LispException("No such variable defined: " + s.name);
-
-            // check parent table
-            return enclosingTable.rebind(s, v);
+        VariableEntry ve = lookupVariable(s);
 
+        // a new variable
+        if (ve == null) {
+            ve = new VariableEntry(s, value, constant, helpinfo);
+            bind(s, ve);
+            return ve;
         }
-        
-        // it is present
-        else {
-
-            // if this variable is constant, err
-            if (curVal.isConstant)
-                throw new LispException("Cannot set variable " + s.name
-                    + ": the variable is constant.");
 
-            // if not, set the new value
-            variables.put(s, v);
+        // a constant may only be redefined with the same value
+        if (ve.isConstant) {
+            if (constant && ve.value == value) return ve;
+            throw new LispException("Cannot redefine " + s.name
+                + ": the variable is constant.");
         }
 
-        return s;
+        if (constant)
+            throw new LispException("Cannot define " + s.name + " as a "
+                + "constant: it is already defined as a variable.");
+
+        ve.value = value;
+        if (helpinfo != null) ve.helpinfo = helpinfo;
+        return ve;
     }
 
     /**
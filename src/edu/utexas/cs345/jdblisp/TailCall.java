@@ -0,0 +1,81 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * TailCall
+ * A call made in tail position of a function body that has not been run
+ * yet. Instead of calling the function, which would grow the Java stack, the
+ * body returns a TailCall and {@link FunctionEntry#call} runs it in a loop.
+ * The arguments are already bound in the frame the body will run in.
+ * A TailCall is never visible outside of <tt>FunctionEntry.call</tt>.
+ */
+public class TailCall implements SExp {
+
+    public final FunctionEntry function;
+    public final Frame frame;
+
+    public TailCall(FunctionEntry function, Frame frame) {
+        this.function = function;
+        this.frame = frame;
+    }
+
+    /**
+     * Run the pending tail calls until a value is returned.
+     * @param result A result that may be a TailCall.
+     * @return The final value.
+     */
+    static SExp complete(SExp result) throws LispException {
+        while (result instanceof TailCall) {
+            TailCall next = (TailCall) result;
+            result = next.function.run(next.frame);
+        }
+
+        return result;
+    }
+
+    // Calls in tail position. A call to a lisp function is left to the
+    // caller as a TailCall; anything else is called directly.
+
+    static SExp call(FormEntry fe, SExp[] arguments) throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call(arguments);
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind(arguments));
+    }
+
+    static SExp call0(FormEntry fe) throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call0();
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind0());
+    }
+
+    static SExp call1(FormEntry fe, SExp a) throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call1(a);
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind1(a));
+    }
+
+    static SExp call2(FormEntry fe, SExp a, SExp b) throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call2(a, b);
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind2(a, b));
+    }
+
+    static SExp call3(FormEntry fe, SExp a, SExp b, SExp c)
+    throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call3(a, b, c);
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind3(a, b, c));
+    }
+
+    static SExp call4(FormEntry fe, SExp a, SExp b, SExp c, SExp d)
+    throws LispException {
+        if (!(fe instanceof FunctionEntry)) return fe.call4(a, b, c, d);
+        FunctionEntry function = (FunctionEntry) fe;
+        return new TailCall(function, function.bind4(a, b, c, d));
+    }
+
+    public String display(String offset) {
+        return offset + "TailCall: " + function.toString() + "\n";
+    }
+
+    public String toString() { return "<TAIL-CALL " + function + ">"; }
+}
@@ -0,0 +1,162 @@
+package edu.utexas.cs345.jdblisp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Transducer
+ * A transformation of a reducing step, such as mapping or filtering, that is
+ * independent of where the elements come from and of how they are combined.
+ * A chain of transducers wraps the final reducing function in one step per
+ * stage, so {@link #transduce} runs the whole chain in a single pass over
+ * its source and builds no intermediate list or vector between the stages.
+ *
+ * A stage may end the reduction early, as TAKING does; the source is then
+ * not read any further.
+ */
+public abstract class Transducer implements SExp {
+
+    /** One stage of a reduction: combine an element into the result. */
+    public static abstract class Step {
+
+        protected final Step next;
+
+        protected Step(Step next) { this.next = next; }
+
+        public abstract SExp step(SExp result, SExp element)
+        throws LispException;
+
+        /** If no further element can change the result. */
+        public boolean isDone() { return next != null && next.isDone(); }
+    }
+
+    /** Wrap a step with this transformation. */
+    public abstract Step wrap(Step next);
+
+    /**
+     * Reduce the elements of a source through a transducer.
+     * @param source A list, a vector or a {@link LineSource}.
+     */
+    public static SExp transduce(Transducer xform, final FormEntry function,
+    SExp init, SExp source) throws LispException {
+
+        Step step = xform.wrap(new Step(null) {
+            public SExp step(SExp result, SExp element)
+            throws LispException {
+                return function.call2(result, element);
+            }
+        });
+
+        SExp result = init;
+
+        if (source instanceof LineSource) {
+            BufferedReader in = ((LineSource) source).open();
+            try {
+                String line;
+                // the value of a string includes its quotes, as the reader
+                // makes them
+                while (!step.isDone() && (line = in.readLine()) != null)
+                    result = step.step(result, new Str("\"" + line + "\""));
+            } catch (IOException ioe) {
+                throw new LispException("Error reading " + source + ": "
+                    + ioe.getMessage(), ioe);
+            } finally {
+                try { in.close(); } catch (IOException ioe) {}
+            }
+            return result;
+        }
+
+        Iterator<SExp> it = Sequences.iterator(source);
+        while (!step.isDone() && it.hasNext())
+            result = step.step(result, it.next());
+        return result;
+    }
+
+    public String display(String offset) {
+        return offset + "Transducer: " + toString() + "\n";
+    }
+
+    // ------
+    // STAGES
+    // ------
+
+    /** Pass on the value of a function of each element. */
+    public static class Mapping extends Transducer {
+        private final FormEntry function;
+
+        public Mapping(FormEntry function) { this.function = function; }
+
+        public Step wrap(Step next) {
+            return new Step(next) {
+                public SExp step(SExp result, SExp element)
+                throws LispException {
+                    return next.step(result, function.call1(element));
+                }
+            };
+        }
+
+        public String toString() { return "#<TRANSDUCER MAPPING>"; }
+    }
+
+    /** Pass on the elements that satisfy a predicate. */
+    public static class Filtering extends Transducer {
+        private final FormEntry predicate;
+
+        public Filtering(FormEntry predicate) { this.predicate = predicate; }
+
+        public Step wrap(Step next) {
+            return new Step(next) {
+                public SExp step(SExp result, SExp element)
+                throws LispException {
+                    if (predicate.call1(element) == SExp.NIL) return result;
+                    return next.step(result, element);
+                }
+            };
+        }
+
+        public String toString() { return "#<TRANSDUCER FILTERING>"; }
+    }
+
+    /** Pass on the first n elements and end the reduction. */
+    public static class Taking extends Transducer {
+        private final long count;
+
+        public Taking(long count) { this.count = count; }
+
+        // each reduction gets its own count
+        public Step wrap(Step next) {
+            return new Step(next) {
+                private long taken = 0;
+
+                public SExp step(SExp result, SExp element)
+                throws LispException {
+                    ++taken;
+                    return next.step(result, element);
+                }
+
+                public boolean isDone() {
+                    return taken >= count || super.isDone();
+                }
+            };
+        }
+
+        public String toString() {
+            return "#<TRANSDUCER TAKING " + count + ">";
+        }
+    }
+
+    /** The stages of several transducers, the first applied first. */
+    public static class Composite extends Transducer {
+        private final Transducer[] stages;
+
+        public Composite(Transducer[] stages) { this.stages = stages; }
+
+        public Step wrap(Step next) {
+            for (int i = stages.length; i-- > 0;) next = stages[i].wrap(next);
+            return next;
+        }
+
+        public String toString() { return "#<TRANSDUCER COMP>"; }
+    }
+}
@@ -11,4 +11,9 @@ public class TypeException extends LispException {
         super("TYPE-ERROR: The value " + sexp.toString() + " is not of type "
             + expectedType.getSimpleName());
     }
+
+    public TypeException(SExp sexp, String expectedType) {
+        super("TYPE-ERROR: The value " + sexp.toString() + " is not of type "
+            + expectedType);
+    }
 }
@@ -2,14 +2,18 @@ package edu.utexas.cs345.jdblisp;
 
 /**
  * VariableEntry
+ * The cell holding the value of a global variable. A variable keeps the same
+ * cell for as long as it is defined: assignment and dynamic binding update
+ * the value in place, so references may hold on to the cell once it has been
+ * looked up.
  * @author Jonathan Bernard (jdbernard@gmail.com)
  */
 public class VariableEntry implements SymbolTableEntry {
 
     public final Symbol symbol;
-    public final SExp value;
+    public SExp value;
     public final boolean isConstant;
-    public final HelpTopic helpinfo;
+    public HelpTopic helpinfo;
 
     public VariableEntry(Symbol symbol, SExp value) {
         this(symbol, value, false);
@@ -27,6 +31,20 @@ public class VariableEntry implements SymbolTableEntry {
         this.helpinfo = helpinfo;
     }
 
+    /**
+     * Assign a new value to this variable.
+     * @return The new value.
+     * @throws LispException if the variable is a constant.
+     */
+    public SExp set(SExp value) throws LispException {
+        if (isConstant)
+            throw new LispException("Cannot set variable " + symbol.name
+                + ": the variable is constant.");
+
+        this.value = value;
+        return value;
+    }
+
     public Symbol symbol() { return symbol; }
         
 }
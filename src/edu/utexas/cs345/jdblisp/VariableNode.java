@@ -0,0 +1,31 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * VariableNode
+ * A reference to the value of a global (or dynamically bound) variable.
+ */
+public class VariableNode extends Node {
+
+    private final SymbolTable globals;
+    public final Symbol symbol;
+
+    // the cell of the variable, found by the first reference
+    private VariableEntry cell = null;
+
+    public VariableNode(SymbolTable globals, Symbol symbol) {
+        this.globals = globals;
+        this.symbol = symbol;
+    }
+
+    public SExp eval(Frame frame) throws LispException {
+        if (cell == null) {
+            // lookup value in the global symbol table
+            cell = globals.lookupVariable(symbol);
+
+            // err if not defined
+            if (cell == null) throw new UndefinedVariableException(symbol);
+        }
+
+        return cell.value;
+    }
+}
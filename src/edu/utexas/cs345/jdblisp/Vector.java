@@ -0,0 +1,169 @@
+package edu.utexas.cs345.jdblisp;
+
+/**
+ * Vector
+ * A one-dimensional array with constant time access to its elements. The
+ * elements of a general vector may be any objects. Specialized vectors keep
+ * fixnums, double-floats or bytes in a primitive array, so an element costs
+ * a machine word or a byte instead of a boxed {@link Num}.
+ *
+ * A vector may have a fill pointer, the number of its elements that are
+ * active. Only the active elements are printed or pushed after, but every
+ * element can be accessed by index. A vector with a fill pointer grows when
+ * an element is pushed past its capacity.
+ */
+public abstract class Vector implements SExp {
+
+    // the largest array that can be allocated on most JVMs
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int fillPointer;        // -1 if there is none
+
+    protected Vector(int fillPointer) { this.fillPointer = fillPointer; }
+
+    /**
+     * Make a vector of the given element type. Element types that have no
+     * specialized vector are upgraded to T.
+     * @param elementType T, FIXNUM, DOUBLE-FLOAT or (UNSIGNED-BYTE 8).
+     * @param size The number of elements, initially the default element of
+     * the vector: NIL, 0 or 0.0d0.
+     * @param fillPointer The fill pointer, or -1 for none.
+     */
+    public static Vector make(SExp elementType, int size, int fillPointer) {
+        if (elementType == FixnumVector.ELEMENT_TYPE)
+            return new FixnumVector(size, fillPointer);
+        if (elementType == DoubleVector.ELEMENT_TYPE
+            || elementType == Symbol.intern("FLOAT")
+            || elementType == Symbol.intern("SINGLE-FLOAT"))
+            return new DoubleVector(size, fillPointer);
+        if (ByteVector.ELEMENT_TYPE.equals(elementType))
+            return new ByteVector(size, fillPointer);
+        return new GeneralVector(size, fillPointer);
+    }
+
+    /** The type of the elements, as given to MAKE-ARRAY. */
+    public abstract SExp elementType();
+
+    /** The number of elements, regardless of the fill pointer. */
+    public abstract int capacity();
+
+    public boolean hasFillPointer() { return fillPointer >= 0; }
+
+    public int fillPointer() { return fillPointer; }
+
+    public void setFillPointer(int fillPointer) throws LispException {
+        if (!hasFillPointer())
+            throw new LispException("The vector " + this
+                + " has no fill pointer.");
+        if (fillPointer < 0 || fillPointer > capacity())
+            throw new LispException("The fill pointer " + fillPointer
+                + " is out of bounds for a vector of size " + capacity()
+                + ".");
+        this.fillPointer = fillPointer;
+    }
+
+    /** The number of active elements. */
+    public int length() {
+        return hasFillPointer() ? fillPointer : capacity();
+    }
+
+    public SExp get(int index) throws LispException {
+        checkIndex(index);
+        return element(index);
+    }
+
+    public void set(int index, SExp value) throws LispException {
+        checkIndex(index);
+        setElement(index, value);
+    }
+
+    /**
+     * Store a value at the fill pointer and advance it, growing the vector
+     * if it is full.
+     * @param extension The minimum number of elements to grow by.
+     * @return The index of the new element.
+     */
+    public int push(SExp value, int extension) throws LispException {
+        if (!hasFillPointer())
+            throw new LispException("The vector " + this
+                + " has no fill pointer.");
+
+        if (fillPointer == capacity()) {
+            // at least double, computed in a long so it cannot overflow
+            long capacity = capacity();
+            if (capacity >= MAX_CAPACITY)
+                throw new LispException("The vector cannot grow past "
+                    + MAX_CAPACITY + " elements.");
+            resize((int) Math.min(MAX_CAPACITY,
+                capacity + Math.max(Math.max(extension, capacity), 4)));
+        }
+        setElement(fillPointer, value);
+        return fillPointer++;
+    }
+
+    /** Store a value in the elements from start up to end. */
+    public void fill(SExp value, int start, int end) throws LispException {
+        checkRange(start, end);
+        fillElements(value, start, end);
+    }
+
+    /**
+     * Copy elements of another vector into this one, as by System.arraycopy.
+     * @param count The number of elements to copy.
+     */
+    public void replace(int start, Vector source, int sourceStart, int count)
+    throws LispException {
+        checkRange(start, start + count);
+        source.checkRange(sourceStart, sourceStart + count);
+        copyElements(start, source, sourceStart, count);
+    }
+
+    public String display(String offset) {
+        return offset + "Vector: " + toString() + "\n";
+    }
+
+    @Override
+    public String toString() { return Printer.UNLIMITED.toString(this); }
+
+    // ---------------
+    // REPRESENTATIONS
+    // ---------------
+
+    // These are not bounds checked.
+
+    protected abstract SExp element(int index);
+
+    protected abstract void setElement(int index, SExp value)
+    throws LispException;
+
+    /** Change the number of elements, keeping those that fit. */
+    protected abstract void resize(int capacity);
+
+    protected void fillElements(SExp value, int start, int end)
+    throws LispException {
+        for (int i = start; i < end; ++i) setElement(i, value);
+    }
+
+    protected void copyElements(int start, Vector source, int sourceStart,
+    int count) throws LispException {
+        // copy backwards if the ranges overlap that way
+        if (source == this && sourceStart < start)
+            for (int i = count; i-- > 0;)
+                setElement(start + i, element(sourceStart + i));
+        else for (int i = 0; i < count; ++i)
+            setElement(start + i, source.element(sourceStart + i));
+    }
+
+    private void checkIndex(int index) throws LispException {
+        if (index < 0 || index >= capacity())
+            throw new LispException("The index " + index + " is out of "
+                + "bounds for a vector of size " + capacity() + ".");
+    }
+
+    private void checkRange(int start, int end) throws LispException {
+        if (start < 0 || end < start || end > capacity())
+            throw new LispException("The bounds " + start + " and " + end
+                + " are out of range for a vector of size " + capacity()
+                + ".");
+    }
+}
@@ -0,0 +1,325 @@
+/* Generated By:JavaCC: Do not edit this line. Parser.java */
+package edu.utexas.cs345.jdblisp.parser;
+
+import edu.utexas.cs345.jdblisp.*;
+import java.util.ArrayList;
+
+public class Parser implements ParserConstants {
+
+    private static Symbol QUOTE_SYMB = Symbol.intern("QUOTE");
+    private static Symbol FUNCTION_SYMB = Symbol.intern("FUNCTION");
+
+/**
+ * SExp -> Symbol | Str | Num | List 
+ */
+  static final public SExp sexp() throws ParseException {
+        SExp s = null; Token t;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case KEYWORD:
+    case SYMB:
+      s = symbol();
+                     {if (true) return s;}
+      break;
+    case STRG:
+      t = jj_consume_token(STRG);
+                   {if (true) return LiteralPool.READER.string(t.image);}
+      break;
+    case NUMB:
+      t = jj_consume_token(NUMB);
+                   {if (true) return LiteralPool.READER.number(t.image);}
+      break;
+    case QUOTE:
+      t = jj_consume_token(QUOTE);
+      s = sexp();
+                               {if (true) return ConsPool.SHARED.list(QUOTE_SYMB, s);}
+      break;
+    case FUNCTION:
+      t = jj_consume_token(FUNCTION);
+      s = sexp();
+                                  {if (true) return ConsPool.SHARED.list(FUNCTION_SYMB, s);}
+      break;
+    case LPAREN:
+    case NIL:
+      s = list();
+                   {if (true) return s;}
+      break;
+    default:
+      jj_la1[0] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    throw new Error("Missing return statement in function");
+  }
+
+/**
+ * List -> "(" Seq ")"
+ */
+  static final public SExp list() throws ParseException {
+        SExp s;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case LPAREN:
+      jj_consume_token(LPAREN);
+      s = seq();
+      jj_consume_token(RPAREN);
+                                     {if (true) return s;}
+      break;
+    case NIL:
+      jj_consume_token(NIL);
+               {if (true) return SExp.NIL;}
+      break;
+    default:
+      jj_la1[1] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    throw new Error("Missing return statement in function");
+  }
+
+/**
+ * Seq -> NIL | SExp Seq
+ * The elements are read in a loop rather than by recursion, so the length
+ * of a list is not limited by the stack. The cells are made through the
+ * ConsPool, so they are shared when hash-consing is enabled.
+ */
+  static final public SExp seq() throws ParseException {
+        ArrayList<SExp> elements = new ArrayList<SExp>(); SExp se;
+    label_1:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case LPAREN:
+      case NIL:
+      case QUOTE:
+      case FUNCTION:
+      case KEYWORD:
+      case NUMB:
+      case STRG:
+      case SYMB:
+        ;
+        break;
+      default:
+        jj_la1[2] = jj_gen;
+        break label_1;
+      }
+      se = sexp();
+                   elements.add(se);
+    }
+        SExp sq = SExp.NIL;
+        for (int i = elements.size(); i-- > 0;) sq = ConsPool.SHARED.cons(elements.get(i), sq);
+        {if (true) return sq;}
+    throw new Error("Missing return statement in function");
+  }
+
+/**
+ * Symbol -> Symbol | Keyword Symbol
+ */
+  static final public Symbol symbol() throws ParseException {
+  Token t;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case SYMB:
+      t = jj_consume_token(SYMB);
+                 {if (true) return Symbol.intern(t.image.toUpperCase());}
+      break;
+    case KEYWORD:
+      jj_consume_token(KEYWORD);
+      t = jj_consume_token(SYMB);
+                            {if (true) return Keyword.intern(t.image.toUpperCase());}
+      break;
+    default:
+      jj_la1[3] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    throw new Error("Missing return statement in function");
+  }
+
+  static private boolean jj_initialized_once = false;
+  /** Generated Token Manager. */
+  static public ParserTokenManager token_source;
+  static SimpleCharStream jj_input_stream;
+  /** Current token. */
+  static public Token token;
+  /** Next token. */
+  static public Token jj_nt;
+  static private int jj_ntk;
+  static private int jj_gen;
+  static final private int[] jj_la1 = new int[4];
+  static private int[] jj_la1_0;
+  static {
+      jj_la1_init_0();
+   }
+   private static void jj_la1_init_0() {
+      jj_la1_0 = new int[] {0xfe80,0x280,0xfe80,0x9000,};
+   }
+
+  /** Constructor with InputStream. */
+  public Parser(java.io.InputStream stream) {
+     this(stream, null);
+  }
+  /** Constructor with InputStream and supplied encoding */
+  public Parser(java.io.InputStream stream, String encoding) {
+    if (jj_initialized_once) {
+      System.out.println("ERROR: Second call to constructor of static parser.  ");
+      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
+      System.out.println("       during parser generation.");
+      throw new Error();
+    }
+    jj_initialized_once = true;
+    try { jj_input_stream = new SimpleCharStream(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
+    token_source = new ParserTokenManager(jj_input_stream);
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  /** Reinitialise. */
+  static public void ReInit(java.io.InputStream stream) {
+     ReInit(stream, null);
+  }
+  /** Reinitialise. */
+  static public void ReInit(java.io.InputStream stream, String encoding) {
+    try { jj_input_stream.ReInit(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
+    token_source.ReInit(jj_input_stream);
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  /** Constructor. */
+  public Parser(java.io.Reader stream) {
+    if (jj_initialized_once) {
+      System.out.println("ERROR: Second call to constructor of static parser. ");
+      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
+      System.out.println("       during parser generation.");
+      throw new Error();
+    }
+    jj_initialized_once = true;
+    jj_input_stream = new SimpleCharStream(stream, 1, 1);
+    token_source = new ParserTokenManager(jj_input_stream);
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  /** Reinitialise. */
+  static public void ReInit(java.io.Reader stream) {
+    jj_input_stream.ReInit(stream, 1, 1);
+    token_source.ReInit(jj_input_stream);
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  /** Constructor with generated Token Manager. */
+  public Parser(ParserTokenManager tm) {
+    if (jj_initialized_once) {
+      System.out.println("ERROR: Second call to constructor of static parser. ");
+      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
+      System.out.println("       during parser generation.");
+      throw new Error();
+    }
+    jj_initialized_once = true;
+    token_source = tm;
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  /** Reinitialise. */
+  public void ReInit(ParserTokenManager tm) {
+    token_source = tm;
+    token = new Token();
+    jj_ntk = -1;
+    jj_gen = 0;
+    for (int i = 0; i < 4; i++) jj_la1[i] = -1;
+  }
+
+  static private Token jj_consume_token(int kind) throws ParseException {
+    Token oldToken;
+    if ((oldToken = token).next != null) token = token.next;
+    else token = token.next = token_source.getNextToken();
+    jj_ntk = -1;
+    if (token.kind == kind) {
+      jj_gen++;
+      return token;
+    }
+    token = oldToken;
+    jj_kind = kind;
+    throw generateParseException();
+  }
+
+
+/** Get the next Token. */
+  static final public Token getNextToken() {
+    if (token.next != null) token = token.next;
+    else token = token.next = token_source.getNextToken();
+    jj_ntk = -1;
+    jj_gen++;
+    return token;
+  }
+
+/** Get the specific Token. */
+  static final public Token getToken(int index) {
+    Token t = token;
+    for (int i = 0; i < index; i++) {
+      if (t.next != null) t = t.next;
+      else t = t.next = token_source.getNextToken();
+    }
+    return t;
+  }
+
+  static private int jj_ntk() {
+    if ((jj_nt=token.next) == null)
+      return (jj_ntk = (token.next=token_source.getNextToken()).kind);
+    else
+      return (jj_ntk = jj_nt.kind);
+  }
+
+  static private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
+  static private int[] jj_expentry;
+  static private int jj_kind = -1;
+
+  /** Generate ParseException. */
+  static public ParseException generateParseException() {
+    jj_expentries.clear();
+    boolean[] la1tokens = new boolean[16];
+    if (jj_kind >= 0) {
+      la1tokens[jj_kind] = true;
+      jj_kind = -1;
+    }
+    for (int i = 0; i < 4; i++) {
+      if (jj_la1[i] == jj_gen) {
+        for (int j = 0; j < 32; j++) {
+          if ((jj_la1_0[i] & (1<<j)) != 0) {
+            la1tokens[j] = true;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < 16; i++) {
+      if (la1tokens[i]) {
+        jj_expentry = new int[1];
+        jj_expentry[0] = i;
+        jj_expentries.add(jj_expentry);
+      }
+    }
+    int[][] exptokseq = new int[jj_expentries.size()][];
+    for (int i = 0; i < jj_expentries.size(); i++) {
+      exptokseq[i] = jj_expentries.get(i);
+    }
+    return new ParseException(token, exptokseq, tokenImage);
+  }
+
+  /** Enable tracing. */
+  static final public void enable_tracing() {
+  }
+
+  /** Disable tracing. */
+  static final public void disable_tracing() {
+  }
+
+}
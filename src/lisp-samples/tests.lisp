@@ -18,7 +18,7 @@
 
 (<= 1 2 3 4) ; => T
 
-(<=) ; error, not enough args
+(<=) ; => Invalid number of arguments to <FUNCTION <=>
 
 (< 1 2 3 4) ; => T
 
@@ -34,7 +34,7 @@
 
 (< 1 "hi") ; type error
 
-(<) ; not enough args
+(<) ; => Invalid number of arguments to <FUNCTION <>
 
 (= 1 1) ; => T
 
@@ -66,7 +66,7 @@
 
 (> 5 "hi") ; type error
 
-(>) ; not enough args
+(>) ; => Invalid number of arguments to <FUNCTION >>
 
 (>= 7 7 7) ; => T
 
@@ -84,7 +84,7 @@
 
 (>= 3 "hi") ; type error
 
-(>=) ; not enough args
+(>=) ; => Invalid number of arguments to <FUNCTION >=>
 
 ;;; - TEST NUMERIC OPERATIONS
 
@@ -94,13 +94,13 @@
 
 (+ 1 5) ; => 6
 
-(+ 30.05 0.7 1.25) ; => 32
+(+ 30.05 0.7 1.25) ; => 32.00
 
 (+ one two) ; => 3
 
 (+ 5 "hi") ; => error: type
 
-(-) ; => error: arg #
+(-) ; => Invalid number of arguments to <FUNCTION ->
 
 (- 5) ; => -5
 
@@ -110,7 +110,7 @@
 
 (- 25 3 4 5 6 7) ; => 0
 
-(- 100 75.4 24.6) ; => 0
+(- 100 75.4 24.6) ; => 0.0
 
 (- two one one one) ; => -1
 
@@ -130,7 +130,7 @@
 
 (* 5 "hi") ; => error: type
 
-(/) ; => error: arg #
+(/) ; => Invalid number of arguments to <FUNCTION />
 
 (/ 5) ; => 0.2
 
@@ -146,13 +146,13 @@
 
 (defvar sq (lambda (x) (* x x))) ; => SQ
 
-sq ; => <LAMBDA (X) >
+sq ; => <LAMBDA (X ) >
 
 (funcall sq 5)  ; => 25
 
-#'sq ; => undefined function SQ
+#'sq ; => Undefined function: SQ
 
-(sq 5) ; => undefined function SQ
+(sq 5) ; => Undefined function: SQ
 
 ((lambda (x) (funcall sq x)) 6) ; => 36
 
@@ -253,9 +253,794 @@ sq ; => <LAMBDA (X) >
             (if (= n 0)
                 1
                 (* n (funcall factorial (- n 1)))))))
-    (funcall factorial 5))
+    (funcall factorial 5)) ; => Undefined variable: FACTORIAL
 
 ;; final note regarding LETREC and LET. In a compliant Common Lisp
 ;; implementation, LET does not allow recursive definition similar to
-;; LETREC. As I noted in my presentation, my implementation of LET does
-;; allow recursive definition.
+;; LETREC. Earlier versions of this implementation allowed it because
+;; variables were looked up dynamically in the caller's scope. Variables
+;; are now resolved lexically, so, as in Common Lisp, the lambda above
+;; cannot see the FACTORIAL binding; use LABELS instead.
+
+;;; - TEST ANALYZED FORMS
+
+;; forms are analyzed once into a node tree and then evaluated; a lambda
+;; of no arguments and the divisor of MOD are evaluated like any other form
+((lambda () 5)) ; => 5
+
+(mod 7 (+ 1 2)) ; => 1
+
+(defun twice (f x) (funcall f (funcall f x))) ; => TWICE
+
+(twice (lambda (y) (* y 3)) 2) ; => 18
+
+(twice (lambda (y) (* y 3)) 5) ; => 45
+
+;;; - TEST LEXICAL VARIABLES
+
+;; local variables are resolved to frame slots when a form is analyzed; an
+;; inner binding shadows an outer one only within its body
+(let ((x 1))
+    (let ((x 2) (y x))
+        (+ x y))) ; => 3
+
+(let ((x 1))
+    (let* ((x 2) (y x))
+        (+ x y))) ; => 4
+
+(let ((x 1))
+    (progn (let ((x 10)) (setq x 20)) x)) ; => 1
+
+(let ((x 1))
+    (progn (let ((y 10)) (setq x y)) x)) ; => 10
+
+(defun shadow (x) (let ((x (* x 2))) (+ x 1))) ; => SHADOW
+
+(shadow 5) ; => 11
+
+;; a parameter named by DEFVAR or DEFPARAMETER is bound dynamically, as LET
+;; binds it, so functions called from the body see the argument
+(defvar *s* 1) ; => *S*
+
+(defun gs () *s*) ; => GS
+
+(defun bind-s (*s*) (gs)) ; => BIND-S
+
+(bind-s 99) ; => 99
+
+(funcall (lambda (*s*) (gs)) 7) ; => 7
+
+(labels ((f (*s*) (gs))) (f 8)) ; => 8
+
+(let ((*s* 5)) (gs)) ; => 5
+
+(gs) ; => 1
+
+;;; - TEST COMPILER
+
+;; COMPILE translates a function body to JVM bytecode; the compiled function
+;; returns the same results as the interpreted one
+(defun poly (x) (+ (* 3 x x) (* 2 x) 1)) ; => POLY
+
+(poly 4) ; => 57
+
+(compile 'poly) ; => POLY
+
+(poly 4) ; => 57
+
+(compile nil (lambda (a b) (if (< a b) b a))) ; => <LAMBDA (A B ) >
+
+(funcall (compile nil (lambda (a b) (if (< a b) b a))) 3 8) ; => 8
+
+;; forms the compiler does not handle, such as LABELS, are still interpreted
+(defun count-down (n)
+    (labels ((down (i acc) (if (= i 0) acc (down (- i 1) (+ acc 1)))))
+        (down n 0))) ; => COUNT-DOWN
+
+(compile 'count-down) ; => COUNT-DOWN
+
+(count-down 10) ; => 10
+
+(compile 'no-such-function) ; => Undefined function: NO-SUCH-FUNCTION
+
+;; with auto-compile enabled (like the --compile option), every function is
+;; compiled as it is defined
+(enable-auto-compile t) ; => T
+
+(defun cube (x) (* x x x)) ; => CUBE
+
+(cube 3) ; => 27
+
+(enable-auto-compile nil) ; => NIL
+
+;;; - TEST TAIL CALLS
+
+;; calls in tail position, through IF, PROGN and LET, do not grow the stack,
+;; so tail recursion runs in constant space however deep it goes
+(defun count-to (n acc)
+    (if (= n 0) acc (count-to (- n 1) (+ acc 1)))) ; => COUNT-TO
+
+(count-to 1000000 0) ; => 1000000
+
+(defun drain (n)
+    (progn (if (= n 0) 'done (let ((m (- n 1))) (drain m))))) ; => DRAIN
+
+(drain 1000000) ; => DONE
+
+;; mutual recursion between global functions
+(defun my-even (n) (if (= n 0) t (my-odd (- n 1)))) ; => MY-EVEN
+
+(defun my-odd (n) (if (= n 0) nil (my-even (- n 1)))) ; => MY-ODD
+
+(my-even 1000001) ; => NIL
+
+(labels ((spin (i) (if (= i 0) 'stopped (spin (- i 1)))))
+    (spin 1000000)) ; => STOPPED
+
+;;; - TEST CALL-SITE CACHES
+
+;; a call site caches the function it found, and redefining the function
+;; invalidates the cache
+(defun answer () 41) ; => ANSWER
+
+(defun ask () (answer)) ; => ASK
+
+(ask) ; => 41
+
+(defun answer () 42) ; => ANSWER
+
+(ask) ; => 42
+
+(defvar *f* 'answer) ; => *F*
+
+(funcall *f*) ; => 42
+
+(defun answer () 43) ; => ANSWER
+
+(funcall *f*) ; => 43
+
+;;; - TEST SYMBOLS
+
+;; symbols and keywords are interned, so the same name is the same object
+(eq 'apple 'APPLE) ; => T
+
+(eq 'apple 'pear) ; => NIL
+
+(eq :size :SIZE) ; => T
+
+:size ; => :SIZE
+
+(eq (car '(apple)) 'apple) ; => T
+
+;;; - TEST FIXNUMS AND BIGNUMS
+
+;; integers that fit in 64 bits use machine arithmetic; results that
+;; overflow are promoted to bignums, and bignums that fit are demoted again
+(+ 9223372036854775807 1) ; => 9223372036854775808
+
+(- -9223372036854775808 1) ; => -9223372036854775809
+
+(* 4294967296 4294967296) ; => 18446744073709551616
+
+(- -9223372036854775808) ; => 9223372036854775808
+
+(eql (/ -9223372036854775808 -1) 9223372036854775808) ; => T
+
+(- (+ 9223372036854775807 1) 1) ; => 9223372036854775807
+
+(eql (- (+ 9223372036854775807 1) 1) 9223372036854775807) ; => T
+
+(* 123456789012345678901234567890 10) ; => 1234567890123456789012345678900
+
+(mod -7 3) ; => 2
+
+(rem -7 3) ; => -1
+
+;;; - TEST SHARED LITERALS
+
+;; small integers are shared, and equal literals read anywhere are the same
+;; object
+(eq 100 100) ; => T
+
+(eq (+ 500 500) 1000) ; => T
+
+(eq 123456789 123456789) ; => T
+
+(eq "shared" "shared") ; => T
+
+(eql 2.50 2.5) ; => T
+
+;;; - TEST DOUBLE FLOATS
+
+;; a number with an exponent marker reads as a double and prints with a d
+;; exponent so it reads back the same
+1.5e3 ; => 1500.0d0
+
+2d0 ; => 2.0d0
+
+;; a double operand makes the operation double-float
+(+ 1 2d0) ; => 3.0d0
+
+(* 1.5 2d0) ; => 3.0d0
+
+(/ 1 4d0) ; => 0.25d0
+
+(< 1 2d0 3) ; => T
+
+(= 1 1d0) ; => T
+
+;; non-terminating decimal division is rounded rather than an error
+(/ 3) ; => 0.3333333333333333333333333333333333
+
+(/ 1 0) ; => Division by zero
+
+;; infinities and NaN read and print as +inf.0, -inf.0 and +nan.0; NaN is
+;; unordered, so every comparison with it is false
+(< 1d0 +inf.0) ; => T
+
+(> -inf.0 -1d300) ; => NIL
+
+(= +nan.0 +nan.0) ; => NIL
+
+(< +nan.0 1d0) ; => NIL
+
+(> +nan.0 1d0) ; => NIL
+
+(eql +nan.0 +nan.0) ; => T
+
+;; numbers with only a decimal point read as doubles while enabled
+(enable-double-floats) ; => NIL
+
+0.5 ; => 0.5d0
+
+(+ 0.1 0.2) ; => 0.30000000000000004d0
+
+(enable-double-floats nil) ; => NIL
+
+0.5 ; => 0.5
+
+;;; - TEST ARGUMENT COUNTS
+
+;; calls with up to four arguments bind straight into the callee's frame;
+;; more use an argument array
+(defun f0 () 'zero) ; => F0
+
+(defun f2 (a b) (list a b)) ; => F2
+
+(defun f5 (a b c d e) (list a b c d e)) ; => F5
+
+(f0) ; => ZERO
+
+(f2 1 2) ; => (1 2)
+
+(f5 1 2 3 4 5) ; => (1 2 3 4 5)
+
+(funcall #'f2 3 4) ; => (3 4)
+
+(funcall (lambda (a b c) (+ a b c)) 1 2 3) ; => 6
+
+(f2 1) ; => Invalid number of arguments to <FUNCTION F2>: 1 (expected 2).
+
+(f5 1 2 3 4 5 6) ; => Invalid number of arguments to <FUNCTION F5>: 6 (expected 5).
+
+;;; - TEST GLOBAL VARIABLES
+
+;; DEFVAR keeps an existing value, DEFPARAMETER replaces it
+(defvar *x* 1) ; => *X*
+
+(defvar *x* 10) ; => *X*
+
+*x* ; => 1
+
+(defparameter *y* 2) ; => *Y*
+
+(defparameter *y* 20) ; => *Y*
+
+*y* ; => 20
+
+;; SETQ assigns the variable's cell in place, and a LET binding is seen by
+;; functions called inside it
+(setq *x* 5) ; => 5
+
+(defun get-x () *x*) ; => GET-X
+
+(let ((*x* 7)) (get-x)) ; => 7
+
+(get-x) ; => 5
+
+(defconstant +c+ 3) ; => +C+
+
+(setq +c+ 4) ; => Cannot set variable +C+: the variable is constant.
+
+(defconstant +c+ 4) ; => Cannot redefine +C+: the variable is constant.
+
+(setq t 1) ; => Cannot set variable T: the variable is constant.
+
+;;; - TEST CLOSURES
+
+;; each closure captures only the variables it uses; a captured variable
+;; that is assigned lives in a cell shared by every closure that sees it
+(defun make-counter ()
+    (let ((n 0)) (lambda () (setq n (+ n 1))))) ; => MAKE-COUNTER
+
+(defparameter c1 (make-counter)) ; => C1
+
+(defparameter c2 (make-counter)) ; => C2
+
+(funcall c1) ; => 1
+
+(funcall c1) ; => 2
+
+(funcall c2) ; => 1
+
+(defun make-pair (x)
+    (list (lambda () x) (lambda (v) (setq x v)))) ; => MAKE-PAIR
+
+(defparameter p (make-pair 1)) ; => P
+
+(funcall (car (cdr p)) 42) ; => 42
+
+(funcall (car p)) ; => 42
+
+;; nested lambdas capture through every enclosing function
+(defun adder (a) (lambda (b) (lambda (c) (+ a b c)))) ; => ADDER
+
+(funcall (funcall (adder 1) 2) 3) ; => 6
+
+;;; - TEST FUNCTION TEMPLATES
+
+;; a LAMBDA or LABELS form is analyzed once and each evaluation only builds
+;; a closure from it
+(defun twice (f) (lambda (x) (funcall f (funcall f x)))) ; => TWICE
+
+(funcall (twice (lambda (x) (* x 3))) 2) ; => 18
+
+(mapcar (lambda (n) (funcall (twice (lambda (x) (+ x n))) 0)) '(1 2 3)) ; => (2 4 6)
+
+(labels ((ev (n) (if (= n 0) t (od (- n 1))))
+         (od (n) (if (= n 0) nil (ev (- n 1)))))
+    (list (ev 10) (od 7))) ; => (T T)
+
+;;; - TEST MEMOIZATION
+
+(defun-memo fib (n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2))))) ; => FIB
+
+(fib 90) ; => 2880067194370816120
+
+(memo-stats 'fib) ; => (:HITS 88 :MISSES 91 :EVICTIONS 0 :EXPIRATIONS 0 :SIZE 91)
+
+;; the least frequently used result is evicted when the cache is full
+(defun sq (x) (* x x)) ; => SQ
+
+(memoize 'sq :max-entries 2 :policy :lfu) ; => SQ
+
+(sq 3) ; => 9
+
+(sq 3) ; => 9
+
+(sq 4) ; => 16
+
+(sq 5) ; => 25
+
+(memo-stats 'sq) ; => (:HITS 1 :MISSES 3 :EVICTIONS 1 :EXPIRATIONS 0 :SIZE 2)
+
+(memoize 'sq :bogus 1) ; => Unknown option to MEMOIZE: :BOGUS
+
+;; tracing a memoized function traces the function itself; this prints
+;; "(SQ 6)" and "SQ returned 36" before the result
+(trace sq) ; => NIL
+
+(sq 6) ; => 36
+
+(unmemoize 'sq) ; => SQ
+
+(memo-stats 'sq) ; => SQ is not memoized.
+
+;; a cached result is keyed by a copy of the argument lists, so modifying a
+;; list after the call neither loses its result nor returns it for the new
+;; contents
+(defun total (l) (reduce #'+ l)) ; => TOTAL
+
+(memoize 'total) ; => TOTAL
+
+(defparameter arg (list 1 2 3)) ; => ARG
+
+(total arg) ; => 6
+
+(rplaca arg 10) ; => (10 2 3)
+
+(total arg) ; => 15
+
+(total (list 1 2 3)) ; => 6
+
+(memo-stats 'total) ; => (:HITS 1 :MISSES 2 :EVICTIONS 0 :EXPIRATIONS 0 :SIZE 2)
+
+;;; - TEST EQUALITY
+
+(eq 'a 'a) ; => T
+
+(eq (list 1) (list 1)) ; => NIL
+
+(eql 1.5 1.5) ; => T
+
+(eql 1 1d0) ; => NIL
+
+(equal (list 1 (list 2 "s")) (list 1 (list 2 "s"))) ; => T
+
+(equal "abc" "ABC") ; => NIL
+
+(equal (vector 1 2) (vector 1 2)) ; => NIL
+
+;; EQUALP ignores case and numeric type, and looks inside vectors
+(equalp "abc" "ABC") ; => T
+
+(equalp 1 1d0) ; => T
+
+(equalp (vector 1 2) (vector 1 2)) ; => T
+
+(= (sxhash (list 1 2 3)) (sxhash (list 1 2 3))) ; => T
+
+;; circular lists are compared and hashed without looping forever
+(setq *print-circle* t) ; => T
+
+(defparameter r1 (list 1 2)) ; => R1
+
+(rplacd (cdr r1) r1) ; => #1=(2 1 . #1#)
+
+(defparameter r2 (list 1 2)) ; => R2
+
+(rplacd (cdr r2) r2) ; => #1=(2 1 . #1#)
+
+(equal r1 r2) ; => T
+
+(= (sxhash r1) (sxhash r2)) ; => T
+
+(setq *print-circle* nil) ; => NIL
+
+;;; - TEST HASH TABLES
+
+(defparameter h (make-hash-table :test 'equal)) ; => H
+
+(setf (gethash (list 1 2) h) 'pair) ; => PAIR
+
+(gethash (list 1 2) h) ; => PAIR
+
+(gethash 'missing h) ; => NIL
+
+(gethash 'missing h 'dflt) ; => DFLT
+
+(puthash "k" 10 h) ; => 10
+
+(gethash "k" h) ; => 10
+
+(hash-table-count h) ; => 2
+
+(remhash "k" h) ; => T
+
+(remhash "k" h) ; => NIL
+
+(hash-table-count h) ; => 1
+
+;; the default test is EQL, so a fresh list is a different key
+(defparameter e (make-hash-table)) ; => E
+
+(setf (gethash (list 1) e) 1) ; => 1
+
+(gethash (list 1) e) ; => NIL
+
+(setf (gethash 'a e) 2) ; => 2
+
+(defparameter sum 0) ; => SUM
+
+(maphash (lambda (k v) (setq sum (+ sum v))) e) ; => NIL
+
+sum ; => 3
+
+(clrhash e) ; => #<HASH-TABLE :TEST EQL :COUNT 0>
+
+;; SETF of GETHASH evaluates the key, the table and the value in order
+(defparameter trail nil) ; => TRAIL
+
+(setf (gethash (progn (push 'key trail) 'b)
+               (progn (push 'table trail) e))
+      (progn (push 'value trail) 4)) ; => 4
+
+trail ; => (VALUE TABLE KEY)
+
+(make-hash-table :test 'foo) ; => Unsupported hash table test: FOO (expected EQ, EQL or EQUAL).
+
+;;; - TEST VECTORS
+
+(defparameter v (make-array 3)) ; => V
+
+(setf (aref v 1) 'x) ; => X
+
+v ; => #(NIL X NIL)
+
+(aref v 3) ; => The index 3 is out of bounds for a vector of size 3.
+
+(vector-push-extend 1 v) ; => The vector #(NIL X NIL) has no fill pointer.
+
+;; a fixnum vector keeps its elements unboxed and grows past its capacity
+(defparameter f (make-array 2 :element-type 'fixnum :fill-pointer 0)) ; => F
+
+(vector-push-extend 7 f) ; => 0
+
+(vector-push-extend 8 f) ; => 1
+
+(vector-push-extend 9 f) ; => 2
+
+f ; => #(7 8 9)
+
+(length f) ; => 3
+
+(setf (aref f 0) 1.5d0) ; => TYPE-ERROR: The value 1.5d0 is not of type FIXNUM
+
+(defparameter b (make-array 2 :element-type '(unsigned-byte 8))) ; => B
+
+(setf (aref b 0) 300) ; => TYPE-ERROR: The value 300 is not of type (UNSIGNED-BYTE 8)
+
+(defparameter d (make-array 3 :element-type 'double-float)) ; => D
+
+d ; => #(0.0d0 0.0d0 0.0d0)
+
+(fill d 1.5d0) ; => #(1.5d0 1.5d0 1.5d0)
+
+;; REPLACE copies overlapping ranges of the same vector correctly
+(defparameter w (vector 1 2 3 4 5)) ; => W
+
+(replace w w :start1 1) ; => #(1 1 2 3 4)
+
+(vector 'a "b" 3) ; => #(A "b" 3)
+
+(defparameter big (make-array 0 :fill-pointer 0)) ; => BIG
+
+(labels ((fill-up (i)
+            (if (= i 100) (length big)
+                (progn (vector-push-extend i big) (fill-up (+ i 1))))))
+    (fill-up 0)) ; => 100
+
+(aref big 99) ; => 99
+
+;;; - TEST LIST LENGTHS
+
+;; lengths are counted in a loop, so a long list does not overflow the stack
+(defun build (n acc) (if (= n 0) acc (build (- n 1) (cons n acc)))) ; => BUILD
+
+(length (build 300000 nil)) ; => 300000
+
+(length nil) ; => 0
+
+(length (vector 1 2)) ; => 2
+
+(length 5) ; => TYPE-ERROR: The value 5 is not of type List
+
+;; special forms check their argument counts without counting the whole form
+(if) ; => Invalid number of arguments to <SPECIAL-FORM (IF) >: expected 2
+
+(defun g) ; => Invalid number of arguments to <SPECIAL-FORM (DEFUN) >: 1 (expected 3).
+
+(car) ; => Invalid number of arguments to <FUNCTION CAR>: 0 (expected 1).
+
+;;; - TEST PRINTER VARIABLES
+
+(setq *print-length* 3) ; => 3
+
+'(1 2 3 4 5) ; => (1 2 3 ...)
+
+(vector 1 2 3 4) ; => #(1 2 3 ...)
+
+(setq *print-length* nil) ; => NIL
+
+(setq *print-level* 2) ; => 2
+
+'(1 (2 (3 (4)))) ; => (1 (2 #))
+
+(setq *print-level* nil) ; => NIL
+
+;; with *print-circle*, shared structure is printed once and labelled
+(defparameter s (list 1 2)) ; => S
+
+(setq *print-circle* t) ; => T
+
+(list s s) ; => (#1=(1 2) #1#)
+
+(setq *print-circle* nil) ; => NIL
+
+(list s s) ; => ((1 2) (1 2))
+
+;;; - TEST CONS CELLS
+
+(cons 1 2) ; => (1 . 2)
+
+(cons 1 (cons 2 3)) ; => (1 2 . 3)
+
+(cons 1 nil) ; => (1)
+
+(car '(a b)) ; => A
+
+(cdr '(a b)) ; => (B)
+
+(car nil) ; => NIL
+
+(cdr nil) ; => NIL
+
+(car 5) ; => TYPE-ERROR: The value 5 is not of type List
+
+(car (cdr (cdr '(1 2 3)))) ; => 3
+
+'(a "s" 1.5) ; => (A "s" 1.5)
+
+;;; - TEST HASH-CONSING
+
+;; while enabled, equal quoted lists are the same cells, including shared
+;; tails; LIST still returns fresh cells
+(enable-hash-consing) ; => NIL
+
+(defparameter a '(:name "x" :tags (1 2 3))) ; => A
+
+(defparameter b '(:name "x" :tags (1 2 3))) ; => B
+
+(eq a b) ; => T
+
+(eq (cdr '(9 1 2 3)) '(1 2 3)) ; => T
+
+(eq (list 1 2) (list 1 2)) ; => NIL
+
+(eq (list 1 (list 2)) '(1 (2))) ; => NIL
+
+(rplaca '(1 2) 5) ; => The list (1 2) is shared by hash-consing and cannot be modified.
+
+(defparameter q (list 1 2)) ; => Q
+
+(rplaca q 5) ; => (5 2)
+
+(enable-hash-consing nil) ; => NIL
+
+(eq '(7 8) '(7 8)) ; => NIL
+
+(equal a b) ; => T
+
+;;; - TEST DESTRUCTIVE OPERATIONS
+
+(defparameter l (list 1 2 3)) ; => L
+
+(rplaca l 'a) ; => (A 2 3)
+
+(rplacd (cdr l) nil) ; => (2)
+
+l ; => (A 2)
+
+(nconc (list 1 2) (list 3) nil (list 4)) ; => (1 2 3 4)
+
+(nreverse (list 1 2 3)) ; => (3 2 1)
+
+(nreverse (vector 1 2 3)) ; => #(3 2 1)
+
+(defparameter st nil) ; => ST
+
+(push 1 st) ; => (1)
+
+(push 2 st) ; => (2 1)
+
+(pop st) ; => 2
+
+st ; => (1)
+
+(setf (car st) 'x) ; => X
+
+(setf (cdr st) (list 'y)) ; => (Y)
+
+st ; => (X Y)
+
+;; PUSH and POP evaluate the subforms of their place once
+(defparameter v (vector 1 2)) ; => V
+
+(defparameter i 0) ; => I
+
+(push 'p (aref v (setq i (+ i 1)))) ; => (P . 2)
+
+i ; => 1
+
+v ; => #(1 (P . 2))
+
+(pop (aref v 1)) ; => P
+
+;; a queue is a cons of its list and the list's last cell
+(defparameter qq (make-queue)) ; => QQ
+
+(enqueue qq 1) ; => ((1) 1)
+
+(enqueue qq 2) ; => ((1 2) 2)
+
+(queue-contents qq) ; => (1 2)
+
+;;; - TEST SEQUENCE FUNCTIONS
+
+(mapcar #'+ '(1 2 3) '(10 20)) ; => (11 22)
+
+(mapcar 'car '((a) (b))) ; => (A B)
+
+(reduce #'+ '(1 2 3 4)) ; => 10
+
+(reduce #'+ nil) ; => 0
+
+(reduce #'+ '(1 2) :initial-value 10) ; => 13
+
+(remove-if (lambda (x) (> x 2)) '(1 2 3 4 1)) ; => (1 2 1)
+
+(find 3 '(1 2 3)) ; => 3
+
+(find 'z '(1 2 3)) ; => NIL
+
+(position 3 '(1 2 3)) ; => 2
+
+(position 'z '(1 2)) ; => NIL
+
+(append '(1 2) nil '(3) '(4 5)) ; => (1 2 3 4 5)
+
+(reverse '(1 2 3)) ; => (3 2 1)
+
+(reverse (vector 1 2)) ; => #(2 1)
+
+;; function arguments are resolved the same way FUNCALL resolves them
+(mapcar 'nosuch '(1)) ; => Undefined function: NOSUCH
+
+(mapcar 5 '(1)) ; => TYPE-ERROR: The value 5 is not of type FUNCTION
+
+;;; - TEST TRANSDUCERS
+
+(transduce (mapping (lambda (x) (* x x))) #'+ 0 '(1 2 3)) ; => 14
+
+(transduce (comp (filtering (lambda (x) (> x 1)))
+                 (mapping (lambda (x) (* x 10))))
+    #'+ 0 (vector 1 2 3)) ; => 50
+
+(transduce (comp) #'+ 0 '(1 2)) ; => 3
+
+;; TAKING stops the reduction, so the rest of the source is not read
+(defparameter seen 0) ; => SEEN
+
+(transduce (comp (mapping (lambda (x) (progn (setq seen (+ seen 1)) x)))
+                 (taking 2))
+    (lambda (acc x) (cons x acc)) nil '(a b c d e)) ; => (B A)
+
+seen ; => 2
+
+(transduce (taking 0) #'+ 0 '(1 2)) ; => 0
+
+;;; - TEST LAZY SEQUENCES
+
+;; a promise runs its form once, the first time it is forced
+(defparameter n 0) ; => N
+
+(defparameter p (delay (setq n (+ n 1)))) ; => P
+
+n ; => 0
+
+(force p) ; => 1
+
+(force p) ; => 1
+
+n ; => 1
+
+(force 5) ; => 5
+
+;; LAZY-CONS delays its tail, so an infinite sequence is built as it is read
+(defun nats (k) (lazy-cons k (nats (+ k 1)))) ; => NATS
+
+(take 5 (nats 0)) ; => (0 1 2 3 4)
+
+(take 3 (drop 1000 (nats 0))) ; => (1000 1001 1002)
+
+(take 4 (iterate (lambda (x) (* x 2)) 1)) ; => (1 2 4 8)
+
+(take 3 (lazy-map (lambda (x) (* x x)) (nats 1))) ; => (1 4 9)
+
+(take 3 (lazy-filter (lambda (x) (= 0 (mod x 7))) (nats 1))) ; => (7 14 21)
+
+(car (lazy-cdr (nats 10))) ; => 11
+
+(take 5 '(1 2)) ; => (1 2)
+
+(length (take 100000 (nats 0))) ; => 100000